@@ -0,0 +1,139 @@
+import benchmark.Workload;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * PuzzleWorkload implements the benchmark Workload with the solver classes
+ * It lives in the default package beside the solver, which the benchmark package cannot see
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "UnusedDeclaration"})
+public class PuzzleWorkload implements Workload
+{
+	/**
+	 * Number of random moves made back from a destination to generate a start
+	 */
+	private static final int RANDOM_WALK = 1000;
+
+	/**
+	 * Puzzles loaded
+	 */
+	private final List<Puzzle>              puzzles      = new ArrayList<Puzzle>();
+	/**
+	 * Start of each puzzle
+	 */
+	private final List<PuzzleConfiguration> starts       = new ArrayList<PuzzleConfiguration>();
+	/**
+	 * Copy of the start of each puzzle, for equals
+	 */
+	private final List<PuzzleConfiguration> copies       = new ArrayList<PuzzleConfiguration>();
+	/**
+	 * Destination of each puzzle
+	 */
+	private final List<PuzzleConfiguration> destinations = new ArrayList<PuzzleConfiguration>();
+	/**
+	 * Buffer for generateNextStates
+	 */
+	private final long[]                    neighbours   = new long[PackedState.MOVES];
+
+	@Override
+	public void load(final String source, final int count, final long seed)
+	{
+		this.puzzles.clear();
+		this.starts.clear();
+		this.copies.clear();
+		this.destinations.clear();
+		final List<Puzzle> given = new ArrayList<Puzzle>(Application.initialisePuzzles());
+		if (MY_TILES.equals(source))
+		{
+			for (final Puzzle puzzle : given)
+			{
+				this.add(puzzle.toString());
+			}
+		}
+		else if (RANDOM.equals(source))
+		{
+			final Random random = new Random(seed);
+			for (int i = 0;i < count;i++)
+			{
+				final long destination = given.get(random.nextInt(given.size())).getDestinationConfig().getState();
+				long start = destination;
+				for (int step = 0;step < RANDOM_WALK;step++)
+				{
+					final long next = PackedState.move(start, random.nextInt(PackedState.MOVES));
+					if (next != PackedState.NO_STATE)
+					{
+						start = next;
+					}
+				}
+				this.add(PackedState.toString(start) + '2' + PackedState.toString(destination));
+			}
+		}
+		else
+		{
+			throw new IllegalArgumentException("Unknown puzzle source: " + source);
+		}
+	}
+
+	/**
+	 * Adds a puzzle
+	 *
+	 * @param configuration The puzzle in "start2destination" format
+	 */
+	private void add(final String configuration)
+	{
+		final Puzzle puzzle = new Puzzle(configuration);
+		final String start = configuration.substring(0, PackedState.CELLS);
+		this.puzzles.add(puzzle);
+		this.starts.add(new PuzzleConfiguration(start));
+		this.copies.add(new PuzzleConfiguration(start));
+		this.destinations.add(puzzle.getDestinationConfig());
+	}
+
+	@Override
+	public int size()
+	{
+		return this.puzzles.size();
+	}
+
+	@Override
+	public Object generateNextConfigs(final int puzzle)
+	{
+		return this.starts.get(puzzle).generateNextConfigs();
+	}
+
+	@Override
+	public int generateNextStates(final int puzzle)
+	{
+		return this.starts.get(puzzle).generateNextStates(this.neighbours);
+	}
+
+	@Override
+	public boolean equalsCopy(final int puzzle)
+	{
+		return this.starts.get(puzzle).equals(this.copies.get(puzzle));
+	}
+
+	@Override
+	public int getMinDistanceTo(final int puzzle)
+	{
+		return this.starts.get(puzzle).getMinDistanceTo(this.destinations.get(puzzle));
+	}
+
+	@Override
+	public long solve(final String method, final int puzzle)
+	{
+		final Puzzle solving = this.puzzles.get(puzzle);
+		SearchMethod.valueOf(method).solve(solving);
+		return solving.getExpandedNodes();
+	}
+
+	@Override
+	public long solveAStar(final String heuristic, final String openList, final int puzzle)
+	{
+		final Puzzle solving = this.puzzles.get(puzzle);
+		solving.solveWithAStarSearch(HeuristicType.valueOf(heuristic), OpenListType.valueOf(openList));
+		return solving.getExpandedNodes();
+	}
+}
@@ -0,0 +1,39 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * BenchmarkRunner is the entry point of benchmarks.jar
+ * It accepts the usual JMH command line and always adds the GC profiler, so every run reports allocation rates
+ */
+public final class BenchmarkRunner
+{
+	/**
+	 * Utility class, never instantiated
+	 */
+	private BenchmarkRunner()
+	{
+	}
+
+	/**
+	 * Runs the benchmarks
+	 *
+	 * @param args JMH command line options, such as a benchmark regex, -p method=A_STAR or -rf json
+	 *
+	 * @throws CommandLineOptionException if the options cannot be parsed
+	 * @throws RunnerException            if a benchmark fails
+	 */
+	public static void main(final String[] args) throws CommandLineOptionException, RunnerException
+	{
+		final Options options = new OptionsBuilder().parent(new CommandLineOptions(args))
+		                                            .addProfiler(GCProfiler.class)
+		                                            .build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,74 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the PuzzleConfiguration operations performed for every node of a search
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark
+{
+	/**
+	 * PuzzleConfiguration.generateNextConfigs
+	 *
+	 * @param puzzles The puzzles
+	 *
+	 * @return The configurations generated
+	 */
+	@Benchmark
+	public Object generateNextConfigs(final PuzzleSet puzzles)
+	{
+		return puzzles.getWorkload().generateNextConfigs(puzzles.next());
+	}
+
+	/**
+	 * PuzzleConfiguration.generateNextStates into a reused buffer
+	 *
+	 * @param puzzles The puzzles
+	 *
+	 * @return The number of states generated
+	 */
+	@Benchmark
+	public int generateNextStates(final PuzzleSet puzzles)
+	{
+		return puzzles.getWorkload().generateNextStates(puzzles.next());
+	}
+
+	/**
+	 * PuzzleConfiguration.equals
+	 *
+	 * @param puzzles The puzzles
+	 *
+	 * @return The result of equals
+	 */
+	@Benchmark
+	public boolean equals(final PuzzleSet puzzles)
+	{
+		return puzzles.getWorkload().equalsCopy(puzzles.next());
+	}
+
+	/**
+	 * PuzzleConfiguration.getMinDistanceTo
+	 *
+	 * @param puzzles The puzzles
+	 *
+	 * @return The distance
+	 */
+	@Benchmark
+	public int getMinDistanceTo(final PuzzleSet puzzles)
+	{
+		return puzzles.getWorkload().getMinDistanceTo(puzzles.next());
+	}
+}
@@ -0,0 +1,52 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks A* Search with each open list
+ * A heuristic of NONE gives Uniform Cost Search, which keeps by far the largest open lists
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpenListBenchmark
+{
+	/**
+	 * Name of the OpenListType to search with
+	 */
+	@Param({"HEAP", "BUCKET"})
+	public String openList;
+
+	/**
+	 * Name of the HeuristicType to search with
+	 */
+	@Param({"LINEAR_CONFLICT", "NONE"})
+	public String heuristic;
+
+	/**
+	 * Solves the next puzzle
+	 *
+	 * @param puzzles The puzzles
+	 *
+	 * @return The nodes expanded
+	 */
+	@Benchmark
+	public long solve(final PuzzleSet puzzles)
+	{
+		return puzzles.getWorkload().solveAStar(this.heuristic, this.openList, puzzles.next());
+	}
+}
@@ -0,0 +1,79 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * PuzzleSet is the JMH state holding the puzzles of a benchmark
+ * Each invocation takes the next puzzle in turn, so a score is the mean over the whole set
+ */
+@State(Scope.Thread)
+public class PuzzleSet
+{
+	/**
+	 * Name of the default package class implementing Workload
+	 */
+	private static final String WORKLOAD_CLASS = "PuzzleWorkload";
+
+	/**
+	 * Workload.MY_TILES or Workload.RANDOM
+	 */
+	@Param({Workload.MY_TILES, Workload.RANDOM})
+	public String source;
+	/**
+	 * Number of puzzles generated for Workload.RANDOM
+	 */
+	@Param("16")
+	public int    count;
+	/**
+	 * Seed of the puzzles generated for Workload.RANDOM
+	 */
+	@Param("2014")
+	public long   seed;
+
+	/**
+	 * The puzzles
+	 */
+	private Workload workload;
+	/**
+	 * Index of the next puzzle
+	 */
+	private int      next;
+
+	/**
+	 * Loads the puzzles once per trial
+	 *
+	 * @throws ReflectiveOperationException if PuzzleWorkload is not on the class path
+	 */
+	@Setup(Level.Trial)
+	public void load() throws ReflectiveOperationException
+	{
+		this.workload = (Workload) Class.forName(WORKLOAD_CLASS).getConstructor().newInstance();
+		this.workload.load(this.source, this.count, this.seed);
+	}
+
+	/**
+	 * Getter for the puzzles
+	 *
+	 * @return The workload
+	 */
+	public Workload getWorkload()
+	{
+		return this.workload;
+	}
+
+	/**
+	 * Moves on to the next puzzle, wrapping around at the end of the set
+	 *
+	 * @return The index of the puzzle
+	 */
+	public int next()
+	{
+		final int puzzle = this.next;
+		this.next = (puzzle + 1) % this.workload.size();
+		return puzzle;
+	}
+}
@@ -0,0 +1,86 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks solving whole puzzles with each search method
+ * solve reports puzzles solved and nodes expanded per second; timeToSolution reports the distribution of the time
+ * taken by a single puzzle
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark
+{
+	/**
+	 * Name of the SearchMethod to solve with; any other SearchMethod may be given with -p method=NAME
+	 */
+	@Param({"A_STAR", "UNIFORM_COST", "ITERATIVE_DEEPENING"})
+	public String method;
+
+	/**
+	 * Nodes expanded, which JMH reports as a rate alongside the score
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Nodes
+	{
+		/**
+		 * Nodes expanded during the iteration
+		 */
+		public long nodes;
+
+		/**
+		 * Starts each iteration from zero
+		 */
+		@Setup(Level.Iteration)
+		public void reset()
+		{
+			this.nodes = 0L;
+		}
+	}
+
+	/**
+	 * Solves the next puzzle, counting the nodes expanded
+	 *
+	 * @param puzzles The puzzles
+	 * @param nodes   Counter of nodes expanded
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public void solve(final PuzzleSet puzzles, final Nodes nodes)
+	{
+		nodes.nodes += puzzles.getWorkload().solve(this.method, puzzles.next());
+	}
+
+	/**
+	 * Solves the next puzzle
+	 *
+	 * @param puzzles The puzzles
+	 *
+	 * @return The nodes expanded
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.SampleTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public long timeToSolution(final PuzzleSet puzzles)
+	{
+		return puzzles.getWorkload().solve(this.method, puzzles.next());
+	}
+}
@@ -0,0 +1,92 @@
+package benchmark;
+
+/**
+ * Workload is the set of puzzles that the benchmarks run over
+ * JMH refuses benchmarks in the default package and the solver lives in the default package, which a named package
+ * cannot import. The benchmarks therefore only see this interface; PuzzleWorkload implements it beside the solver and
+ * is loaded by name once per trial, so nothing is looked up reflectively whilst measuring.
+ */
+public interface Workload
+{
+	/**
+	 * Puzzle set read from res/my_tiles
+	 */
+	String MY_TILES = "my_tiles";
+	/**
+	 * Puzzle set generated by random walks back from the res/my_tiles destinations
+	 */
+	String RANDOM   = "random";
+
+	/**
+	 * Loads the puzzles to run over
+	 *
+	 * @param source MY_TILES or RANDOM
+	 * @param count  Number of puzzles to generate for RANDOM
+	 * @param seed   Seed of the random walks for RANDOM
+	 */
+	void load(String source, int count, long seed);
+
+	/**
+	 * Getter for the number of puzzles loaded
+	 *
+	 * @return The number of puzzles
+	 */
+	int size();
+
+	/**
+	 * Calls PuzzleConfiguration.generateNextConfigs on the start of a puzzle
+	 *
+	 * @param puzzle Index of the puzzle
+	 *
+	 * @return The configurations generated
+	 */
+	Object generateNextConfigs(int puzzle);
+
+	/**
+	 * Calls PuzzleConfiguration.generateNextStates on the start of a puzzle with a buffer owned by the workload
+	 *
+	 * @param puzzle Index of the puzzle
+	 *
+	 * @return The number of states generated
+	 */
+	int generateNextStates(int puzzle);
+
+	/**
+	 * Calls PuzzleConfiguration.equals with the start and a copy of the start of a puzzle
+	 *
+	 * @param puzzle Index of the puzzle
+	 *
+	 * @return The result of equals
+	 */
+	boolean equalsCopy(int puzzle);
+
+	/**
+	 * Calls PuzzleConfiguration.getMinDistanceTo from the start to the destination of a puzzle
+	 *
+	 * @param puzzle Index of the puzzle
+	 *
+	 * @return The distance
+	 */
+	int getMinDistanceTo(int puzzle);
+
+	/**
+	 * Solves a puzzle
+	 *
+	 * @param method The name of a SearchMethod
+	 * @param puzzle Index of the puzzle
+	 *
+	 * @return The number of nodes the search expanded
+	 */
+	long solve(String method, int puzzle);
+
+	/**
+	 * Solves a puzzle with A* Search
+	 *
+	 * @param heuristic The name of a HeuristicType
+	 * @param openList  The name of an OpenListType
+	 * @param puzzle    Index of the puzzle
+	 *
+	 * @return The number of nodes the search expanded
+	 */
+	long solveAStar(String heuristic, String openList, int puzzle);
+}
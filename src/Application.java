@@ -1,7 +1,6 @@
 import java.io.*;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 /**
  * Initialises application
@@ -23,44 +22,455 @@ public class Application
 	 */
 	private static final String PATH_TO_OUTPUT = "./res/output/";
 
+	/**
+	 * Path where the search statistics of the batch will be exported to
+	 */
+	private static final String PATH_TO_STATS = "./res/stats/";
+
+	/**
+	 * Path where the solutions will be exported to when they are batched into a single file
+	 */
+	private static final String PATH_TO_BATCH = "./res/batch/";
+
+	/**
+	 * Path of the log of every route solved, which lets later runs skip puzzles solved before
+	 */
+	private static final String PATH_TO_CACHE = "./res/cache/";
+
+	/**
+	 * Number of routes the solution cache holds in memory
+	 */
+	private static final int CACHE_CAPACITY = 1 << 16;
+
+	/**
+	 * Command line option which exports every solution to a single file in PATH_TO_BATCH
+	 */
+	private static final String BATCH_OPTION = "--batch";
+
+	/**
+	 * Command line option which exports every solution to a compact binary file in PATH_TO_BATCH
+	 */
+	private static final String BINARY_OPTION = "--binary";
+
+	/**
+	 * Command line option which expands the binary file in PATH_TO_BATCH into PATH_TO_OUTPUT without solving anything
+	 */
+	private static final String EXPAND_OPTION = "--expand";
+
+	/**
+	 * Command line option which answers requests to solve puzzles over HTTP instead of solving the list, optionally
+	 * followed by the port
+	 */
+	private static final String SERVE_OPTION = "--serve";
+
 	/**
 	 * Nominated Main method for whole application
-	 * Gets puzzles
-	 * Parses Puzzles
+	 * Streams puzzles from the list
 	 * Solves Puzzles
-	 * Exports results
+	 * Exports each result as soon as it is solved
+	 * Memory use does not grow with the length of the list
 	 *
-	 * @param args Command line arguments
+	 * @param args Command line arguments; BATCH_OPTION exports to a single file instead of a file per puzzle,
+	 *             BINARY_OPTION exports to a binary file, EXPAND_OPTION expands that file without solving and
+	 *             SERVE_OPTION starts a SolveServer
 	 */
 	public static void main(final String[] args)
 	{
 		System.out.println("Eleven Tile Puzzle Solver Started");
-		final List<Puzzle> puzzles = new ArrayList<Puzzle>(Application.initialisePuzzles());
+		final String option = (args.length > 0) ? args[0] : "";
+		if (EXPAND_OPTION.equals(option))
+		{
+			System.out.println(Application.expandBinary() + " solutions expanded to " + PATH_TO_OUTPUT);
+			System.out.println("Quitting Application...");
+			return;
+		}
+		System.out.println("Loaded " + PatternDatabase.preload() + " pattern databases");
+		if (SERVE_OPTION.equals(option))
+		{
+			Application.serve((args.length > 1) ? args[1] : null);
+			return;
+		}
 		System.out.println("Solving process initiated");
-		final PuzzleSolver puzzleSolver = new PuzzleSolver(puzzles);
-		//puzzleSolver.solveAllIterativeDeepening();
-		//puzzleSolver.solveAllUniformCost();
-		puzzleSolver.solveAllAStar();
-		System.out.println("All puzzles solved");
-		System.out.println("Exporting solutions to " + PATH_TO_OUTPUT + "...");
-		Application.export(puzzleSolver.getPuzzles());
-		System.out.println("Puzzle solutions exported");
+		final SolutionSink solutions;
+		final Closeable batch;
+		if (BATCH_OPTION.equals(option))
+		{
+			System.out.println("Exporting solutions to " + PATH_TO_BATCH + " as they are solved...");
+			final SolutionBatchWriter writer = Application.openBatch();
+			solutions = writer;
+			batch = writer;
+		}
+		else if (BINARY_OPTION.equals(option))
+		{
+			System.out.println("Exporting binary solutions to " + PATH_TO_BATCH + " as they are solved...");
+			final BinarySolutionWriter writer = Application.openBinary();
+			solutions = writer;
+			batch = writer;
+		}
+		else
+		{
+			Application.clearOutput();
+			System.out.println("Exporting solutions to " + PATH_TO_OUTPUT + " as they are solved...");
+			solutions = SolutionExporter.PER_FILE;
+			batch = null;
+		}
+		final SolutionExporter exporter = Application.openExporter(solutions);
+		final SolutionCache cache = Application.openCache();
+		final long count = Application.solveStreaming(new StreamingSolver(SearchMethod.BOUNDED_A_STAR,
+		                                                                  Runtime.getRuntime().availableProcessors(),
+		                                                                  cache), exporter);
+		Application.closeCache(cache);
+		Application.closeExporter(exporter);
+		if (batch != null)
+		{
+			Application.closeBatch(batch);
+		}
+		if (exporter.getFailures() == 0)
+		{
+			System.out.println("All puzzles solved");
+		}
+		System.out.println(exporter.getSolved() + " of " + count + " puzzle solutions exported");
+		System.out.println("Searched with " + exporter.getTotal());
+		System.out.println("Solution cache: " + cache);
+		System.out.println("Search statistics exported to " + PATH_TO_STATS);
 		System.out.println("Success!");
 		System.out.println("Quitting Application...");
 	}
 
+	/**
+	 * Streams every puzzle of the list through a StreamingSolver
+	 *
+	 * @param solver The solver
+	 * @param sink   Receives each result as soon as it is solved
+	 *
+	 * @return The number of puzzles read
+	 */
+	private static long solveStreaming(final StreamingSolver solver, final SolutionSink sink)
+	{
+		PuzzleReader reader = null;
+		try
+		{
+			//noinspection IOResourceOpenedButNotSafelyClosed
+			reader = new PuzzleReader(new FileReader(PATH_TO_PUZZLE_LIST));
+			return solver.solve(reader, sink);
+		}
+		catch (final FileNotFoundException exception)
+		{
+			System.err.println("Status 1: Puzzles not found.");
+			System.err.println("Quitting Application...");
+			System.exit(1);
+		}
+		catch (final IOException exception)
+		{
+			System.err.println("Status 2: Error whilst reading puzzle file or writing search statistics");
+			System.err.println("Quitting Application...");
+			System.exit(2);
+		}
+		catch (final InterruptedException exception)
+		{
+			System.err.println("Status 10: Interrupted whilst solving");
+			System.err.println("Quitting Application...");
+			System.exit(10);
+		}
+		finally
+		{
+			try
+			{
+				if (reader != null)
+				{
+					reader.close();
+				}
+			}
+			catch (final IOException exception)
+			{
+				System.err.println("Status 3: Error whilst closing file reader");
+				System.err.println("Quitting Application...");
+				System.exit(3);
+			}
+		}
+		return 0L;
+	}
+
+	/**
+	 * Opens the exporter which writes solutions and search statistics as puzzles are solved
+	 *
+	 * @param solutions Receives every solved puzzle
+	 *
+	 * @return The exporter
+	 */
+	private static SolutionExporter openExporter(final SolutionSink solutions)
+	{
+		final File statsDir = new File(Application.PATH_TO_STATS);
+		//noinspection ResultOfMethodCallIgnored
+		statsDir.mkdirs();
+		try
+		{
+			return new SolutionExporter(statsDir, solutions);
+		}
+		catch (final IOException exception)
+		{
+			System.err.println("Status 9: Error writing search statistics to " + statsDir);
+			System.err.println("Quitting Application...");
+			System.exit(9);
+			return null;
+		}
+	}
+
+	/**
+	 * Closes the exporter, writing the total of the search statistics
+	 *
+	 * @param exporter The exporter
+	 */
+	private static void closeExporter(final SolutionExporter exporter)
+	{
+		try
+		{
+			exporter.close();
+		}
+		catch (final IOException exception)
+		{
+			System.err.println("Status 9: Error writing search statistics to " + PATH_TO_STATS);
+			System.err.println("Quitting Application...");
+			System.exit(9);
+		}
+	}
+
+	/**
+	 * Starts a SolveServer which shares the solution cache, closing both when the application is stopped
+	 * The server's threads keep the application running after main returns
+	 *
+	 * @param port The port to listen on, or null for SolveServer.DEFAULT_PORT
+	 */
+	private static void serve(final String port)
+	{
+		final SolutionCache cache = Application.openCache();
+		final SolveServer server;
+		try
+		{
+			server = new SolveServer((port == null) ? SolveServer.DEFAULT_PORT : Integer.parseInt(port),
+			                         SearchMethod.BOUNDED_A_STAR, Runtime.getRuntime().availableProcessors(), cache);
+		}
+		catch (final IOException exception)
+		{
+			System.err.println("Status 13: Unable to listen on port " + port);
+			System.err.println("Quitting Application...");
+			System.exit(13);
+			return;
+		}
+		catch (final NumberFormatException exception)
+		{
+			System.err.println("Status 13: Invalid port " + port);
+			System.err.println("Quitting Application...");
+			System.exit(13);
+			return;
+		}
+		Runtime.getRuntime().addShutdownHook(new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				server.close();
+				System.out.println("Solution cache: " + cache);
+				try
+				{
+					cache.close();
+				}
+				catch (final IOException exception)
+				{
+					//Exiting from a shutdown hook would never return
+					System.err.println("Status 12: Error closing solution cache in " + PATH_TO_CACHE);
+				}
+			}
+		}, "solve-server-shutdown"));
+		server.start();
+		System.out.println("Serving http://localhost:" + server.getPort() + SolveServer.PATH +
+		                   "?puzzle=start2destination");
+	}
+
+	/**
+	 * Opens the log of every route solved by earlier runs, starting a new one if there is none
+	 *
+	 * @return The cache
+	 */
+	private static SolutionCache openCache()
+	{
+		final File cacheDir = new File(Application.PATH_TO_CACHE);
+		//noinspection ResultOfMethodCallIgnored
+		cacheDir.mkdirs();
+		try
+		{
+			return new SolutionCache(new File(cacheDir, "solutions.log"), CACHE_CAPACITY);
+		}
+		catch (final IOException exception)
+		{
+			System.err.println("Status 12: Error opening solution cache in " + cacheDir);
+			System.err.println("Quitting Application...");
+			System.exit(12);
+			return null;
+		}
+	}
+
+	/**
+	 * Closes the solution cache
+	 *
+	 * @param cache The cache
+	 */
+	private static void closeCache(final SolutionCache cache)
+	{
+		try
+		{
+			cache.close();
+		}
+		catch (final IOException exception)
+		{
+			System.err.println("Status 12: Error closing solution cache in " + PATH_TO_CACHE);
+			System.err.println("Quitting Application...");
+			System.exit(12);
+		}
+	}
+
+	/**
+	 * Replaces any previous batch with a new, empty one
+	 *
+	 * @return The writer of the batch
+	 */
+	private static SolutionBatchWriter openBatch()
+	{
+		final File batchDir = new File(Application.PATH_TO_BATCH);
+		//noinspection ResultOfMethodCallIgnored
+		batchDir.mkdirs();
+		final File dataFile = new File(batchDir, "solutions.txt");
+		final File indexFile = new File(batchDir, "solutions.idx");
+		//noinspection ResultOfMethodCallIgnored
+		dataFile.delete();
+		//noinspection ResultOfMethodCallIgnored
+		indexFile.delete();
+		try
+		{
+			return new SolutionBatchWriter(dataFile, indexFile);
+		}
+		catch (final IOException exception)
+		{
+			System.err.println("Status 11: Error writing solutions to " + batchDir);
+			System.err.println("Quitting Application...");
+			System.exit(11);
+			return null;
+		}
+	}
+
+	/**
+	 * Replaces any previous binary batch with a new, empty one
+	 *
+	 * @return The writer of the binary batch
+	 */
+	private static BinarySolutionWriter openBinary()
+	{
+		final File batchDir = new File(Application.PATH_TO_BATCH);
+		//noinspection ResultOfMethodCallIgnored
+		batchDir.mkdirs();
+		try
+		{
+			return new BinarySolutionWriter(new File(batchDir, "solutions.bin"));
+		}
+		catch (final IOException exception)
+		{
+			System.err.println("Status 11: Error writing solutions to " + batchDir);
+			System.err.println("Quitting Application...");
+			System.exit(11);
+			return null;
+		}
+	}
+
+	/**
+	 * Expands every solution of the binary batch into its own text file in PATH_TO_OUTPUT
+	 * Previous output is deleted first
+	 *
+	 * @return The number of solutions expanded
+	 */
+	private static long expandBinary()
+	{
+		Application.clearOutput();
+		BinarySolutionReader reader = null;
+		long count = 0L;
+		try
+		{
+			reader = new BinarySolutionReader(new File(Application.PATH_TO_BATCH, "solutions.bin"));
+			while (reader.next())
+			{
+				Application.writeSolution(reader.getRows(), reader.getFilename());
+				count++;
+			}
+		}
+		catch (final FileNotFoundException exception)
+		{
+			System.err.println("Status 5: File not found");
+			System.err.println("Quitting Application...");
+			System.exit(5);
+		}
+		catch (final IOException exception)
+		{
+			System.err.println("Status 2: Error whilst reading binary solution file");
+			System.err.println("Quitting Application...");
+			System.exit(2);
+		}
+		finally
+		{
+			try
+			{
+				if (reader != null)
+				{
+					reader.close();
+				}
+			}
+			catch (final IOException exception)
+			{
+				System.err.println("Status 3: Error whilst closing file reader");
+				System.err.println("Quitting Application...");
+				System.exit(3);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Flushes and closes a batch
+	 *
+	 * @param batch The writer of the batch
+	 */
+	private static void closeBatch(final Closeable batch)
+	{
+		try
+		{
+			batch.close();
+		}
+		catch (final IOException exception)
+		{
+			System.err.println("Status 11: Error writing solutions to " + PATH_TO_BATCH);
+			System.err.println("Quitting Application...");
+			System.exit(11);
+		}
+	}
+
 	/**
 	 * Export takes a list of solved puzzles and writes each solution history to a text file
+	 * Puzzles which have not been solved are skipped
 	 *
 	 * @param puzzles The list of puzzles to export
 	 */
 	public static void export(final Iterable<Puzzle> puzzles)
 	{
-		//For each puzzle, get a route
-		//For each step in the route, get a configuration
-		//For each configuration, get top row
-		//For each row, append to string
-		//Repeat for all rows
+		Application.clearOutput();
+		for (final Puzzle puzzle : puzzles)
+		{
+			Application.exportSolution(puzzle);
+		}
+	}
+
+	/**
+	 * Deletes every solution previously exported
+	 */
+	public static void clearOutput()
+	{
 		final File outputDir = new File(Application.PATH_TO_OUTPUT);
 		//noinspection ConstantConditions
 		for (final File file : outputDir.listFiles())
@@ -68,37 +478,52 @@ public class Application
 			//noinspection ResultOfMethodCallIgnored
 			file.delete();
 		}
-		for (final Puzzle puzzle : puzzles)
+	}
+
+	/**
+	 * Writes the solution history of a single puzzle to its text file
+	 * A puzzle which has not been solved is skipped
+	 *
+	 * @param puzzle The puzzle to export
+	 */
+	public static void exportSolution(final Puzzle puzzle)
+	{
+		//For each step in the route, get a configuration
+		//For each configuration, get top row
+		//For each row, append to string
+		//Repeat for all rows
+		final Iterable<PuzzleConfiguration> route = puzzle.getRoute();
+		if (route == null)
+		{
+			//Unsolved puzzles have no solution to export
+			return;
+		}
+		final String[] textRows = new String[4];
+		for (int i = 0;i < textRows.length;i++)
 		{
-			final String[] textRows = new String[4];
-			final Iterable<PuzzleConfiguration> route = puzzle.getRoute();
-			for (int i = 0;i < textRows.length;i++)
+			//String builder could be any length
+			//noinspection StringBufferWithoutInitialCapacity
+			final StringBuilder stringBuilder = new StringBuilder();
+			for (final PuzzleConfiguration configuration : route)
 			{
-				//String builder could be any length
-				//noinspection StringBufferWithoutInitialCapacity
-				final StringBuilder stringBuilder = new StringBuilder();
-				for (final PuzzleConfiguration configuration : route)
-				{
-					stringBuilder.append(new String(configuration.getRow(i)));
-					stringBuilder.append(' ');
-				}
-				textRows[i] = stringBuilder.toString();
+				stringBuilder.append(new String(configuration.getRow(i)));
+				stringBuilder.append(' ');
 			}
-			Application.writeSolution(textRows, puzzle);
+			textRows[i] = stringBuilder.toString();
 		}
+		Application.writeSolution(textRows, puzzle.getFilename());
 	}
 
-
 	/**
 	 * Writes a set of puzzle configurations to a text file
 	 * Writes in all top rows \n bottom rows \n ... format
 	 *
-	 * @param rows   An ordered set of rows of the route configurations
-	 * @param puzzle The puzzle being written
+	 * @param rows       An ordered set of rows of the route configurations
+	 * @param puzzleName The filename of the puzzle being written
 	 */
-	private static void writeSolution(final String[] rows, final Puzzle puzzle)
+	private static void writeSolution(final String[] rows, final CharSequence puzzleName)
 	{
-		final String filename = Application.PATH_TO_OUTPUT + puzzle.getFilename();
+		final String filename = Application.PATH_TO_OUTPUT + puzzleName;
 		try
 		{
 			//noinspection ResultOfMethodCallIgnored
@@ -139,25 +564,24 @@ public class Application
 
 	/**
 	 * Reads a text file and parses it into a Puzzle
+	 * The whole list is held in memory; main streams the list instead
 	 *
 	 * @return Collection of puzzles
 	 */
 	public static Collection<Puzzle> initialisePuzzles()
 	{
-		BufferedReader reader = null;
+		PuzzleReader reader = null;
 		//noinspection MismatchedQueryAndUpdateOfCollection
 		final Collection<Puzzle> puzzles = new ArrayList<Puzzle>();
 		try
 		{
 			//noinspection IOResourceOpenedButNotSafelyClosed
-			reader = new BufferedReader(new FileReader(PATH_TO_PUZZLE_LIST));
-			@SuppressWarnings("StringBufferWithoutInitialCapacity")
-			String line = reader.readLine();
-			while (line != null)
+			reader = new PuzzleReader(new FileReader(PATH_TO_PUZZLE_LIST));
+			Puzzle puzzle = reader.next();
+			while (puzzle != null)
 			{
-				line = line.replace(".txt", "");
-				puzzles.add(new Puzzle(line));
-				line = reader.readLine();
+				puzzles.add(puzzle);
+				puzzle = reader.next();
 			}
 		}
 		catch (final FileNotFoundException exception)
@@ -0,0 +1,336 @@
+import java.util.Arrays;
+
+/**
+ * BidirectionalSearch searches forwards from the start and backwards from the destination at the same time
+ * Every move can be undone, so searching backwards is the same as searching forwards from the destination
+ * Each side records the states it has reached in a LongLongHashMap, with the parent and cost of each state packed
+ * into its value, and the route is stitched together from both maps where the searches meet
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public class BidirectionalSearch
+{
+	/**
+	 * Offset of the cost within a map value; the parent state takes the bits below it
+	 */
+	private static final int  COST_SHIFT  = 48;
+	/**
+	 * Mask of the parent state within a map value
+	 */
+	private static final long PARENT_MASK = (1L << COST_SHIFT) - 1L;
+
+	/**
+	 * Type of the open list of each side of A* Search
+	 */
+	private final OpenListType openListType;
+	/**
+	 * Counts of the last search, over both sides
+	 */
+	private       SearchStats  stats;
+
+	/**
+	 * Constructor for BidirectionalSearch with the default open list
+	 */
+	public BidirectionalSearch()
+	{
+		this(OpenListType.DEFAULT);
+	}
+
+	/**
+	 * Constructor for BidirectionalSearch
+	 *
+	 * @param openListType Type of the open list of each side of A* Search
+	 */
+	public BidirectionalSearch(final OpenListType openListType)
+	{
+		this.openListType = openListType;
+	}
+
+	/**
+	 * Packs a parent state and a cost into a map value
+	 * The start of each side is its own parent
+	 *
+	 * @param parent The packed state the state was reached from
+	 * @param cost   The number of moves from the start of the side
+	 *
+	 * @return The map value
+	 */
+	private static long link(final long parent, final int cost)
+	{
+		return parent | (((long) cost) << COST_SHIFT);
+	}
+
+	/**
+	 * Gets the parent state of a map value
+	 *
+	 * @param value The map value
+	 *
+	 * @return The packed parent state
+	 */
+	private static long parentOf(final long value)
+	{
+		return value & PARENT_MASK;
+	}
+
+	/**
+	 * Gets the cost of a map value
+	 *
+	 * @param value The map value
+	 *
+	 * @return The number of moves from the start of the side
+	 */
+	private static int costOf(final long value)
+	{
+		return (int) (value >>> COST_SHIFT);
+	}
+
+	/**
+	 * Finds a shortest route with bidirectional breadth first search
+	 * Whole levels are expanded at a time, always on the side with the smaller frontier. The first level that
+	 * meets the other side contains a shortest route, which is the cheapest meeting found in that level.
+	 *
+	 * @param start       The packed start state
+	 * @param destination The packed destination state
+	 *
+	 * @return The packed states from start to destination inclusive, or null if there is no route
+	 */
+	public long[] breadthFirst(final long start, final long destination)
+	{
+		return this.breadthFirst(start, destination, new SearchStats(BidirectionalSearch.class.getSimpleName()));
+	}
+
+	/**
+	 * Finds a shortest route with bidirectional breadth first search, counting the work done into stats
+	 * The open list is the frontiers of both sides
+	 *
+	 * @param start       The packed start state
+	 * @param destination The packed destination state
+	 * @param stats       Counts of the search; starting and stopping it is left to the caller
+	 *
+	 * @return The packed states from start to destination inclusive, or null if there is no route
+	 */
+	@SuppressWarnings("OverlyLongMethod")
+	public long[] breadthFirst(final long start, final long destination, final SearchStats stats)
+	{
+		this.stats = stats;
+		if (start == destination)
+		{
+			return new long[]{start};
+		}
+		final LongLongHashMap forward = new LongLongHashMap();
+		final LongLongHashMap backward = new LongLongHashMap();
+		final long[] neighbours = new long[PackedState.MOVES];
+		forward.put(start, BidirectionalSearch.link(start, 0));
+		backward.put(destination, BidirectionalSearch.link(destination, 0));
+		long[] forwardFrontier = {start};
+		long[] backwardFrontier = {destination};
+		int forwardCount = 1;
+		int backwardCount = 1;
+		while ((forwardCount > 0) && (backwardCount > 0))
+		{
+			final boolean fromStart = forwardCount <= backwardCount;
+			final long[] frontier = fromStart ? forwardFrontier : backwardFrontier;
+			final int count = fromStart ? forwardCount : backwardCount;
+			final LongLongHashMap mine = fromStart ? forward : backward;
+			final LongLongHashMap theirs = fromStart ? backward : forward;
+			long[] next = new long[Math.max(16, count * 2)];
+			int nextCount = 0;
+			long meeting = PackedState.NO_STATE;
+			int shortest = Integer.MAX_VALUE;
+			for (int i = 0;i < count;i++)
+			{
+				final long state = frontier[i];
+				final int cost = BidirectionalSearch.costOf(mine.get(state)) + 1;
+				stats.expanded();
+				final int legal = PackedState.successors(state, neighbours, 0);
+				for (int j = 0;j < legal;j++)
+				{
+					final long neighbour = neighbours[j];
+					stats.generated();
+					if (mine.containsKey(neighbour))
+					{
+						stats.duplicate();
+						continue;
+					}
+					mine.put(neighbour, BidirectionalSearch.link(state, cost));
+					final long other = theirs.get(neighbour);
+					if ((other != LongLongHashMap.NO_VALUE) && ((cost + BidirectionalSearch.costOf(other)) < shortest))
+					{
+						shortest = cost + BidirectionalSearch.costOf(other);
+						meeting = neighbour;
+					}
+					if (nextCount == next.length)
+					{
+						next = Arrays.copyOf(next, next.length * 2);
+					}
+					next[nextCount++] = neighbour;
+				}
+			}
+			if (meeting != PackedState.NO_STATE)
+			{
+				return BidirectionalSearch.stitch(meeting, forward, backward);
+			}
+			if (fromStart)
+			{
+				forwardFrontier = next;
+				forwardCount = nextCount;
+			}
+			else
+			{
+				backwardFrontier = next;
+				backwardCount = nextCount;
+			}
+			stats.open(forwardCount + backwardCount);
+		}
+		return null;
+	}
+
+	/**
+	 * Finds a shortest route with front-to-end bidirectional A* Search
+	 * The forward side estimates the distance to the destination and the backward side the distance to the start.
+	 * The side with the smaller open list is expanded next. Every route not yet found has to pass through the open
+	 * lists of both sides, so once the best meeting costs no more than the larger of the 2 smallest ranks it is
+	 * shortest.
+	 *
+	 * @param start       The packed start state
+	 * @param destination The packed destination state
+	 * @param toEnd       Consistent estimate of the distance to destination
+	 * @param toStart     Consistent estimate of the distance to start
+	 *
+	 * @return The packed states from start to destination inclusive, or null if there is no route
+	 */
+	public long[] aStar(final long start, final long destination, final Heuristic toEnd, final Heuristic toStart)
+	{
+		return this.aStar(start, destination, toEnd, toStart,
+		                  new SearchStats(BidirectionalSearch.class.getSimpleName()));
+	}
+
+	/**
+	 * Finds a shortest route with front-to-end bidirectional A* Search, counting the work done into stats
+	 * The open list is the open lists of both sides
+	 *
+	 * @param start       The packed start state
+	 * @param destination The packed destination state
+	 * @param toEnd       Consistent estimate of the distance to destination
+	 * @param toStart     Consistent estimate of the distance to start
+	 * @param stats       Counts of the search; starting and stopping it is left to the caller
+	 *
+	 * @return The packed states from start to destination inclusive, or null if there is no route
+	 */
+	@SuppressWarnings({"FeatureEnvy", "OverlyLongMethod"})
+	public long[] aStar(final long start,
+	                    final long destination,
+	                    final Heuristic toEnd,
+	                    final Heuristic toStart,
+	                    final SearchStats stats)
+	{
+		this.stats = stats;
+		final LongLongHashMap forward = new LongLongHashMap();
+		final LongLongHashMap backward = new LongLongHashMap();
+		final long[] neighbours = new long[PackedState.MOVES];
+		final LongHashSet forwardClosed = new LongHashSet();
+		final LongHashSet backwardClosed = new LongHashSet();
+		final OpenList forwardOpen = this.openListType.create();
+		final OpenList backwardOpen = this.openListType.create();
+		forward.put(start, BidirectionalSearch.link(start, 0));
+		backward.put(destination, BidirectionalSearch.link(destination, 0));
+		forwardOpen.add(new SearchNode(start, 0, toEnd.estimate(start), null));
+		backwardOpen.add(new SearchNode(destination, 0, toStart.estimate(destination), null));
+		long meeting = (start == destination) ? start : PackedState.NO_STATE;
+		int shortest = (start == destination) ? 0 : Integer.MAX_VALUE;
+		while (!forwardOpen.isEmpty() && !backwardOpen.isEmpty())
+		{
+			if (shortest <= Math.max(forwardOpen.peek().getRank(), backwardOpen.peek().getRank()))
+			{
+				break;
+			}
+			final boolean fromStart = forwardOpen.size() <= backwardOpen.size();
+			final OpenList open = fromStart ? forwardOpen : backwardOpen;
+			final LongHashSet closed = fromStart ? forwardClosed : backwardClosed;
+			final LongLongHashMap mine = fromStart ? forward : backward;
+			final LongLongHashMap theirs = fromStart ? backward : forward;
+			final Heuristic heuristic = fromStart ? toEnd : toStart;
+			final SearchNode node = open.poll();
+			final long state = node.getState();
+			if (!closed.add(state))
+			{
+				//Already expanded with a cost at least as low
+				stats.duplicate();
+				continue;
+			}
+			stats.expanded();
+			final int cost = node.getCost() + 1;
+			final int legal = PackedState.successors(state, neighbours, 0);
+			for (int j = 0;j < legal;j++)
+			{
+				final long neighbour = neighbours[j];
+				stats.generated();
+				final long known = mine.get(neighbour);
+				if (closed.contains(neighbour) ||
+				    ((known != LongLongHashMap.NO_VALUE) && (BidirectionalSearch.costOf(known) <= cost)))
+				{
+					stats.duplicate();
+					continue;
+				}
+				mine.put(neighbour, BidirectionalSearch.link(state, cost));
+				open.add(new SearchNode(neighbour, cost, heuristic.estimate(neighbour), null));
+				final long other = theirs.get(neighbour);
+				if ((other != LongLongHashMap.NO_VALUE) && ((cost + BidirectionalSearch.costOf(other)) < shortest))
+				{
+					shortest = cost + BidirectionalSearch.costOf(other);
+					meeting = neighbour;
+				}
+			}
+			stats.open(forwardOpen.size() + backwardOpen.size());
+		}
+		return (meeting == PackedState.NO_STATE) ? null : BidirectionalSearch.stitch(meeting, forward, backward);
+	}
+
+	/**
+	 * Joins the 2 half routes that meet at a state
+	 *
+	 * @param meeting  The packed state reached by both sides
+	 * @param forward  Parents and costs from the start
+	 * @param backward Parents and costs from the destination
+	 *
+	 * @return The packed states from start to destination inclusive
+	 */
+	private static long[] stitch(final long meeting, final LongLongHashMap forward, final LongLongHashMap backward)
+	{
+		final int toStart = BidirectionalSearch.costOf(forward.get(meeting));
+		final int toEnd = BidirectionalSearch.costOf(backward.get(meeting));
+		final long[] states = new long[toStart + toEnd + 1];
+		long state = meeting;
+		for (int i = toStart;i >= 0;i--)
+		{
+			states[i] = state;
+			state = BidirectionalSearch.parentOf(forward.get(state));
+		}
+		state = meeting;
+		for (int i = toStart + 1;i < states.length;i++)
+		{
+			state = BidirectionalSearch.parentOf(backward.get(state));
+			states[i] = state;
+		}
+		return states;
+	}
+
+	/**
+	 * Getter for the number of nodes expanded by the last search
+	 *
+	 * @return The number of nodes whose moves were generated, over both sides
+	 */
+	public long getExpandedNodes()
+	{
+		return this.stats.getExpandedNodes();
+	}
+
+	/**
+	 * Getter for the counts of the last search
+	 *
+	 * @return The SearchStats of the last search
+	 */
+	public SearchStats getStats()
+	{
+		return this.stats;
+	}
+}
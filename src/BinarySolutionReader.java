@@ -0,0 +1,238 @@
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * BinarySolutionReader reads the solutions written by BinarySolutionWriter one record at a time
+ * Routes are replayed from their moves on demand, so reading a file never holds more than one solution
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public class BinarySolutionReader implements Closeable
+{
+	/**
+	 * The file being read
+	 */
+	private final DataInputStream in;
+	/**
+	 * The current record, as in the file
+	 */
+	private final byte[]          record = new byte[BinarySolutionWriter.MAX_RECORD];
+
+	/**
+	 * Constructor for BinarySolutionReader
+	 *
+	 * @param file The file to read
+	 *
+	 * @throws IOException if the file cannot be read or is not a binary solution file
+	 */
+	public BinarySolutionReader(final File file) throws IOException
+	{
+		this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		final byte[] magic = new byte[BinarySolutionWriter.MAGIC.length];
+		try
+		{
+			this.in.readFully(magic);
+		}
+		catch (final EOFException exception)
+		{
+			//Reported as a bad header below
+		}
+		if (!Arrays.equals(magic, BinarySolutionWriter.MAGIC))
+		{
+			this.in.close();
+			throw new IOException("Not a binary solution file: " + file);
+		}
+	}
+
+	/**
+	 * Moves on to the next record
+	 *
+	 * @return false at the end of the file
+	 *
+	 * @throws IOException if the file cannot be read or ends part way through a record
+	 */
+	public boolean next() throws IOException
+	{
+		final int first = this.in.read();
+		if (first < 0)
+		{
+			return false;
+		}
+		this.record[0] = (byte) first;
+		this.in.readFully(this.record, 1, BinarySolutionWriter.HEADER_BYTES - 1);
+		this.in.readFully(this.record, BinarySolutionWriter.HEADER_BYTES,
+		                  BinarySolutionWriter.recordBytes(this.getMoveCount()) - BinarySolutionWriter.HEADER_BYTES);
+		return true;
+	}
+
+	/**
+	 * Getter for the start of the current record
+	 *
+	 * @return The packed start state
+	 */
+	public long getStart()
+	{
+		return BinarySolutionReader.stateOf(this.record, 0);
+	}
+
+	/**
+	 * Getter for the destination of the current record
+	 *
+	 * @return The packed destination state
+	 */
+	public long getDestination()
+	{
+		return BinarySolutionReader.stateOf(this.record, BinarySolutionWriter.STATE_BYTES);
+	}
+
+	/**
+	 * Getter for the number of moves of the current record
+	 *
+	 * @return The number of moves
+	 */
+	public int getMoveCount()
+	{
+		return BinarySolutionReader.moveCountOf(this.record);
+	}
+
+	/**
+	 * Gets a move of the current record
+	 *
+	 * @param i The index of the move
+	 *
+	 * @return The move (PackedState.UP, RIGHT, DOWN or LEFT)
+	 */
+	public int getMove(final int i)
+	{
+		return BinarySolutionReader.moveOf(this.record, i);
+	}
+
+	/**
+	 * Replays the moves of the current record from its start
+	 *
+	 * @return The packed states from start to destination inclusive
+	 *
+	 * @throws IOException if the moves do not lead from the start to the destination
+	 */
+	public long[] getStates() throws IOException
+	{
+		return BinarySolutionReader.statesOf(this.record);
+	}
+
+	/**
+	 * Reads a packed state stored as STATE_BYTES big-endian bytes
+	 *
+	 * @param record The record
+	 * @param offset Index of the first byte
+	 *
+	 * @return The packed state
+	 */
+	private static long stateOf(final byte[] record, final int offset)
+	{
+		long state = 0L;
+		for (int i = 0;i < BinarySolutionWriter.STATE_BYTES;i++)
+		{
+			state = (state << 8) | (record[offset + i] & 0xFFL);
+		}
+		return state;
+	}
+
+	/**
+	 * Gets the number of moves of a record
+	 *
+	 * @param record The record, of which at least the first HEADER_BYTES have been read
+	 *
+	 * @return The number of moves
+	 */
+	public static int moveCountOf(final byte[] record)
+	{
+		return record[BinarySolutionWriter.HEADER_BYTES - 1] & BinarySolutionWriter.MAX_MOVES;
+	}
+
+	/**
+	 * Gets a move of a record
+	 *
+	 * @param record The record
+	 * @param i      The index of the move
+	 *
+	 * @return The move (PackedState.UP, RIGHT, DOWN or LEFT)
+	 */
+	private static int moveOf(final byte[] record, final int i)
+	{
+		return (record[BinarySolutionWriter.HEADER_BYTES + (i / BinarySolutionWriter.MOVES_PER_BYTE)] >>>
+		        (2 * (i % BinarySolutionWriter.MOVES_PER_BYTE))) & 3;
+	}
+
+	/**
+	 * Replays the moves of a record from its start
+	 *
+	 * @param record The record
+	 *
+	 * @return The packed states from start to destination inclusive
+	 *
+	 * @throws IOException if the moves do not lead from the start to the destination
+	 */
+	public static long[] statesOf(final byte[] record) throws IOException
+	{
+		final int moveCount = BinarySolutionReader.moveCountOf(record);
+		final long[] states = new long[moveCount + 1];
+		states[0] = BinarySolutionReader.stateOf(record, 0);
+		for (int i = 0;i < moveCount;i++)
+		{
+			states[i + 1] = PackedState.move(states[i], BinarySolutionReader.moveOf(record, i));
+			if (states[i + 1] == PackedState.NO_STATE)
+			{
+				throw new IOException("Corrupt solution: move " + i + " leaves the board");
+			}
+		}
+		if (states[moveCount] != BinarySolutionReader.stateOf(record, BinarySolutionWriter.STATE_BYTES))
+		{
+			throw new IOException("Corrupt solution: moves do not reach the destination");
+		}
+		return states;
+	}
+
+	/**
+	 * Gets the name of the res/output file of the current record
+	 *
+	 * @return The filename in "start2destination.txt" format
+	 */
+	public String getFilename()
+	{
+		return PackedState.toString(this.getStart()) + '2' + PackedState.toString(this.getDestination()) + ".txt";
+	}
+
+	/**
+	 * Expands the current record into the rows of its res/output file
+	 *
+	 * @return 4 rows, each holding one row of every configuration of the route followed by a space
+	 *
+	 * @throws IOException if the moves do not lead from the start to the destination
+	 */
+	public String[] getRows() throws IOException
+	{
+		final long[] states = this.getStates();
+		final String[] rows = new String[PackedState.ROWS];
+		for (int row = 0;row < rows.length;row++)
+		{
+			final StringBuilder text = new StringBuilder(states.length * (PackedState.COLUMNS + 1));
+			for (final long state : states)
+			{
+				text.append(PackedState.row(state, row)).append(' ');
+			}
+			rows[row] = text.toString();
+		}
+		return rows;
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		this.in.close();
+	}
+}
@@ -0,0 +1,173 @@
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * BinarySolutionWriter stores solutions as their start, destination and moves
+ * A route is fully determined by its start and its moves, so each solution costs 11 bytes plus 2 bits per move
+ * instead of 4 lines of text per configuration. The file starts with MAGIC and holds one record per solution:
+ * the start and destination as STATE_BYTES big-endian bytes each, the number of moves as 1 unsigned byte, then the
+ * moves packed 4 to a byte with the first move in the lowest 2 bits.
+ * BinarySolutionReader expands the records back into the res/output text layout.
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public class BinarySolutionWriter implements SolutionSink, Closeable
+{
+	/**
+	 * First bytes of every binary solution file
+	 */
+	public static final  byte[] MAGIC          = {'M', 'O', 'V', '1'};
+	/**
+	 * Bytes of a packed state including its cached '_' index
+	 */
+	public static final  int    STATE_BYTES    = 5;
+	/**
+	 * Longest route that can be stored
+	 */
+	public static final  int    MAX_MOVES      = 0xFF;
+	/**
+	 * Moves packed into each byte
+	 */
+	public static final  int    MOVES_PER_BYTE = 4;
+	/**
+	 * Bytes of a record before its moves: start, destination and number of moves
+	 */
+	public static final  int    HEADER_BYTES   = (2 * STATE_BYTES) + 1;
+	/**
+	 * Bytes of the longest record
+	 */
+	public static final  int    MAX_RECORD     = HEADER_BYTES + ((MAX_MOVES + (MOVES_PER_BYTE - 1)) / MOVES_PER_BYTE);
+	/**
+	 * Size of the output buffer
+	 */
+	private static final int    BUFFER_BYTES   = 1 << 16;
+
+	/**
+	 * The file being written
+	 */
+	private final OutputStream out;
+	/**
+	 * The record being built, sized for the longest route
+	 */
+	private final byte[]       record = new byte[MAX_RECORD];
+
+	/**
+	 * Constructor for BinarySolutionWriter
+	 * Any existing file is replaced
+	 *
+	 * @param file The file to write
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	public BinarySolutionWriter(final File file) throws IOException
+	{
+		this.out = new BufferedOutputStream(new FileOutputStream(file), BUFFER_BYTES);
+		this.out.write(MAGIC);
+	}
+
+	/**
+	 * Writes the solution of a solved result; failed results are skipped
+	 *
+	 * @param result The result of a puzzle
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	@Override
+	public void accept(final SolveResult result) throws IOException
+	{
+		if (result.isSolved())
+		{
+			this.write(result.getPuzzle());
+		}
+	}
+
+	/**
+	 * Writes the solution of a puzzle
+	 *
+	 * @param puzzle A solved puzzle
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(final Puzzle puzzle) throws IOException
+	{
+		final List<PuzzleConfiguration> route = puzzle.getRoute();
+		if (route == null)
+		{
+			throw new IllegalArgumentException("Puzzle has not been solved");
+		}
+		this.out.write(this.record, 0, BinarySolutionWriter.encode(route, this.record));
+	}
+
+	/**
+	 * Gets the size of a record
+	 *
+	 * @param moves The number of moves in its route
+	 *
+	 * @return The number of bytes
+	 */
+	public static int recordBytes(final int moves)
+	{
+		return HEADER_BYTES + ((moves + (MOVES_PER_BYTE - 1)) / MOVES_PER_BYTE);
+	}
+
+	/**
+	 * Encodes a route as a record
+	 *
+	 * @param route  Configurations from start to destination
+	 * @param record The array to fill, of at least MAX_RECORD bytes
+	 *
+	 * @return The number of bytes of the record
+	 *
+	 * @throws IllegalArgumentException if the route has more than MAX_MOVES moves
+	 */
+	public static int encode(final List<PuzzleConfiguration> route, final byte[] record)
+	{
+		final int moves = route.size() - 1;
+		if (moves > MAX_MOVES)
+		{
+			throw new IllegalArgumentException("Route of " + moves + " moves is too long to store");
+		}
+		BinarySolutionWriter.putState(record, 0, route.get(0).getState());
+		BinarySolutionWriter.putState(record, STATE_BYTES, route.get(moves).getState());
+		record[HEADER_BYTES - 1] = (byte) moves;
+		final int length = BinarySolutionWriter.recordBytes(moves);
+		for (int i = HEADER_BYTES;i < length;i++)
+		{
+			record[i] = 0;
+		}
+		long previous = route.get(0).getState();
+		for (int i = 0;i < moves;i++)
+		{
+			final long next = route.get(i + 1).getState();
+			final int move = PackedState.moveBetween(previous, next);
+			record[HEADER_BYTES + (i / MOVES_PER_BYTE)] |= (byte) (move << (2 * (i % MOVES_PER_BYTE)));
+			previous = next;
+		}
+		return length;
+	}
+
+	/**
+	 * Stores a packed state as STATE_BYTES big-endian bytes
+	 *
+	 * @param bytes  The destination array
+	 * @param offset Index of the first byte
+	 * @param state  The packed state
+	 */
+	private static void putState(final byte[] bytes, final int offset, final long state)
+	{
+		for (int i = 0;i < STATE_BYTES;i++)
+		{
+			bytes[offset + i] = (byte) (state >>> (8 * (STATE_BYTES - 1 - i)));
+		}
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		this.out.close();
+	}
+}
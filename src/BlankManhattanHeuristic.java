@@ -0,0 +1,28 @@
+/**
+ * BlankManhattanHeuristic estimates the number of jumps as the Manhattan distance between the '_' and the '_' of
+ * the destination
+ * Every jump moves the '_' by exactly one cell so this never overestimates
+ */
+public class BlankManhattanHeuristic implements Heuristic
+{
+	/**
+	 * Packed destination state
+	 */
+	private final long destination;
+
+	/**
+	 * Constructor for BlankManhattanHeuristic
+	 *
+	 * @param destination The packed destination state
+	 */
+	public BlankManhattanHeuristic(final long destination)
+	{
+		this.destination = destination;
+	}
+
+	@Override
+	public int estimate(final long state)
+	{
+		return PuzzleConfiguration.getMinDistance(state, this.destination);
+	}
+}
@@ -0,0 +1,185 @@
+import java.util.Arrays;
+
+/**
+ * BucketOpenList is an OpenList for the small integer ranks of this puzzle
+ * Every (rank, cost) pair has its own stack; as a cost never exceeds its rank the stacks of rank r are stored at
+ * r * (r + 1) / 2 + cost. The lowest rank which may hold nodes is tracked, as is the highest cost which may hold nodes
+ * within each rank, so add and poll are O(1) apart from skipping emptied stacks, which each pointer does at most once
+ * per node.
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public final class BucketOpenList implements OpenList
+{
+	/**
+	 * Number of ranks provided for before the first growth
+	 */
+	private static final int INITIAL_RANKS = 32;
+	/**
+	 * Size of a stack when it is first used
+	 */
+	private static final int INITIAL_STACK = 16;
+
+	/**
+	 * Stack of each (rank, cost) pair, or null if it has never been used
+	 */
+	private SearchNode[][] stacks     = new SearchNode[BucketOpenList.pairs(INITIAL_RANKS)][];
+	/**
+	 * Number of nodes in each stack
+	 */
+	private int[]          heights    = new int[BucketOpenList.pairs(INITIAL_RANKS)];
+	/**
+	 * Number of nodes of each rank
+	 */
+	private int[]          rankSizes  = new int[INITIAL_RANKS];
+	/**
+	 * Highest cost which may hold nodes within each rank
+	 */
+	private int[]          topCosts   = new int[INITIAL_RANKS];
+	/**
+	 * No rank below this holds nodes
+	 */
+	private int            lowestRank = Integer.MAX_VALUE;
+	/**
+	 * Number of nodes
+	 */
+	private int            size;
+
+	/**
+	 * Gets the number of (rank, cost) pairs of all ranks below a rank
+	 *
+	 * @param ranks The rank
+	 *
+	 * @return The index of the stack of (ranks, 0)
+	 */
+	private static int pairs(final int ranks)
+	{
+		return (ranks * (ranks + 1)) / 2;
+	}
+
+	@Override
+	public void add(final SearchNode node)
+	{
+		final int rank = node.getRank();
+		final int cost = node.getCost();
+		if ((cost < 0) || (cost > rank))
+		{
+			throw new IllegalArgumentException("Cost " + cost + " is outside rank " + rank);
+		}
+		if (rank >= this.rankSizes.length)
+		{
+			this.grow(rank);
+		}
+		final int index = BucketOpenList.pairs(rank) + cost;
+		SearchNode[] stack = this.stacks[index];
+		if (stack == null)
+		{
+			stack = new SearchNode[INITIAL_STACK];
+			this.stacks[index] = stack;
+		}
+		else if (this.heights[index] == stack.length)
+		{
+			stack = Arrays.copyOf(stack, stack.length * 2);
+			this.stacks[index] = stack;
+		}
+		stack[this.heights[index]++] = node;
+		this.rankSizes[rank]++;
+		if (cost > this.topCosts[rank])
+		{
+			this.topCosts[rank] = cost;
+		}
+		if (rank < this.lowestRank)
+		{
+			this.lowestRank = rank;
+		}
+		this.size++;
+	}
+
+	/**
+	 * Makes room for every rank up to a rank
+	 *
+	 * @param rank The highest rank to provide for
+	 */
+	private void grow(final int rank)
+	{
+		int ranks = this.rankSizes.length;
+		while (ranks <= rank)
+		{
+			ranks *= 2;
+		}
+		this.stacks = Arrays.copyOf(this.stacks, BucketOpenList.pairs(ranks));
+		this.heights = Arrays.copyOf(this.heights, BucketOpenList.pairs(ranks));
+		this.rankSizes = Arrays.copyOf(this.rankSizes, ranks);
+		this.topCosts = Arrays.copyOf(this.topCosts, ranks);
+	}
+
+	/**
+	 * Finds the stack of the best node, moving the rank and cost pointers past empty stacks
+	 *
+	 * @return The index of the stack, or -1 if the list is empty
+	 */
+	private int best()
+	{
+		if (this.size == 0)
+		{
+			return -1;
+		}
+		while (this.rankSizes[this.lowestRank] == 0)
+		{
+			this.lowestRank++;
+		}
+		final int first = BucketOpenList.pairs(this.lowestRank);
+		while (this.heights[first + this.topCosts[this.lowestRank]] == 0)
+		{
+			this.topCosts[this.lowestRank]--;
+		}
+		return first + this.topCosts[this.lowestRank];
+	}
+
+	@Override
+	public SearchNode poll()
+	{
+		final int index = this.best();
+		if (index < 0)
+		{
+			return null;
+		}
+		final SearchNode[] stack = this.stacks[index];
+		final int top = --this.heights[index];
+		final SearchNode node = stack[top];
+		//Let the node be collected once the search is done with it
+		stack[top] = null;
+		this.rankSizes[this.lowestRank]--;
+		this.size--;
+		return node;
+	}
+
+	@Override
+	public SearchNode peek()
+	{
+		final int index = this.best();
+		return (index < 0) ? null : this.stacks[index][this.heights[index] - 1];
+	}
+
+	@Override
+	public int size()
+	{
+		return this.size;
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return this.size == 0;
+	}
+
+	@Override
+	public void clear()
+	{
+		this.stacks = new SearchNode[BucketOpenList.pairs(INITIAL_RANKS)][];
+		this.heights = new int[BucketOpenList.pairs(INITIAL_RANKS)];
+		this.rankSizes = new int[INITIAL_RANKS];
+		this.topCosts = new int[INITIAL_RANKS];
+		this.lowestRank = Integer.MAX_VALUE;
+		this.size = 0;
+	}
+}
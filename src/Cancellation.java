@@ -0,0 +1,31 @@
+/**
+ * Cancellation is a flag which asks searches to give up
+ * It is set from any thread and read by the search engines through SearchStats as they expand nodes, so a search
+ * stops within a few thousand expansions of being cancelled instead of being interrupted part way through a move.
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public final class Cancellation
+{
+	/**
+	 * Whether the searches should give up
+	 */
+	private volatile boolean cancelled;
+
+	/**
+	 * Asks every search reading this flag to give up
+	 */
+	public void cancel()
+	{
+		this.cancelled = true;
+	}
+
+	/**
+	 * Tests whether the searches have been asked to give up
+	 *
+	 * @return true once cancel has been called
+	 */
+	public boolean isCancelled()
+	{
+		return this.cancelled;
+	}
+}
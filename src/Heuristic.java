@@ -0,0 +1,16 @@
+/**
+ * Heuristic estimates the number of jumps still required to reach a fixed destination from a packed state
+ * Implementations are built for a single destination (see HeuristicType) and must never overestimate, so that
+ * A* Search stays optimal
+ */
+public interface Heuristic
+{
+	/**
+	 * Estimates the number of jumps from state to the destination of this heuristic
+	 *
+	 * @param state The packed state
+	 *
+	 * @return A lower bound on the number of jumps required
+	 */
+	int estimate(long state);
+}
@@ -0,0 +1,79 @@
+/**
+ * HeuristicType lists the heuristics that A* Search can be run with
+ * Each type builds a Heuristic for a given destination
+ */
+public enum HeuristicType
+{
+	/**
+	 * Always estimates 0, which turns A* Search into Uniform Cost Search
+	 */
+	NONE
+			{
+				@Override
+				public Heuristic create(final long destination)
+				{
+					return new Heuristic()
+					{
+						@Override
+						public int estimate(final long state)
+						{
+							return 0;
+						}
+					};
+				}
+			},
+	/**
+	 * Manhattan distance of the '_' to its destination
+	 */
+	BLANK_MANHATTAN
+			{
+				@Override
+				public Heuristic create(final long destination)
+				{
+					return new BlankManhattanHeuristic(destination);
+				}
+			},
+	/**
+	 * Sum of the Manhattan distances of the lettered tiles, matching tiles of the same letter at minimum cost
+	 */
+	TILE_MANHATTAN
+			{
+				@Override
+				public Heuristic create(final long destination)
+				{
+					return new TileManhattanHeuristic(destination);
+				}
+			},
+	/**
+	 * TILE_MANHATTAN plus 2 jumps for every tile that has to leave its row or column to get past another
+	 */
+	LINEAR_CONFLICT
+			{
+				@Override
+				public Heuristic create(final long destination)
+				{
+					return new LinearConflictHeuristic(destination);
+				}
+			},
+	/**
+	 * Largest of TILE_MANHATTAN and a set of pattern databases, which are loaded from or persisted to
+	 * PatternDatabase.DIRECTORY
+	 */
+	PATTERN_DATABASE
+			{
+				@Override
+				public Heuristic create(final long destination)
+				{
+					return new PatternDatabaseHeuristic(destination);
+				}
+			};
+
+	/**
+	 * Builds a heuristic of this type
+	 *
+	 * @param destination The packed destination state
+	 *
+	 * @return A heuristic estimating the distance to destination
+	 */
+	public abstract Heuristic create(long destination);
+}
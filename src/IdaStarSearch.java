@@ -0,0 +1,212 @@
+/**
+ * IdaStarSearch is an Iterative Deepening A* Search engine
+ * Each iteration is a depth first search which cuts off any node whose cost plus estimate exceeds a threshold; the
+ * next threshold is the smallest cost plus estimate that was cut off
+ * The search works on a single mutable board: a move is made in place before descending and undone on the way back
+ * up, and the move which would undo the previous one is never generated. Only the legal moves of the '_' are tried.
+ * Apart from the move stacks, which are sized once, nothing is allocated per node.
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public class IdaStarSearch
+{
+	/**
+	 * Deepest route that will be searched for before the puzzle is considered unsolvable
+	 */
+	public static final  int MAX_DEPTH = 127;
+	/**
+	 * Returned by an iteration which reaches the destination
+	 */
+	private static final int FOUND     = -1;
+	/**
+	 * Previous move of the start, which rules out no moves
+	 */
+	private static final int NO_MOVE   = -1;
+
+	/**
+	 * Estimate of the remaining jumps to the destination
+	 */
+	private final Heuristic   heuristic;
+	/**
+	 * Moves made from the start to the board, the first depth entries are in use
+	 */
+	private final int[]       moves = new int[MAX_DEPTH + 1];
+	/**
+	 * Legal moves of the board at each depth, MOVES entries per depth
+	 */
+	private final int[]       legal = new int[(MAX_DEPTH + 1) * PackedState.MOVES];
+	/**
+	 * The mutable board
+	 */
+	private       long        board;
+	/**
+	 * The packed destination state
+	 */
+	private       long        destination;
+	/**
+	 * Number of moves made to reach the destination, once found
+	 */
+	private       int         depth;
+	/**
+	 * Counts of the last search
+	 * IDA* keeps no record of the states it has visited, so it never discards duplicates, and its open list is the
+	 * current route
+	 */
+	private       SearchStats stats;
+
+	/**
+	 * Constructor for IdaStarSearch
+	 *
+	 * @param heuristic Estimate of the remaining jumps to the destination; it must never overestimate
+	 */
+	public IdaStarSearch(final Heuristic heuristic)
+	{
+		this.heuristic = heuristic;
+	}
+
+	/**
+	 * Finds a shortest route between 2 configurations
+	 *
+	 * @param start       The packed start state
+	 * @param destination The packed destination state
+	 *
+	 * @return The packed states from start to destination inclusive, or null if there is no route of at most
+	 * MAX_DEPTH jumps
+	 */
+	public long[] search(final long start, final long destination)
+	{
+		return this.search(start, destination, new SearchStats(IdaStarSearch.class.getSimpleName()));
+	}
+
+	/**
+	 * Finds a shortest route between 2 configurations, counting the work done into stats
+	 *
+	 * @param start       The packed start state
+	 * @param destination The packed destination state
+	 * @param stats       Counts of the search; starting and stopping it is left to the caller
+	 *
+	 * @return The packed states from start to destination inclusive, or null if there is no route of at most
+	 * MAX_DEPTH jumps
+	 */
+	public long[] search(final long start, final long destination, final SearchStats stats)
+	{
+		return this.search(start, destination, 0, stats);
+	}
+
+	/**
+	 * Finds a shortest route between 2 configurations which is known to be at least some number of jumps long
+	 * The iterations below the bound are skipped
+	 *
+	 * @param start       The packed start state
+	 * @param destination The packed destination state
+	 * @param bound       A number of jumps that no route is shorter than
+	 * @param stats       Counts of the search; starting and stopping it is left to the caller
+	 *
+	 * @return The packed states from start to destination inclusive, or null if there is no route of at most
+	 * MAX_DEPTH jumps
+	 */
+	public long[] search(final long start, final long destination, final int bound, final SearchStats stats)
+	{
+		this.board = start;
+		this.destination = destination;
+		this.stats = stats;
+		int threshold = Math.max(bound, this.heuristic.estimate(start));
+		while (threshold <= MAX_DEPTH)
+		{
+			final int next = this.depthFirstSearch(0, threshold, NO_MOVE);
+			if (next == FOUND)
+			{
+				return this.replay(start);
+			}
+			threshold = next;
+		}
+		return null;
+	}
+
+	/**
+	 * Depth first search of the board, cut off at the threshold
+	 *
+	 * @param cost      Number of moves made to reach the board
+	 * @param threshold Largest cost plus estimate that may be expanded
+	 * @param previous  The move that reached the board or NO_MOVE
+	 *
+	 * @return FOUND, or the smallest cost plus estimate that was cut off (Integer.MAX_VALUE if none was)
+	 */
+	private int depthFirstSearch(final int cost, final int threshold, final int previous)
+	{
+		final int rank = cost + this.heuristic.estimate(this.board);
+		if (rank > threshold)
+		{
+			return rank;
+		}
+		if (this.board == this.destination)
+		{
+			this.depth = cost;
+			return FOUND;
+		}
+		this.stats.expanded();
+		this.stats.open(cost + 1);
+		final int undo = (previous == NO_MOVE) ? NO_MOVE : PackedState.opposite(previous);
+		int smallest = Integer.MAX_VALUE;
+		final int base = cost * PackedState.MOVES;
+		final int count = PackedState.legalMoves(PackedState.blankOf(this.board), this.legal, base);
+		for (int i = 0;i < count;i++)
+		{
+			final int move = this.legal[base + i];
+			if (move == undo)
+			{
+				continue;
+			}
+			//Make the move
+			this.stats.generated();
+			this.board = PackedState.move(this.board, move);
+			this.moves[cost] = move;
+			final int result = this.depthFirstSearch(cost + 1, threshold, move);
+			if (result == FOUND)
+			{
+				return FOUND;
+			}
+			//Unmake the move
+			this.board = PackedState.move(this.board, PackedState.opposite(move));
+			smallest = Math.min(smallest, result);
+		}
+		return smallest;
+	}
+
+	/**
+	 * Rebuilds the states of the route found by replaying its moves from the start
+	 *
+	 * @param start The packed start state
+	 *
+	 * @return The packed states from start to destination inclusive
+	 */
+	private long[] replay(final long start)
+	{
+		final long[] states = new long[this.depth + 1];
+		states[0] = start;
+		for (int i = 0;i < this.depth;i++)
+		{
+			states[i + 1] = PackedState.move(states[i], this.moves[i]);
+		}
+		return states;
+	}
+
+	/**
+	 * Getter for the number of nodes expanded by the last search, over every iteration
+	 *
+	 * @return The number of nodes whose moves were generated
+	 */
+	public long getExpandedNodes()
+	{
+		return this.stats.getExpandedNodes();
+	}
+
+	/**
+	 * Getter for the counts of the last search
+	 *
+	 * @return The SearchStats of the last search
+	 */
+	public SearchStats getStats()
+	{
+		return this.stats;
+	}
+}
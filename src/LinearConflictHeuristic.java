@@ -0,0 +1,188 @@
+/**
+ * LinearConflictHeuristic adds linear conflicts to TileManhattanHeuristic
+ * A letter is locked to a line (row or column) when every one of its destination cells lies in that line, so any
+ * tile of that letter currently in the line must finish in it. Two locked tiles in the same line whose letters must
+ * finish in the opposite order cannot pass each other without one of them leaving the line, which costs 2 jumps
+ * on top of its Manhattan distance. Because the ordering is required of every destination cell of both letters, the
+ * bound holds whichever tiles of a letter end up in which of its cells.
+ * The penalty of a line only depends on the symbols in it, so it is precomputed for every possible line
+ */
+public class LinearConflictHeuristic implements Heuristic
+{
+	/**
+	 * The Manhattan distance part of the estimate
+	 */
+	private final Heuristic tiles;
+	/**
+	 * Cells of every row and then every column, in order along the line
+	 */
+	private final int[][]   lines;
+	/**
+	 * Penalty of each line, indexed by line then by the symbols of the line read as a base 5 number
+	 */
+	private final byte[][]  penalties;
+
+	/**
+	 * Constructor for LinearConflictHeuristic
+	 *
+	 * @param destination The packed destination state
+	 */
+	public LinearConflictHeuristic(final long destination)
+	{
+		this.tiles = new TileManhattanHeuristic(destination);
+		this.lines = new int[PackedState.ROWS + PackedState.COLUMNS][];
+		for (int row = 0;row < PackedState.ROWS;row++)
+		{
+			this.lines[row] = new int[PackedState.COLUMNS];
+			for (int column = 0;column < PackedState.COLUMNS;column++)
+			{
+				this.lines[row][column] = (row * PackedState.COLUMNS) + column;
+			}
+		}
+		for (int column = 0;column < PackedState.COLUMNS;column++)
+		{
+			this.lines[PackedState.ROWS + column] = new int[PackedState.ROWS];
+			for (int row = 0;row < PackedState.ROWS;row++)
+			{
+				this.lines[PackedState.ROWS + column][row] = (row * PackedState.COLUMNS) + column;
+			}
+		}
+		this.penalties = new byte[this.lines.length][];
+		for (int line = 0;line < this.lines.length;line++)
+		{
+			this.penalties[line] = LinearConflictHeuristic.buildPenalties(destination, this.lines[line]);
+		}
+	}
+
+	/**
+	 * Builds the penalty of every possible content of a line
+	 *
+	 * @param destination The packed destination state
+	 * @param line        Cells of the line in order
+	 *
+	 * @return Penalties indexed by the symbols of the line read as a base 5 number
+	 */
+	private static byte[] buildPenalties(final long destination, final int[] line)
+	{
+		//First and last position along the line of each locked letter, -1 if the letter is not locked
+		final int[] first = new int[PackedState.SYMBOLS];
+		final int[] last = new int[PackedState.SYMBOLS];
+		//The '_' is never locked
+		first[PackedState.BLANK] = -1;
+		last[PackedState.BLANK] = -1;
+		for (int symbol = 1;symbol < PackedState.SYMBOLS;symbol++)
+		{
+			final int everywhere = TileManhattanHeuristic.cellsOf(destination, symbol);
+			int inLine = 0;
+			first[symbol] = -1;
+			last[symbol] = -1;
+			for (int position = 0;position < line.length;position++)
+			{
+				if ((everywhere & (1 << line[position])) != 0)
+				{
+					inLine |= 1 << line[position];
+					if (first[symbol] < 0)
+					{
+						first[symbol] = position;
+					}
+					last[symbol] = position;
+				}
+			}
+			if ((inLine == 0) || (inLine != everywhere))
+			{
+				first[symbol] = -1;
+				last[symbol] = -1;
+			}
+		}
+		int size = 1;
+		for (int i = 0;i < line.length;i++)
+		{
+			size *= PackedState.SYMBOLS;
+		}
+		final byte[] table = new byte[size];
+		final int[] symbols = new int[line.length];
+		for (int code = 0;code < size;code++)
+		{
+			int rest = code;
+			for (int position = line.length - 1;position >= 0;position--)
+			{
+				symbols[position] = rest % PackedState.SYMBOLS;
+				rest /= PackedState.SYMBOLS;
+			}
+			table[code] = (byte) LinearConflictHeuristic.penalty(symbols, first, last);
+		}
+		return table;
+	}
+
+	/**
+	 * Calculates the penalty of one line: 2 jumps for each locked tile outside the largest conflict free set
+	 *
+	 * @param symbols Symbols along the line
+	 * @param first   First destination position of each locked letter or -1
+	 * @param last    Last destination position of each locked letter or -1
+	 *
+	 * @return The penalty in jumps
+	 */
+	private static int penalty(final int[] symbols, final int[] first, final int[] last)
+	{
+		int locked = 0;
+		for (int position = 0;position < symbols.length;position++)
+		{
+			if (first[symbols[position]] >= 0)
+			{
+				locked |= 1 << position;
+			}
+		}
+		int largest = 0;
+		for (int kept = locked;kept > 0;kept = (kept - 1) & locked)
+		{
+			if (Integer.bitCount(kept) > largest && LinearConflictHeuristic.isConflictFree(kept, symbols, first, last))
+			{
+				largest = Integer.bitCount(kept);
+			}
+		}
+		return 2 * (Integer.bitCount(locked) - largest);
+	}
+
+	/**
+	 * Tests whether a set of locked tiles can all stay in their line
+	 *
+	 * @param kept    Bit set of positions along the line
+	 * @param symbols Symbols along the line
+	 * @param first   First destination position of each locked letter
+	 * @param last    Last destination position of each locked letter
+	 *
+	 * @return true if no tile has to finish before a tile which is currently before it
+	 */
+	private static boolean isConflictFree(final int kept, final int[] symbols, final int[] first, final int[] last)
+	{
+		for (int i = 0;i < symbols.length;i++)
+		{
+			for (int j = i + 1;j < symbols.length;j++)
+			{
+				if (((kept & (1 << i)) != 0) && ((kept & (1 << j)) != 0) && (last[symbols[j]] < first[symbols[i]]))
+				{
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int estimate(final long state)
+	{
+		int total = this.tiles.estimate(state);
+		for (int line = 0;line < this.lines.length;line++)
+		{
+			final int[] cells = this.lines[line];
+			int code = 0;
+			for (final int cell : cells)
+			{
+				code = (code * PackedState.SYMBOLS) + PackedState.symbolAt(state, cell);
+			}
+			total += this.penalties[line][code];
+		}
+		return total;
+	}
+}
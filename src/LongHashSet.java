@@ -0,0 +1,178 @@
+import java.util.Arrays;
+
+/**
+ * LongHashSet is an open-addressing hash set of packed states
+ * It stores primitive longs with linear probing so that adding a state never allocates (until the table grows)
+ * PackedState.NO_STATE is reserved to mark empty slots and cannot be added
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public class LongHashSet
+{
+	/**
+	 * Marker for an empty slot
+	 */
+	private static final long EMPTY            = PackedState.NO_STATE;
+	/**
+	 * Capacity used by the default constructor
+	 */
+	private static final int  DEFAULT_CAPACITY = 1024;
+	/**
+	 * Slots of the table, always a power of 2 long
+	 */
+	private long[] keys;
+	/**
+	 * keys.length - 1
+	 */
+	private int    mask;
+	/**
+	 * Number of states held
+	 */
+	private int    size;
+
+	/**
+	 * Default Constructor
+	 */
+	public LongHashSet()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor which sizes the table for an expected number of states
+	 *
+	 * @param expected The number of states expected to be added
+	 */
+	public LongHashSet(final int expected)
+	{
+		int capacity = 16;
+		while (capacity < (expected * 2))
+		{
+			capacity <<= 1;
+		}
+		this.allocate(capacity);
+	}
+
+	/**
+	 * Spreads the bits of a packed state so that neighbouring states land in different slots
+	 *
+	 * @param key The packed state
+	 *
+	 * @return A well mixed hash of the key
+	 */
+	public static int hash(final long key)
+	{
+		long h = key;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return (int) h;
+	}
+
+	/**
+	 * Adds a state to the set
+	 *
+	 * @param key The packed state
+	 *
+	 * @return true if the state was not already in the set
+	 */
+	public boolean add(final long key)
+	{
+		if (key == EMPTY)
+		{
+			throw new IllegalArgumentException("Cannot add NO_STATE");
+		}
+		int slot = LongHashSet.hash(key) & this.mask;
+		while (this.keys[slot] != EMPTY)
+		{
+			if (this.keys[slot] == key)
+			{
+				return false;
+			}
+			slot = (slot + 1) & this.mask;
+		}
+		this.keys[slot] = key;
+		this.size++;
+		if ((this.size * 2) > this.keys.length)
+		{
+			this.grow();
+		}
+		return true;
+	}
+
+	/**
+	 * Tests whether a state is in the set
+	 *
+	 * @param key The packed state
+	 *
+	 * @return true if the state has been added
+	 */
+	public boolean contains(final long key)
+	{
+		int slot = LongHashSet.hash(key) & this.mask;
+		while (this.keys[slot] != EMPTY)
+		{
+			if (this.keys[slot] == key)
+			{
+				return true;
+			}
+			slot = (slot + 1) & this.mask;
+		}
+		return false;
+	}
+
+	/**
+	 * Getter for the number of states held
+	 *
+	 * @return The number of states in the set
+	 */
+	public int size()
+	{
+		return this.size;
+	}
+
+	/**
+	 * Removes every state whilst keeping the table allocated
+	 */
+	public void clear()
+	{
+		Arrays.fill(this.keys, EMPTY);
+		this.size = 0;
+	}
+
+	/**
+	 * Creates an empty table
+	 *
+	 * @param capacity The number of slots, a power of 2
+	 */
+	private void allocate(final int capacity)
+	{
+		this.keys = new long[capacity];
+		Arrays.fill(this.keys, EMPTY);
+		this.mask = capacity - 1;
+		this.size = 0;
+	}
+
+	/**
+	 * Doubles the table and re-inserts every state
+	 */
+	private void grow()
+	{
+		final long[] old = this.keys;
+		this.allocate(old.length * 2);
+		for (final long key : old)
+		{
+			if (key != EMPTY)
+			{
+				int slot = LongHashSet.hash(key) & this.mask;
+				while (this.keys[slot] != EMPTY)
+				{
+					slot = (slot + 1) & this.mask;
+				}
+				this.keys[slot] = key;
+				this.size++;
+			}
+		}
+	}
+}
@@ -0,0 +1,188 @@
+import java.util.Arrays;
+
+/**
+ * LongLongHashMap is an open-addressing hash map from packed states to longs
+ * It is the map counterpart of LongHashSet: keys and values are stored in primitive arrays with linear probing
+ * PackedState.NO_STATE is reserved to mark empty slots and cannot be used as a key
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public class LongLongHashMap
+{
+	/**
+	 * Returned by get for a key which is not in the map
+	 */
+	public static final  long NO_VALUE         = Long.MIN_VALUE;
+	/**
+	 * Marker for an empty slot
+	 */
+	private static final long EMPTY            = PackedState.NO_STATE;
+	/**
+	 * Capacity used by the default constructor
+	 */
+	private static final int  DEFAULT_CAPACITY = 1024;
+	/**
+	 * Keys of the table, always a power of 2 long
+	 */
+	private long[] keys;
+	/**
+	 * Value of the key in the same slot
+	 */
+	private long[] values;
+	/**
+	 * keys.length - 1
+	 */
+	private int    mask;
+	/**
+	 * Number of keys held
+	 */
+	private int    size;
+
+	/**
+	 * Default Constructor
+	 */
+	public LongLongHashMap()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor which sizes the table for an expected number of keys
+	 *
+	 * @param expected The number of keys expected to be put
+	 */
+	public LongLongHashMap(final int expected)
+	{
+		int capacity = 16;
+		while (capacity < (expected * 2))
+		{
+			capacity <<= 1;
+		}
+		this.allocate(capacity);
+	}
+
+	/**
+	 * Finds the slot of a key
+	 *
+	 * @param key The packed state
+	 *
+	 * @return The slot holding key or the empty slot where it would go
+	 */
+	private int slotOf(final long key)
+	{
+		int slot = LongHashSet.hash(key) & this.mask;
+		while ((this.keys[slot] != EMPTY) && (this.keys[slot] != key))
+		{
+			slot = (slot + 1) & this.mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Associates a value with a key, replacing any previous value
+	 *
+	 * @param key   The packed state
+	 * @param value The value
+	 *
+	 * @return The previous value or NO_VALUE
+	 */
+	public long put(final long key, final long value)
+	{
+		if (key == EMPTY)
+		{
+			throw new IllegalArgumentException("Cannot put NO_STATE");
+		}
+		final int slot = this.slotOf(key);
+		if (this.keys[slot] == key)
+		{
+			final long previous = this.values[slot];
+			this.values[slot] = value;
+			return previous;
+		}
+		this.keys[slot] = key;
+		this.values[slot] = value;
+		this.size++;
+		if ((this.size * 2) > this.keys.length)
+		{
+			this.grow();
+		}
+		return NO_VALUE;
+	}
+
+	/**
+	 * Gets the value of a key
+	 *
+	 * @param key The packed state
+	 *
+	 * @return The value or NO_VALUE if key is not in the map
+	 */
+	public long get(final long key)
+	{
+		final int slot = this.slotOf(key);
+		return (this.keys[slot] == key) ? this.values[slot] : NO_VALUE;
+	}
+
+	/**
+	 * Tests whether a key is in the map
+	 *
+	 * @param key The packed state
+	 *
+	 * @return true if the key has a value
+	 */
+	public boolean containsKey(final long key)
+	{
+		return this.keys[this.slotOf(key)] == key;
+	}
+
+	/**
+	 * Getter for the number of keys held
+	 *
+	 * @return The number of keys in the map
+	 */
+	public int size()
+	{
+		return this.size;
+	}
+
+	/**
+	 * Removes every key whilst keeping the table allocated
+	 */
+	public void clear()
+	{
+		Arrays.fill(this.keys, EMPTY);
+		this.size = 0;
+	}
+
+	/**
+	 * Creates an empty table
+	 *
+	 * @param capacity The number of slots, a power of 2
+	 */
+	private void allocate(final int capacity)
+	{
+		this.keys = new long[capacity];
+		this.values = new long[capacity];
+		Arrays.fill(this.keys, EMPTY);
+		this.mask = capacity - 1;
+		this.size = 0;
+	}
+
+	/**
+	 * Doubles the table and re-inserts every key
+	 */
+	private void grow()
+	{
+		final long[] oldKeys = this.keys;
+		final long[] oldValues = this.values;
+		this.allocate(oldKeys.length * 2);
+		for (int i = 0;i < oldKeys.length;i++)
+		{
+			if (oldKeys[i] != EMPTY)
+			{
+				final int slot = this.slotOf(oldKeys[i]);
+				this.keys[slot] = oldKeys[i];
+				this.values[slot] = oldValues[i];
+				this.size++;
+			}
+		}
+	}
+}
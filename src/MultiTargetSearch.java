@@ -0,0 +1,146 @@
+import java.util.Arrays;
+
+/**
+ * MultiTargetSearch finds shortest routes from one configuration to any number of others with a single breadth first
+ * sweep
+ * The sweep only goes as far as it is asked to: each call of routeTo carries on from where the last one stopped until
+ * its target has been reached, so a target reached on the way to an earlier one costs nothing. The move which first
+ * reached each state is kept in an array indexed by MultisetRanker rank, and every route is rebuilt from it.
+ * Every move can be undone, so a sweep from a destination finds the routes to it from many starts, reversed.
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public class MultiTargetSearch
+{
+	/**
+	 * Move recorded for a state the sweep has not reached
+	 */
+	private static final byte UNREACHED = -1;
+	/**
+	 * Move recorded for the source
+	 */
+	private static final byte SOURCE    = PackedState.MOVES;
+
+	/**
+	 * The packed state the sweep starts from
+	 */
+	private final long           source;
+	/**
+	 * Ranks every configuration with the tiles of the source
+	 */
+	private final MultisetRanker ranker;
+	/**
+	 * Move which first reached each rank, UNREACHED or SOURCE
+	 */
+	private final byte[]         moves;
+	/**
+	 * States reached but not yet expanded, in the order they were reached, from head to tail
+	 */
+	private final long[]         queue;
+	/**
+	 * Index of the next state to expand
+	 */
+	private       int            head;
+	/**
+	 * Index after the last state reached
+	 */
+	private       int            tail;
+
+	/**
+	 * Constructor for MultiTargetSearch
+	 *
+	 * @param source The packed state the sweep starts from
+	 */
+	public MultiTargetSearch(final long source)
+	{
+		this.source = source;
+		this.ranker = new MultisetRanker(source);
+		this.moves = new byte[this.ranker.size()];
+		Arrays.fill(this.moves, UNREACHED);
+		this.queue = new long[this.ranker.size()];
+		this.moves[this.ranker.rank(source)] = SOURCE;
+		this.queue[this.tail++] = source;
+	}
+
+	/**
+	 * Getter for the state the sweep starts from
+	 *
+	 * @return The packed source state
+	 */
+	public long getSource()
+	{
+		return this.source;
+	}
+
+	/**
+	 * Finds a shortest route from the source to a target, sweeping further if the target has not been reached yet
+	 *
+	 * @param target The packed target state
+	 * @param stats  Counts of the sweeping done for this target; starting and stopping it is left to the caller
+	 *
+	 * @return The packed states from source to target inclusive, or null if the target cannot be reached
+	 */
+	public long[] routeTo(final long target, final SearchStats stats)
+	{
+		if (!this.ranker.accepts(target))
+		{
+			return null;
+		}
+		final int rank = this.ranker.rank(target);
+		final long[] neighbours = new long[PackedState.MOVES];
+		final int[] legal = new int[PackedState.MOVES];
+		while (this.moves[rank] == UNREACHED)
+		{
+			if (this.head == this.tail)
+			{
+				return null;
+			}
+			final long state = this.queue[this.head++];
+			stats.expanded();
+			final int count = PackedState.successors(state, neighbours, 0);
+			PackedState.legalMoves(PackedState.blankOf(state), legal, 0);
+			for (int i = 0;i < count;i++)
+			{
+				stats.generated();
+				final int next = this.ranker.rank(neighbours[i]);
+				if (this.moves[next] == UNREACHED)
+				{
+					this.moves[next] = (byte) legal[i];
+					this.queue[this.tail++] = neighbours[i];
+				}
+				else
+				{
+					stats.duplicate();
+				}
+			}
+			stats.open(this.tail - this.head);
+		}
+		return this.replay(target);
+	}
+
+	/**
+	 * Rebuilds the route to a reached state by undoing the recorded moves back to the source
+	 *
+	 * @param target The packed state, which must have been reached
+	 *
+	 * @return The packed states from source to target inclusive
+	 */
+	private long[] replay(final long target)
+	{
+		int length = 1;
+		for (long state = target;state != this.source;length++)
+		{
+			state = PackedState.move(state, PackedState.opposite(this.moves[this.ranker.rank(state)]));
+		}
+		final long[] states = new long[length];
+		long state = target;
+		for (int i = length - 1;i >= 0;i--)
+		{
+			states[i] = state;
+			if (i > 0)
+			{
+				state = PackedState.move(state, PackedState.opposite(this.moves[this.ranker.rank(state)]));
+			}
+		}
+		return states;
+	}
+}
@@ -0,0 +1,157 @@
+/**
+ * MultisetRanker is a perfect ranking of the configurations which hold a fixed number of each symbol
+ * Every such configuration gets a distinct rank between 0 and size() - 1, so tables over a whole state space can be
+ * plain arrays indexed by rank
+ * Ranks are lexicographic over the symbol codes in row-major order and are computed without allocating
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public final class MultisetRanker
+{
+	/**
+	 * Number of symbol codes that fit in the 3 bits of a cell
+	 */
+	public static final  int  CODES      = 8;
+	/**
+	 * Bits used by the count of a single code in a packed set of counts
+	 */
+	private static final int  COUNT_BITS = 4;
+	/**
+	 * Mask of a single count
+	 */
+	private static final long COUNT_MASK = 0xFL;
+	/**
+	 * Count of every code packed 4 bits each, code 0 in the lowest bits
+	 */
+	private final long counts;
+	/**
+	 * Number of configurations with these counts
+	 */
+	private final int  size;
+
+	/**
+	 * Constructor for MultisetRanker
+	 *
+	 * @param state Any packed state holding the number of each symbol to be ranked
+	 */
+	public MultisetRanker(final long state)
+	{
+		long packed = 0L;
+		for (int cell = 0;cell < PackedState.CELLS;cell++)
+		{
+			packed += 1L << (PackedState.symbolAt(state, cell) * COUNT_BITS);
+		}
+		this.counts = packed;
+		long total = 1L;
+		int placed = 0;
+		for (int code = 0;code < CODES;code++)
+		{
+			for (int i = 1;i <= MultisetRanker.countOf(packed, code);i++)
+			{
+				placed++;
+				total = (total * placed) / i;
+			}
+		}
+		this.size = (int) total;
+	}
+
+	/**
+	 * Gets the count of a code from packed counts
+	 *
+	 * @param counts Packed counts
+	 * @param code   The symbol code
+	 *
+	 * @return The count
+	 */
+	private static int countOf(final long counts, final int code)
+	{
+		return (int) ((counts >>> (code * COUNT_BITS)) & COUNT_MASK);
+	}
+
+	/**
+	 * Getter for the number of configurations
+	 *
+	 * @return The number of ranks
+	 */
+	public int size()
+	{
+		return this.size;
+	}
+
+	/**
+	 * Tests whether a state holds the same number of each symbol as this ranker
+	 *
+	 * @param state The packed state
+	 *
+	 * @return true if the state can be ranked
+	 */
+	public boolean accepts(final long state)
+	{
+		return new MultisetRanker(state).counts == this.counts;
+	}
+
+	/**
+	 * Ranks a configuration
+	 *
+	 * @param state A packed state with the counts of this ranker
+	 *
+	 * @return The rank of the state
+	 */
+	public int rank(final long state)
+	{
+		long remaining = this.counts;
+		//Number of arrangements of the cells still to be read
+		long arrangements = this.size;
+		long rank = 0L;
+		for (int cell = 0;cell < PackedState.CELLS;cell++)
+		{
+			final int left = PackedState.CELLS - cell;
+			final int symbol = PackedState.symbolAt(state, cell);
+			for (int code = 0;code < symbol;code++)
+			{
+				rank += (arrangements * MultisetRanker.countOf(remaining, code)) / left;
+			}
+			arrangements = (arrangements * MultisetRanker.countOf(remaining, symbol)) / left;
+			remaining -= 1L << (symbol * COUNT_BITS);
+		}
+		return (int) rank;
+	}
+
+	/**
+	 * Rebuilds the configuration with a given rank
+	 *
+	 * @param rank A rank between 0 and size() - 1
+	 *
+	 * @return The packed state, including the cached '_' index
+	 */
+	public long unrank(final int rank)
+	{
+		long remaining = this.counts;
+		long arrangements = this.size;
+		long rest = rank;
+		long state = 0L;
+		int blank = 0;
+		for (int cell = 0;cell < PackedState.CELLS;cell++)
+		{
+			final int left = PackedState.CELLS - cell;
+			int code = 0;
+			while (true)
+			{
+				final long block = (arrangements * MultisetRanker.countOf(remaining, code)) / left;
+				if (rest < block)
+				{
+					arrangements = block;
+					break;
+				}
+				rest -= block;
+				code++;
+			}
+			if (code == PackedState.BLANK)
+			{
+				blank = cell;
+			}
+			state |= ((long) code) << (cell * PackedState.BITS_PER_CELL);
+			remaining -= 1L << (code * COUNT_BITS);
+		}
+		return PackedState.withBlank(state, blank);
+	}
+}
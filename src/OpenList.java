@@ -0,0 +1,47 @@
+/**
+ * OpenList holds the SearchNodes of a best first search which are waiting to be expanded
+ * poll always returns a node of the lowest rank and, among those, of the highest cost (see SearchNode.compareTo)
+ * Implementations are built by OpenListType
+ */
+public interface OpenList
+{
+	/**
+	 * Adds a node
+	 *
+	 * @param node The node, whose cost may not exceed its rank
+	 */
+	void add(SearchNode node);
+
+	/**
+	 * Removes the best node
+	 *
+	 * @return The node of the lowest rank, preferring the highest cost, or null if the list is empty
+	 */
+	SearchNode poll();
+
+	/**
+	 * Gets the best node without removing it
+	 *
+	 * @return The node poll would return, or null if the list is empty
+	 */
+	SearchNode peek();
+
+	/**
+	 * Getter for the number of nodes waiting
+	 *
+	 * @return The number of nodes
+	 */
+	int size();
+
+	/**
+	 * Tests whether no nodes are waiting
+	 *
+	 * @return true if the list is empty
+	 */
+	boolean isEmpty();
+
+	/**
+	 * Removes every node, so none of them is referenced by the list any longer
+	 */
+	void clear();
+}
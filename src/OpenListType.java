@@ -0,0 +1,84 @@
+import java.util.PriorityQueue;
+
+/**
+ * OpenListType lists the open lists that A* Search can be run with
+ */
+public enum OpenListType
+{
+	/**
+	 * Binary heap ordered by SearchNode.compareTo, with O(log n) add and poll
+	 */
+	HEAP
+			{
+				@Override
+				public OpenList create()
+				{
+					return new OpenList()
+					{
+						/**
+						 * The heap
+						 */
+						private final PriorityQueue<SearchNode> heap = new PriorityQueue<SearchNode>();
+
+						@Override
+						public void add(final SearchNode node)
+						{
+							this.heap.add(node);
+						}
+
+						@Override
+						public SearchNode poll()
+						{
+							return this.heap.poll();
+						}
+
+						@Override
+						public SearchNode peek()
+						{
+							return this.heap.peek();
+						}
+
+						@Override
+						public int size()
+						{
+							return this.heap.size();
+						}
+
+						@Override
+						public boolean isEmpty()
+						{
+							return this.heap.isEmpty();
+						}
+
+						@Override
+						public void clear()
+						{
+							this.heap.clear();
+						}
+					};
+				}
+			},
+	/**
+	 * BucketOpenList, a stack for every rank and cost with O(1) add and poll
+	 */
+	BUCKET
+			{
+				@Override
+				public OpenList create()
+				{
+					return new BucketOpenList();
+				}
+			};
+
+	/**
+	 * Open list used by searches which are not given one
+	 */
+	public static final OpenListType DEFAULT = BUCKET;
+
+	/**
+	 * Builds an empty open list of this type
+	 *
+	 * @return The open list
+	 */
+	public abstract OpenList create();
+}
@@ -0,0 +1,401 @@
+/**
+ * PackedState provides the packed long representation of a PuzzleConfiguration
+ * Each of the 12 cells is stored in 3 bits, in row-major order with cell 0 in the lowest bits (36 bits in total)
+ * Bits 36-39 cache the index of the '_' cell so that moves never need to scan the grid
+ * All moves are performed with shifts and masks and never allocate
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public final class PackedState
+{
+	/**
+	 * Number of rows on the board
+	 */
+	public static final int  ROWS          = 4;
+	/**
+	 * Number of columns on the board
+	 */
+	public static final int  COLUMNS       = 3;
+	/**
+	 * Number of cells on the board
+	 */
+	public static final int  CELLS         = ROWS * COLUMNS;
+	/**
+	 * Number of distinct symbols that may occupy a cell ('_', 'a', 'b', 'c', 'd')
+	 */
+	public static final int  SYMBOLS       = 5;
+	/**
+	 * Symbol code of the '_' tile
+	 */
+	public static final int  BLANK         = 0;
+	/**
+	 * Move the '_' up
+	 */
+	public static final int  UP            = 0;
+	/**
+	 * Move the '_' right
+	 */
+	public static final int  RIGHT         = 1;
+	/**
+	 * Move the '_' down
+	 */
+	public static final int  DOWN          = 2;
+	/**
+	 * Move the '_' left
+	 */
+	public static final int  LEFT          = 3;
+	/**
+	 * Number of possible moves
+	 */
+	public static final int  MOVES         = 4;
+	/**
+	 * Returned in place of a state when a move is not possible
+	 */
+	public static final long NO_STATE      = -1L;
+	/**
+	 * Number of bits used by a single cell
+	 */
+	public static final int  BITS_PER_CELL = 3;
+	/**
+	 * Mask of a single cell
+	 */
+	private static final long CELL_MASK     = 7L;
+	/**
+	 * Offset of the cached '_' index
+	 */
+	private static final int  BLANK_SHIFT   = CELLS * BITS_PER_CELL;
+	/**
+	 * Mask of the cached '_' index
+	 */
+	private static final long BLANK_MASK    = 0xFL;
+	/**
+	 * Mask covering every cell but not the cached '_' index
+	 */
+	private static final long BOARD_MASK    = (1L << BLANK_SHIFT) - 1L;
+	/**
+	 * Characters of each symbol code
+	 */
+	private static final char[]  SYMBOL_CHARS = {'_', 'a', 'b', 'c', 'd'};
+	/**
+	 * Cell that the '_' reaches from cell c with move m, stored at c * MOVES + m, or -1 if it would leave the board
+	 */
+	private static final int[]   TARGETS      = new int[CELLS * MOVES];
+	/**
+	 * Moves the '_' can make from each cell, in the order UP, RIGHT, DOWN, LEFT
+	 */
+	private static final int[][] LEGAL_MOVES  = new int[CELLS][];
+
+	static
+	{
+		for (int cell = 0;cell < CELLS;cell++)
+		{
+			final int row = cell / COLUMNS;
+			final int column = cell % COLUMNS;
+			TARGETS[(cell * MOVES) + UP] = (row > 0) ? (cell - COLUMNS) : -1;
+			TARGETS[(cell * MOVES) + RIGHT] = (column < (COLUMNS - 1)) ? (cell + 1) : -1;
+			TARGETS[(cell * MOVES) + DOWN] = (row < (ROWS - 1)) ? (cell + COLUMNS) : -1;
+			TARGETS[(cell * MOVES) + LEFT] = (column > 0) ? (cell - 1) : -1;
+			int legal = 0;
+			for (int move = 0;move < MOVES;move++)
+			{
+				legal += (TARGETS[(cell * MOVES) + move] < 0) ? 0 : 1;
+			}
+			LEGAL_MOVES[cell] = new int[legal];
+			legal = 0;
+			for (int move = 0;move < MOVES;move++)
+			{
+				if (TARGETS[(cell * MOVES) + move] >= 0)
+				{
+					LEGAL_MOVES[cell][legal++] = move;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Utility class, never instantiated
+	 */
+	private PackedState()
+	{
+	}
+
+	/**
+	 * Packs a 12 character configuration into a long
+	 *
+	 * @param configuration The configuration in row-major order
+	 *
+	 * @return The packed state
+	 *
+	 * @throws IllegalArgumentException if the configuration has an unknown symbol or does not have exactly one '_'
+	 */
+	public static long pack(final CharSequence configuration)
+	{
+		if (configuration.length() != CELLS)
+		{
+			throw new IllegalArgumentException("Invalid configuration length");
+		}
+		long state = 0L;
+		int blanks = 0;
+		for (int cell = 0;cell < CELLS;cell++)
+		{
+			final int symbol = PackedState.encode(configuration.charAt(cell));
+			if (symbol == BLANK)
+			{
+				state |= ((long) cell) << BLANK_SHIFT;
+				blanks++;
+			}
+			state |= ((long) symbol) << (cell * BITS_PER_CELL);
+		}
+		if (blanks != 1)
+		{
+			throw new IllegalArgumentException("Invalid configuration: exactly one '_' is required");
+		}
+		return state;
+	}
+
+	/**
+	 * Converts a character into its symbol code
+	 *
+	 * @param c The character
+	 *
+	 * @return The symbol code
+	 *
+	 * @throws IllegalArgumentException if c is not a tile character
+	 */
+	public static int encode(final char c)
+	{
+		switch (c)
+		{
+			case '_':
+				return BLANK;
+			case 'a':
+				return 1;
+			case 'b':
+				return 2;
+			case 'c':
+				return 3;
+			case 'd':
+				return 4;
+			default:
+				throw new IllegalArgumentException("Invalid tile: " + c);
+		}
+	}
+
+	/**
+	 * Converts a symbol code into its character
+	 *
+	 * @param symbol The symbol code
+	 *
+	 * @return The character
+	 */
+	public static char decode(final int symbol)
+	{
+		return SYMBOL_CHARS[symbol];
+	}
+
+	/**
+	 * Gets the symbol code in a cell
+	 *
+	 * @param state The packed state
+	 * @param cell  The cell index in row-major order
+	 *
+	 * @return The symbol code
+	 */
+	public static int symbolAt(final long state, final int cell)
+	{
+		return (int) ((state >>> (cell * BITS_PER_CELL)) & CELL_MASK);
+	}
+
+	/**
+	 * Gets the cell index of the '_'
+	 *
+	 * @param state The packed state
+	 *
+	 * @return The cell index of the '_'
+	 */
+	public static int blankOf(final long state)
+	{
+		return (int) ((state >>> BLANK_SHIFT) & BLANK_MASK);
+	}
+
+	/**
+	 * Replaces the cached '_' index of a state
+	 *
+	 * @param state The packed state, the cached index is ignored
+	 * @param blank The cell index of the '_'
+	 *
+	 * @return The packed state with the new cached index
+	 */
+	public static long withBlank(final long state, final int blank)
+	{
+		return (state & BOARD_MASK) | (((long) blank) << BLANK_SHIFT);
+	}
+
+	/**
+	 * Gets the cell the '_' would move into
+	 *
+	 * @param cell The cell the '_' is in
+	 * @param move The move (UP, RIGHT, DOWN or LEFT)
+	 *
+	 * @return The cell index or -1 if the move would leave the board
+	 */
+	public static int target(final int cell, final int move)
+	{
+		return TARGETS[(cell * MOVES) + move];
+	}
+
+	/**
+	 * Copies the moves the '_' can make from a cell into a buffer
+	 *
+	 * @param cell   The cell the '_' is in
+	 * @param buffer Receives the moves in the order UP, RIGHT, DOWN, LEFT; it needs room for MOVES from offset
+	 * @param offset Index of the first move in the buffer
+	 *
+	 * @return The number of moves, between 2 and 4
+	 */
+	public static int legalMoves(final int cell, final int[] buffer, final int offset)
+	{
+		final int[] legal = LEGAL_MOVES[cell];
+		System.arraycopy(legal, 0, buffer, offset, legal.length);
+		return legal.length;
+	}
+
+	/**
+	 * Writes every state one move away into a buffer
+	 * Only the legal moves of the '_' are tried, so no move is rejected and nothing is allocated
+	 *
+	 * @param state  The packed state
+	 * @param buffer Receives the states in the order of the moves UP, RIGHT, DOWN, LEFT; it needs room for MOVES
+	 *               from offset
+	 * @param offset Index of the first state in the buffer
+	 *
+	 * @return The number of states written, between 2 and 4
+	 */
+	public static int successors(final long state, final long[] buffer, final int offset)
+	{
+		final int blank = PackedState.blankOf(state);
+		final int[] legal = LEGAL_MOVES[blank];
+		final long board = state & BOARD_MASK;
+		final int blankShift = blank * BITS_PER_CELL;
+		for (int i = 0;i < legal.length;i++)
+		{
+			final int target = TARGETS[(blank * MOVES) + legal[i]];
+			final int targetShift = target * BITS_PER_CELL;
+			final long symbol = (board >>> targetShift) & CELL_MASK;
+			buffer[offset + i] = (board & ~(CELL_MASK << targetShift)) | (symbol << blankShift) |
+			                     (((long) target) << BLANK_SHIFT);
+		}
+		return legal.length;
+	}
+
+	/**
+	 * Gets the move that undoes the given move
+	 *
+	 * @param move The move (UP, RIGHT, DOWN or LEFT)
+	 *
+	 * @return The opposite move
+	 */
+	public static int opposite(final int move)
+	{
+		return (move + 2) & 3;
+	}
+
+	/**
+	 * Gets the move that takes one state to an adjacent state
+	 * Only the cached '_' indices are compared, so the states must be one move apart
+	 *
+	 * @param from The packed state before the move
+	 * @param to   The packed state after the move
+	 *
+	 * @return The move (UP, RIGHT, DOWN or LEFT)
+	 *
+	 * @throws IllegalArgumentException if the '_' of to is not next to the '_' of from
+	 */
+	public static int moveBetween(final long from, final long to)
+	{
+		final int blank = PackedState.blankOf(from);
+		final int target = PackedState.blankOf(to);
+		for (int move = 0;move < MOVES;move++)
+		{
+			if (TARGETS[(blank * MOVES) + move] == target)
+			{
+				return move;
+			}
+		}
+		throw new IllegalArgumentException("States are not one move apart");
+	}
+
+	/**
+	 * Swaps the '_' with its neighbour in the given direction
+	 *
+	 * @param state The packed state
+	 * @param move  The move (UP, RIGHT, DOWN or LEFT)
+	 *
+	 * @return The new packed state or NO_STATE if the '_' cannot move that way
+	 */
+	public static long move(final long state, final int move)
+	{
+		final int blank = PackedState.blankOf(state);
+		final int target = TARGETS[(blank * MOVES) + move];
+		if (target < 0)
+		{
+			return NO_STATE;
+		}
+		final int targetShift = target * BITS_PER_CELL;
+		final long symbol = (state >>> targetShift) & CELL_MASK;
+		// The '_' cell is always zero so the tile can simply be or-ed into it
+		final long board = (state & BOARD_MASK & ~(CELL_MASK << targetShift)) | (symbol << (blank * BITS_PER_CELL));
+		return board | (((long) target) << BLANK_SHIFT);
+	}
+
+	/**
+	 * Gets a single row of 3 characters
+	 *
+	 * @param state The packed state
+	 * @param row   The index of the row
+	 *
+	 * @return A new array holding the row
+	 */
+	public static char[] row(final long state, final int row)
+	{
+		final char[] chars = new char[COLUMNS];
+		for (int column = 0;column < COLUMNS;column++)
+		{
+			chars[column] = SYMBOL_CHARS[PackedState.symbolAt(state, (row * COLUMNS) + column)];
+		}
+		return chars;
+	}
+
+	/**
+	 * Builds the 2 dimensional char array view of a packed state
+	 *
+	 * @param state The packed state
+	 *
+	 * @return A new 4 x 3 char array
+	 */
+	public static char[][] unpack(final long state)
+	{
+		final char[][] grid = new char[ROWS][];
+		for (int row = 0;row < ROWS;row++)
+		{
+			grid[row] = PackedState.row(state, row);
+		}
+		return grid;
+	}
+
+	/**
+	 * String representation of a packed state
+	 *
+	 * @param state The packed state
+	 *
+	 * @return The 12 characters of the configuration in row-major order
+	 */
+	public static String toString(final long state)
+	{
+		final char[] chars = new char[CELLS];
+		for (int cell = 0;cell < CELLS;cell++)
+		{
+			chars[cell] = SYMBOL_CHARS[PackedState.symbolAt(state, cell)];
+		}
+		return new String(chars);
+	}
+}
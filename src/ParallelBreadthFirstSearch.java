@@ -0,0 +1,332 @@
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ParallelBreadthFirstSearch solves a single puzzle with several threads
+ * The search is level-synchronous: the states of each level are shared out between the workers, which expand them
+ * into the next level at the same time, and no worker starts on a level until the last one is finished. A state is
+ * visited by whichever worker first sets its bit in a bitmap indexed by MultisetRanker rank, using compare and set so
+ * that no locks are taken; that worker alone records the move which reached it. A level which visits the destination
+ * is the last, so the route rebuilt from the recorded moves is a shortest route.
+ * Levels too small to be worth sharing out are expanded by the calling thread.
+ * The worker threads are started with the instance and kept until it is closed, so a search does not wait for threads
+ * to start. Searches of one instance run one at a time, as each already has every worker; getShared gives an instance
+ * with a worker for every processor which lasts as long as the application.
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public class ParallelBreadthFirstSearch implements Closeable
+{
+	/**
+	 * Smallest number of states given to a worker at once
+	 */
+	private static final int MIN_SHARE     = 1024;
+	/**
+	 * Number of states each bitmap word covers
+	 */
+	private static final int BITS_PER_WORD = 64;
+
+	/**
+	 * The number of worker threads
+	 */
+	private final int                workers;
+	/**
+	 * Runs the workers
+	 */
+	private final ThreadPoolExecutor executor;
+	/**
+	 * Ranks every configuration with the tiles of the puzzle being searched
+	 */
+	private       MultisetRanker     ranker;
+	/**
+	 * Bit of every rank which has been visited
+	 */
+	private       AtomicLongArray    visited;
+	/**
+	 * Move which reached each visited rank, written only by the worker which visited it
+	 */
+	private       byte[]             moves;
+
+	/**
+	 * Constructor for ParallelBreadthFirstSearch
+	 *
+	 * @param workers The number of worker threads
+	 */
+	public ParallelBreadthFirstSearch(final int workers)
+	{
+		if (workers < 1)
+		{
+			throw new IllegalArgumentException("At least one worker is required");
+		}
+		this.workers = workers;
+		final AtomicInteger threads = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+		                                       new LinkedBlockingQueue<Runnable>(), new ThreadFactory()
+		{
+			@Override
+			public Thread newThread(final Runnable runnable)
+			{
+				final Thread thread = new Thread(runnable, "breadth-first-worker-" + threads.incrementAndGet());
+				//An instance which is never closed does not keep the application running
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		this.executor.prestartAllCoreThreads();
+	}
+
+	/**
+	 * Gets the instance shared by every search which does not bring its own, with a worker for every processor
+	 * It is never closed; its workers are daemon threads
+	 *
+	 * @return The shared instance
+	 */
+	public static ParallelBreadthFirstSearch getShared()
+	{
+		return Shared.INSTANCE;
+	}
+
+	/**
+	 * Finds a shortest route between 2 configurations
+	 *
+	 * @param start       The packed start state
+	 * @param destination The packed destination state
+	 * @param stats       Counts of the search, to which the counts of every worker are added; starting and stopping
+	 *                    it is left to the caller
+	 *
+	 * @return The packed states from start to destination inclusive, or null if there is no route
+	 *
+	 * @throws IllegalStateException    if the calling thread is interrupted whilst waiting for the workers
+	 * @throws SearchCancelledException if the Cancellation of the stats is set whilst a worker is expanding
+	 */
+	public synchronized long[] search(final long start, final long destination, final SearchStats stats)
+	{
+		this.ranker = new MultisetRanker(start);
+		if (!this.ranker.accepts(destination))
+		{
+			return null;
+		}
+		this.visited = new AtomicLongArray((this.ranker.size() / BITS_PER_WORD) + 1);
+		this.moves = new byte[this.ranker.size()];
+		this.visit(this.ranker.rank(start));
+		final int target = this.ranker.rank(destination);
+		int depth = 0;
+		long[] level = {start};
+		while (!this.isVisited(target))
+		{
+			if (level.length == 0)
+			{
+				return null;
+			}
+			stats.open(level.length);
+			level = this.expand(level, stats);
+			depth++;
+		}
+		return this.replay(destination, depth);
+	}
+
+	/**
+	 * Stops the worker threads
+	 * The instance cannot search once closed; the shared instance must not be closed
+	 */
+	@Override
+	public void close()
+	{
+		this.executor.shutdownNow();
+	}
+
+	/**
+	 * Expands every state of a level
+	 *
+	 * @param level The packed states of the level
+	 * @param stats Counts of the search
+	 *
+	 * @return The packed states of the next level, which have not been visited before
+	 *
+	 * @throws IllegalStateException    if the calling thread is interrupted whilst waiting for the workers
+	 * @throws SearchCancelledException if the Cancellation of the stats is set whilst a worker is expanding
+	 */
+	private long[] expand(final long[] level, final SearchStats stats)
+	{
+		final int shares = Math.min(this.workers, ((level.length + MIN_SHARE) - 1) / MIN_SHARE);
+		if (shares <= 1)
+		{
+			return this.expand(level, 0, level.length, stats);
+		}
+		final List<Callable<long[]>> tasks = new ArrayList<Callable<long[]>>(shares);
+		final List<SearchStats> shareStats = new ArrayList<SearchStats>(shares);
+		for (int share = 0;share < shares;share++)
+		{
+			final int from = (int) (((long) level.length * share) / shares);
+			final int to = (int) (((long) level.length * (share + 1)) / shares);
+			final SearchStats counts = new SearchStats(stats.getMethod(), stats.getCancellation());
+			shareStats.add(counts);
+			tasks.add(new Callable<long[]>()
+			{
+				@Override
+				public long[] call()
+				{
+					return ParallelBreadthFirstSearch.this.expand(level, from, to, counts);
+				}
+			});
+		}
+		final List<long[]> next = new ArrayList<long[]>(shares);
+		int size = 0;
+		try
+		{
+			for (final Future<long[]> future : this.executor.invokeAll(tasks))
+			{
+				final long[] states = future.get();
+				next.add(states);
+				size += states.length;
+			}
+		}
+		catch (final InterruptedException exception)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Search interrupted", exception);
+		}
+		catch (final ExecutionException exception)
+		{
+			if (exception.getCause() instanceof SearchCancelledException)
+			{
+				throw (SearchCancelledException) exception.getCause();
+			}
+			throw new IllegalStateException("Search failed", exception.getCause());
+		}
+		for (final SearchStats counts : shareStats)
+		{
+			stats.add(counts);
+		}
+		final long[] states = new long[size];
+		size = 0;
+		for (final long[] part : next)
+		{
+			System.arraycopy(part, 0, states, size, part.length);
+			size += part.length;
+		}
+		return states;
+	}
+
+	/**
+	 * Expands a share of a level
+	 *
+	 * @param level The packed states of the level
+	 * @param from  Index of the first state of the share
+	 * @param to    Index after the last state of the share
+	 * @param stats Counts of the share, only touched by the worker expanding it
+	 *
+	 * @return The packed states which this worker visited first
+	 */
+	private long[] expand(final long[] level, final int from, final int to, final SearchStats stats)
+	{
+		long[] next = new long[Math.max(PackedState.MOVES, (to - from) * 2)];
+		int size = 0;
+		final long[] neighbours = new long[PackedState.MOVES];
+		final int[] legal = new int[PackedState.MOVES];
+		for (int i = from;i < to;i++)
+		{
+			final long state = level[i];
+			stats.expanded();
+			final int count = PackedState.successors(state, neighbours, 0);
+			PackedState.legalMoves(PackedState.blankOf(state), legal, 0);
+			for (int j = 0;j < count;j++)
+			{
+				stats.generated();
+				final int rank = this.ranker.rank(neighbours[j]);
+				if (this.visit(rank))
+				{
+					this.moves[rank] = (byte) legal[j];
+					if (size == next.length)
+					{
+						next = Arrays.copyOf(next, size * 2);
+					}
+					next[size++] = neighbours[j];
+				}
+				else
+				{
+					stats.duplicate();
+				}
+			}
+		}
+		return Arrays.copyOf(next, size);
+	}
+
+	/**
+	 * Marks a rank as visited
+	 *
+	 * @param rank The rank
+	 *
+	 * @return true if this call visited it, false if it had already been visited
+	 */
+	private boolean visit(final int rank)
+	{
+		final int word = rank / BITS_PER_WORD;
+		final long bit = 1L << (rank % BITS_PER_WORD);
+		while (true)
+		{
+			final long bits = this.visited.get(word);
+			if ((bits & bit) != 0L)
+			{
+				return false;
+			}
+			if (this.visited.compareAndSet(word, bits, bits | bit))
+			{
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Tests whether a rank has been visited
+	 *
+	 * @param rank The rank
+	 *
+	 * @return true if it has been visited
+	 */
+	private boolean isVisited(final int rank)
+	{
+		return (this.visited.get(rank / BITS_PER_WORD) & (1L << (rank % BITS_PER_WORD))) != 0L;
+	}
+
+	/**
+	 * Rebuilds the route by undoing the recorded moves from the destination back to the start
+	 *
+	 * @param destination The packed destination state
+	 * @param depth       The number of levels searched, which is the number of jumps of the route
+	 *
+	 * @return The packed states from start to destination inclusive
+	 */
+	private long[] replay(final long destination, final int depth)
+	{
+		final long[] states = new long[depth + 1];
+		states[depth] = destination;
+		for (int i = depth;i > 0;i--)
+		{
+			states[i - 1] = PackedState.move(states[i], PackedState.opposite(this.moves[this.ranker.rank(states[i])]));
+		}
+		return states;
+	}
+
+	/**
+	 * Holds the shared instance, which is only created once it is first asked for
+	 */
+	private static final class Shared
+	{
+		/**
+		 * The shared instance
+		 */
+		private static final ParallelBreadthFirstSearch INSTANCE =
+				new ParallelBreadthFirstSearch(Runtime.getRuntime().availableProcessors());
+	}
+}
@@ -0,0 +1,449 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * PatternDatabase holds the exact number of jumps to a destination in an abstraction of the puzzle
+ * The abstraction keeps the '_' and a chosen set of tracked letters and treats every other letter as the same
+ * don't-care tile. Each abstract configuration gets a byte, indexed by its MultisetRanker rank, which is filled in by
+ * a breadth first search backwards from the abstract destination.
+ * Any route in the puzzle is also a route in the abstraction so the stored distances never overestimate
+ * Databases are persisted as a 16 byte header followed by the distances and are memory-mapped when loaded
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public final class PatternDatabase
+{
+	/**
+	 * Directory where pattern databases are persisted
+	 */
+	public static final  String DIRECTORY     = "./res/pdb/";
+	/**
+	 * Tracking every letter gives an exact distance table of the whole puzzle
+	 */
+	public static final  String ALL_LETTERS   = "abcd";
+	/**
+	 * Distance of a configuration which cannot reach the destination
+	 */
+	public static final  int    UNREACHABLE   = 0xFF;
+	/**
+	 * Symbol code given to the letters which are not tracked
+	 */
+	private static final int    DONT_CARE     = PackedState.SYMBOLS;
+	/**
+	 * First int of every database file ("PDB1")
+	 */
+	private static final int    MAGIC         = 0x50444231;
+	/**
+	 * Length of the header: magic, abstract destination and size
+	 */
+	private static final int    HEADER_LENGTH = 16;
+	/**
+	 * Distance of a configuration which has not been reached yet
+	 */
+	private static final byte   UNREACHED     = -1;
+
+	/**
+	 * Databases which have already been built or loaded, by file name
+	 */
+	private static final ConcurrentMap<String, PatternDatabase> LOADED =
+			new ConcurrentHashMap<String, PatternDatabase>();
+
+	/**
+	 * Abstract code of each symbol code
+	 */
+	private final int[]          codes;
+	/**
+	 * Abstract destination state
+	 */
+	private final long           destination;
+	/**
+	 * Ranking of the abstract state space
+	 */
+	private final MultisetRanker ranker;
+	/**
+	 * Distance of every abstract configuration, indexed by rank
+	 */
+	private final ByteBuffer     distances;
+
+	/**
+	 * Constructor for PatternDatabase
+	 *
+	 * @param codes       Abstract code of each symbol code
+	 * @param destination Abstract destination state
+	 * @param distances   Distance of every abstract configuration, indexed by rank
+	 */
+	private PatternDatabase(final int[] codes, final long destination, final ByteBuffer distances)
+	{
+		this.codes = codes;
+		this.destination = destination;
+		this.ranker = new MultisetRanker(destination);
+		this.distances = distances;
+	}
+
+	/**
+	 * Builds the abstract code of every symbol code
+	 *
+	 * @param tracked The letters to keep
+	 *
+	 * @return Abstract code of each symbol code
+	 */
+	private static int[] codesFor(final CharSequence tracked)
+	{
+		final int[] codes = new int[PackedState.SYMBOLS];
+		Arrays.fill(codes, DONT_CARE);
+		codes[PackedState.BLANK] = PackedState.BLANK;
+		for (int i = 0;i < tracked.length();i++)
+		{
+			final int symbol = PackedState.encode(tracked.charAt(i));
+			codes[symbol] = symbol;
+		}
+		return codes;
+	}
+
+	/**
+	 * Maps a state into the abstraction
+	 *
+	 * @param state The packed state
+	 * @param codes Abstract code of each symbol code
+	 *
+	 * @return The abstract state
+	 */
+	private static long abstractState(final long state, final int[] codes)
+	{
+		long result = 0L;
+		for (int cell = 0;cell < PackedState.CELLS;cell++)
+		{
+			result |= ((long) codes[PackedState.symbolAt(state, cell)]) << (cell * PackedState.BITS_PER_CELL);
+		}
+		return PackedState.withBlank(result, PackedState.blankOf(state));
+	}
+
+	/**
+	 * Gets the file name that a database is persisted under
+	 * This is the destination with every letter that is not tracked replaced by 'x'
+	 *
+	 * @param destination The packed destination state
+	 * @param tracked     The letters to keep
+	 *
+	 * @return The file name
+	 */
+	public static String fileName(final long destination, final CharSequence tracked)
+	{
+		final int[] codes = PatternDatabase.codesFor(tracked);
+		final StringBuilder stringBuilder = new StringBuilder(PackedState.CELLS + 4);
+		for (int cell = 0;cell < PackedState.CELLS;cell++)
+		{
+			final int code = codes[PackedState.symbolAt(destination, cell)];
+			stringBuilder.append((code == DONT_CARE) ? 'x' : PackedState.decode(code));
+		}
+		return stringBuilder.append(".pdb").toString();
+	}
+
+	/**
+	 * Builds a database with a backwards breadth first search from the destination
+	 *
+	 * @param destination The packed destination state
+	 * @param tracked     The letters to keep
+	 *
+	 * @return The database
+	 */
+	@SuppressWarnings("MethodReturnOfConcreteClass")
+	public static PatternDatabase build(final long destination, final CharSequence tracked)
+	{
+		final int[] codes = PatternDatabase.codesFor(tracked);
+		final long goal = PatternDatabase.abstractState(destination, codes);
+		final MultisetRanker ranker = new MultisetRanker(goal);
+		final byte[] distances = new byte[ranker.size()];
+		Arrays.fill(distances, UNREACHED);
+		//Every abstract configuration enters the queue exactly once
+		final long[] queue = new long[ranker.size()];
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = goal;
+		distances[ranker.rank(goal)] = 0;
+		final long[] neighbours = new long[PackedState.MOVES];
+		while (head < tail)
+		{
+			final long state = queue[head++];
+			final byte next = (byte) (distances[ranker.rank(state)] + 1);
+			final int count = PackedState.successors(state, neighbours, 0);
+			for (int i = 0;i < count;i++)
+			{
+				final int rank = ranker.rank(neighbours[i]);
+				if (distances[rank] == UNREACHED)
+				{
+					distances[rank] = next;
+					queue[tail++] = neighbours[i];
+				}
+			}
+		}
+		return new PatternDatabase(codes, goal, ByteBuffer.wrap(distances));
+	}
+
+	/**
+	 * Memory-maps a persisted database
+	 *
+	 * @param file        The database file
+	 * @param destination The packed destination state
+	 * @param tracked     The letters to keep
+	 *
+	 * @return The database
+	 *
+	 * @throws IOException if the file cannot be read or does not hold the expected database
+	 */
+	@SuppressWarnings("MethodReturnOfConcreteClass")
+	public static PatternDatabase load(final File file, final long destination, final CharSequence tracked)
+			throws IOException
+	{
+		final int[] codes = PatternDatabase.codesFor(tracked);
+		final long goal = PatternDatabase.abstractState(destination, codes);
+		final RandomAccessFile input = new RandomAccessFile(file, "r");
+		final ByteBuffer mapped;
+		try
+		{
+			final FileChannel channel = input.getChannel();
+			mapped = channel.map(MapMode.READ_ONLY, 0L, channel.size());
+		}
+		finally
+		{
+			input.close();
+		}
+		final int size = new MultisetRanker(goal).size();
+		if ((mapped.capacity() != (HEADER_LENGTH + size)) || (mapped.getInt(0) != MAGIC) ||
+		    (mapped.getLong(4) != goal) || (mapped.getInt(12) != size))
+		{
+			throw new IOException("Invalid pattern database " + file);
+		}
+		mapped.position(HEADER_LENGTH);
+		return new PatternDatabase(codes, goal, mapped.slice());
+	}
+
+	/**
+	 * Persists this database
+	 *
+	 * @param file The database file to (over)write
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	public void save(final File file) throws IOException
+	{
+		final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+		header.putInt(MAGIC).putLong(this.destination).putInt(this.ranker.size());
+		header.flip();
+		final FileOutputStream output = new FileOutputStream(file);
+		try
+		{
+			final FileChannel channel = output.getChannel();
+			final ByteBuffer body = this.distances.duplicate();
+			body.clear();
+			while (header.hasRemaining())
+			{
+				channel.write(header);
+			}
+			while (body.hasRemaining())
+			{
+				channel.write(body);
+			}
+		}
+		finally
+		{
+			output.close();
+		}
+	}
+
+	/**
+	 * Gets a database, reusing one that is already in memory, then one persisted in DIRECTORY, and otherwise
+	 * building it and persisting it for next time
+	 *
+	 * @param destination The packed destination state
+	 * @param tracked     The letters to keep
+	 *
+	 * @return The database
+	 */
+	@SuppressWarnings("MethodReturnOfConcreteClass")
+	public static PatternDatabase get(final long destination, final CharSequence tracked)
+	{
+		final String name = PatternDatabase.fileName(destination, tracked);
+		PatternDatabase database = LOADED.get(name);
+		if (database != null)
+		{
+			return database;
+		}
+		final File file = new File(DIRECTORY, name);
+		if (file.isFile())
+		{
+			try
+			{
+				database = PatternDatabase.load(file, destination, tracked);
+			}
+			catch (final IOException exception)
+			{
+				System.err.println("Unable to load " + file + ", rebuilding it");
+			}
+		}
+		if (database == null)
+		{
+			database = PatternDatabase.build(destination, tracked);
+			//Written under a temporary name first so that other threads never map a half written file
+			final File temporary = new File(DIRECTORY, name + '.' + Thread.currentThread().getId() + ".tmp");
+			try
+			{
+				//noinspection ResultOfMethodCallIgnored
+				file.getParentFile().mkdirs();
+				database.save(temporary);
+				if (!temporary.renameTo(file))
+				{
+					//noinspection ResultOfMethodCallIgnored
+					temporary.delete();
+				}
+			}
+			catch (final IOException exception)
+			{
+				System.err.println("Unable to persist " + file);
+			}
+		}
+		final PatternDatabase existing = LOADED.putIfAbsent(name, database);
+		return (existing == null) ? database : existing;
+	}
+
+	/**
+	 * Memory-maps every database persisted in DIRECTORY so that they are ready before solving starts
+	 * Files which cannot be read are skipped and will be rebuilt when they are needed
+	 *
+	 * @return The number of databases loaded
+	 */
+	public static int preload()
+	{
+		final File[] files = new File(DIRECTORY).listFiles();
+		if (files == null)
+		{
+			return 0;
+		}
+		int loaded = 0;
+		for (final File file : files)
+		{
+			final String name = file.getName();
+			if (name.endsWith(".pdb") && (name.length() == (PackedState.CELLS + 4)))
+			{
+				//A database of the abstract destination itself, with 'x' standing for both don't-care letters
+				final String pattern = name.substring(0, PackedState.CELLS);
+				final String tracked = PatternDatabase.trackedLetters(pattern);
+				final String concrete = (pattern.indexOf('x') < 0) ? pattern :
+				                        pattern.replace('x', PatternDatabase.untrackedLetter(tracked));
+				try
+				{
+					final long destination = PackedState.pack(concrete);
+					LOADED.putIfAbsent(name, PatternDatabase.load(file, destination, tracked));
+					loaded++;
+				}
+				catch (final IOException exception)
+				{
+					System.err.println("Unable to load " + file);
+				}
+				catch (final IllegalArgumentException exception)
+				{
+					System.err.println("Ignoring " + file);
+				}
+			}
+		}
+		return loaded;
+	}
+
+	/**
+	 * Lists the letters which appear in a file name pattern
+	 *
+	 * @param pattern A destination with untracked letters replaced by 'x'
+	 *
+	 * @return The tracked letters
+	 */
+	private static String trackedLetters(final CharSequence pattern)
+	{
+		final StringBuilder tracked = new StringBuilder(PackedState.SYMBOLS);
+		for (final char letter : new char[]{'a', 'b', 'c', 'd'})
+		{
+			if (pattern.toString().indexOf(letter) >= 0)
+			{
+				tracked.append(letter);
+			}
+		}
+		return tracked.toString();
+	}
+
+	/**
+	 * Picks a letter which is not tracked to stand in for the don't-care tiles
+	 *
+	 * @param tracked The tracked letters
+	 *
+	 * @return A letter which is not tracked
+	 */
+	private static char untrackedLetter(final String tracked)
+	{
+		for (final char letter : new char[]{'a', 'b', 'c', 'd'})
+		{
+			if (tracked.indexOf(letter) < 0)
+			{
+				return letter;
+			}
+		}
+		throw new IllegalArgumentException("Every letter is tracked");
+	}
+
+	/**
+	 * Looks up the distance of a configuration
+	 *
+	 * @param state The packed state, holding the same letters as the destination
+	 *
+	 * @return The number of jumps the abstraction of state needs to reach the abstract destination, or UNREACHABLE
+	 */
+	public int distance(final long state)
+	{
+		return this.distances.get(this.ranker.rank(PatternDatabase.abstractState(state, this.codes))) & 0xFF;
+	}
+
+	/**
+	 * Tests whether a configuration holds the letters this database was built for
+	 * Only such configurations can be looked up
+	 *
+	 * @param state The packed state
+	 *
+	 * @return true if distance can be called with state
+	 */
+	public boolean accepts(final long state)
+	{
+		return this.ranker.accepts(PatternDatabase.abstractState(state, this.codes));
+	}
+
+	/**
+	 * Tests whether every letter is tracked, in which case distances are exact rather than lower bounds
+	 *
+	 * @return true if this database is an exact distance table
+	 */
+	public boolean isExact()
+	{
+		for (final int code : this.codes)
+		{
+			if (code == DONT_CARE)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Getter for the number of abstract configurations
+	 *
+	 * @return The number of entries in the database
+	 */
+	public int size()
+	{
+		return this.ranker.size();
+	}
+}
@@ -0,0 +1,72 @@
+/**
+ * PatternDatabaseHeuristic estimates the number of jumps as the largest distance held by a set of pattern databases
+ * and TileManhattanHeuristic
+ * Every one of them is consistent, so their maximum is too
+ */
+public class PatternDatabaseHeuristic implements Heuristic
+{
+	/**
+	 * Tracked letters of the databases used by default: each one merges a different pair of letters
+	 */
+	private static final String[] DEFAULT_PATTERNS = {"ac", "bc", "ab"};
+
+	/**
+	 * The pattern databases to look up
+	 */
+	private final PatternDatabase[] databases;
+	/**
+	 * The Manhattan distance to fall back on where the abstractions are weak
+	 */
+	private final Heuristic         tiles;
+
+	/**
+	 * Constructor for PatternDatabaseHeuristic using the default patterns
+	 * The databases are loaded or built through PatternDatabase.get
+	 *
+	 * @param destination The packed destination state
+	 */
+	public PatternDatabaseHeuristic(final long destination)
+	{
+		this(destination, PatternDatabaseHeuristic.defaultDatabases(destination));
+	}
+
+	/**
+	 * Constructor for PatternDatabaseHeuristic
+	 *
+	 * @param destination The packed destination state
+	 * @param databases   Pattern databases built for destination
+	 */
+	public PatternDatabaseHeuristic(final long destination, final PatternDatabase... databases)
+	{
+		this.databases = databases.clone();
+		this.tiles = new TileManhattanHeuristic(destination);
+	}
+
+	/**
+	 * Gets the databases of the default patterns
+	 *
+	 * @param destination The packed destination state
+	 *
+	 * @return A database for every default pattern
+	 */
+	private static PatternDatabase[] defaultDatabases(final long destination)
+	{
+		final PatternDatabase[] databases = new PatternDatabase[DEFAULT_PATTERNS.length];
+		for (int i = 0;i < databases.length;i++)
+		{
+			databases[i] = PatternDatabase.get(destination, DEFAULT_PATTERNS[i]);
+		}
+		return databases;
+	}
+
+	@Override
+	public int estimate(final long state)
+	{
+		int best = this.tiles.estimate(state);
+		for (final PatternDatabase database : this.databases)
+		{
+			best = Math.max(best, database.distance(state));
+		}
+		return best;
+	}
+}
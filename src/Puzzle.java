@@ -1,5 +1,7 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.PriorityQueue;
 
 /**
  * Puzzle is a class which represents a Puzzle
@@ -16,6 +18,10 @@ public class Puzzle
 	 * FULL_CONFIG_LENGTH is the number of tiles represented in a single string in puzzle
 	 */
 	private static final int FULL_CONFIG_LENGTH = 25;
+	/**
+	 * Returned by the body of aStarSearch once the route has been found
+	 */
+	private static final int SOLVED             = -1;
 	/**
 	 * destinationConfig is a configuration of the target
 	 */
@@ -35,6 +41,16 @@ public class Puzzle
 	 */
 	@SuppressWarnings("InstanceVariableMayNotBeInitialized")
 	private       List<PuzzleConfiguration> route;
+	/**
+	 * Counts of the last search, or null if the puzzle has not been searched
+	 */
+	@SuppressWarnings("InstanceVariableMayNotBeInitialized")
+	private       SearchStats               stats;
+	/**
+	 * Flag asking searches of this puzzle to give up, or null if they cannot be cancelled
+	 */
+	@SuppressWarnings("InstanceVariableMayNotBeInitialized")
+	private       Cancellation              cancellation;
 
 	/**
 	 * Constructor for puzzle
@@ -108,6 +124,12 @@ public class Puzzle
 		return this.destinationConfig;
 	}
 
+	@SuppressWarnings({"MethodReturnOfConcreteClass", "PublicMethodNotExposedInInterface"})
+	public PuzzleConfiguration getStartConfig()
+	{
+		return this.startConfig;
+	}
+
 	/**
 	 * Getter for the route
 	 *
@@ -136,67 +158,207 @@ public class Puzzle
 	}
 
 	/**
-	 * Solves puzzle using Iterative Deepening
-	 * If no solution possible, algorithm will not terminate
+	 * Solves puzzle using Iterative Deepening A* Search with the linear conflict heuristic
+	 *
+	 * @throws UnsolvablePuzzleException if there is no route of at most IdaStarSearch.MAX_DEPTH jumps
 	 */
 	@SuppressWarnings("PublicMethodNotExposedInInterface")
 	public void solveWithIterativeDeepening()
 	{
-		int depth = 1;
-		while (true)
+		this.solveWithIterativeDeepening(HeuristicType.LINEAR_CONFLICT);
+	}
+
+	/**
+	 * Solves puzzle using Iterative Deepening A* Search with a chosen heuristic
+	 * HeuristicType.NONE gives plain Iterative Deepening
+	 *
+	 * @param heuristicType The heuristic to bound each iteration with
+	 *
+	 * @throws UnsolvablePuzzleException if there is no route of at most IdaStarSearch.MAX_DEPTH jumps
+	 */
+	@SuppressWarnings("PublicMethodNotExposedInInterface")
+	public void solveWithIterativeDeepening(final HeuristicType heuristicType)
+	{
+		final long destination = this.destinationConfig.getState();
+		final IdaStarSearch search = new IdaStarSearch(heuristicType.create(destination));
+		final SearchStats searchStats = this.startSearch(SearchMethod.ITERATIVE_DEEPENING, heuristicType);
+		final long[] states;
+		try
 		{
-			this.route = this.depthFirstSearch(this.startConfig, this.destinationConfig, depth);
-			//noinspection VariableNotUsedInsideIf
-			if (this.route != null)
-			{
-				return;
-			}
-			depth++;
+			states = search.search(this.startConfig.getState(), destination, searchStats);
+		}
+		finally
+		{
+			searchStats.stop();
+		}
+		if (states == null)
+		{
+			throw new UnsolvablePuzzleException(this);
 		}
+		this.route = Puzzle.toRoute(states);
+	}
+
+	/**
+	 * Starts the SearchStats of a new search of this puzzle
+	 *
+	 * @param method        The method searching
+	 * @param heuristicType The heuristic guiding the search, or null if the method has none
+	 *
+	 * @return The started SearchStats, which the caller must stop
+	 */
+	private SearchStats startSearch(final SearchMethod method, final HeuristicType heuristicType)
+	{
+		return this.startSearch((heuristicType == null) ? method.name() : (method.name() + '/' + heuristicType));
 	}
 
 	/**
-	 * Terminating Depth-Limited-First search
-	 * Alternative to A* Search and Uniform Cost Search
+	 * Starts the SearchStats of a new search of this puzzle
+	 * A puzzle which Solvability shows cannot be solved is rejected here, before any method starts searching it, and
+	 * is recorded as a search which did no work. The SearchStats carry the Cancellation of this puzzle into the engine.
 	 *
-	 * @param start       Starting node
-	 * @param destination Destination node
-	 * @param depth       Degrees of depth algorithm will go from start to finding target node or halting
+	 * @param method The name of the method searching
 	 *
-	 * @return List containing nodes from Start to Destination or null
+	 * @return The started SearchStats, which the caller must stop
+	 *
+	 * @throws UnsolvablePuzzleException if the start cannot reach the destination
+	 * @throws SearchCancelledException  if searches of this puzzle have already been cancelled
 	 */
-	private List<PuzzleConfiguration> depthFirstSearch(final PuzzleConfiguration start,
-	                                                   final PuzzleConfiguration destination,
-	                                                   final int depth)
+	private SearchStats startSearch(final String method)
 	{
-		if (depth == 0)
+		this.stats = new SearchStats(method, this.cancellation);
+		this.stats.start();
+		if (!this.isSolvable())
 		{
-			return null;
+			this.stats.stop();
+			throw new UnsolvablePuzzleException(this, "Start and destination are not arrangements of the same tiles");
 		}
-		else if (start.equals(destination))
+		try
 		{
-			final RankedRoute route = new RankedRoute();
-			if (!route.contains(destination))
-			{
-				route.add(destination);
-				//De ja vu test here
-			}
-			return route;
+			this.stats.checkCancelled();
 		}
-		else
+		catch (final SearchCancelledException exception)
 		{
-			final List<PuzzleConfiguration> configNeighbours = start.generateNextConfigs();
-			for (final PuzzleConfiguration config : configNeighbours)
-			{
-				final List<PuzzleConfiguration> route = this.depthFirstSearch(config, destination, depth - 1);
-				if (route != null)
-				{
-					route.add(0, start);
-					return route;
-				}
-			}
-			return null;
+			this.stats.stop();
+			throw exception;
+		}
+		return this.stats;
+	}
+
+	/**
+	 * Setter for the flag asking searches of this puzzle to give up
+	 * A cancelled search throws SearchCancelledException from the method which started it
+	 *
+	 * @param cancellation The flag, or null if searches cannot be cancelled
+	 */
+	@SuppressWarnings("PublicMethodNotExposedInInterface")
+	public void setCancellation(final Cancellation cancellation)
+	{
+		this.cancellation = cancellation;
+	}
+
+	/**
+	 * Tests whether the start of this puzzle can reach its destination, without searching
+	 *
+	 * @return true if a route exists
+	 */
+	@SuppressWarnings("PublicMethodNotExposedInInterface")
+	public boolean isSolvable()
+	{
+		return Solvability.isSolvable(this.startConfig.getState(), this.destinationConfig.getState());
+	}
+
+	/**
+	 * Solves this puzzle from the routes in a SolutionCache, without searching
+	 * The lookup is recorded as a search by SolutionCache.METHOD whether or not it finds a route
+	 *
+	 * @param cache The cache
+	 *
+	 * @return true if the route was cached and is now stored in this puzzle
+	 *
+	 * @throws IOException if the cache cannot be read
+	 */
+	@SuppressWarnings("PublicMethodNotExposedInInterface")
+	public boolean solveFromCache(final SolutionCache cache) throws IOException
+	{
+		final SearchStats searchStats = this.startSearch(SolutionCache.METHOD);
+		final long[] states;
+		try
+		{
+			states = cache.get(this.startConfig.getState(), this.destinationConfig.getState());
+		}
+		finally
+		{
+			searchStats.stop();
+		}
+		if (states == null)
+		{
+			return false;
 		}
+		this.route = Puzzle.toRoute(states);
+		return true;
+	}
+
+	/**
+	 * Solves the canonical form of this puzzle under Symmetry and maps its route back onto this puzzle
+	 * Puzzles which are mirror images, rotations or relabellings of each other are then searched in the same form, so
+	 * they share any tables their method builds for a destination
+	 *
+	 * @param method The method to solve the canonical form with
+	 *
+	 * @throws UnsolvablePuzzleException if the method finds that the puzzle cannot be solved
+	 */
+	@SuppressWarnings("PublicMethodNotExposedInInterface")
+	public void solveCanonical(final SearchMethod method)
+	{
+		final long start = this.startConfig.getState();
+		final long destination = this.destinationConfig.getState();
+		final Symmetry symmetry = Symmetry.canonical(start, destination);
+		if (symmetry.isIdentity())
+		{
+			method.solve(this);
+			return;
+		}
+		final Puzzle canonical = new Puzzle(PackedState.toString(symmetry.apply(start)) + '2' +
+		                                    PackedState.toString(symmetry.apply(destination)));
+		canonical.setCancellation(this.cancellation);
+		try
+		{
+			method.solve(canonical);
+		}
+		catch (final UnsolvablePuzzleException exception)
+		{
+			this.stats = canonical.stats;
+			throw new UnsolvablePuzzleException(this);
+		}
+		catch (final SearchCancelledException exception)
+		{
+			this.stats = canonical.stats;
+			throw exception;
+		}
+		this.stats = canonical.stats;
+		final long[] states = new long[canonical.route.size()];
+		for (int i = 0;i < states.length;i++)
+		{
+			states[i] = canonical.route.get(i).getState();
+		}
+		this.route = Puzzle.toRoute(symmetry.inverse().apply(states));
+	}
+
+	/**
+	 * Converts the packed states of a route into configurations
+	 *
+	 * @param states Packed states from start to destination
+	 *
+	 * @return List containing configurations from start to destination
+	 */
+	private static List<PuzzleConfiguration> toRoute(final long[] states)
+	{
+		final List<PuzzleConfiguration> configurations = new ArrayList<PuzzleConfiguration>(states.length);
+		for (final long state : states)
+		{
+			configurations.add(new PuzzleConfiguration(state));
+		}
+		return configurations;
 	}
 
 	/**
@@ -205,103 +367,570 @@ public class Puzzle
 	@SuppressWarnings("PublicMethodNotExposedInInterface")
 	public void solveWithUniformCostSearch()
 	{
-		this.uniformCostSearch(this.startConfig, this.destinationConfig);
+		this.solveWithUniformCostSearch(OpenListType.DEFAULT);
+	}
+
+	/**
+	 * Accessor method to solve this puzzle using Uniform cost search with a chosen open list
+	 *
+	 * @param openListType The open list to order the nodes waiting to be expanded with
+	 */
+	@SuppressWarnings("PublicMethodNotExposedInInterface")
+	public void solveWithUniformCostSearch(final OpenListType openListType)
+	{
+		this.solveWithUniformCostSearch(openListType, SearchBudget.UNLIMITED);
 	}
 
 	/**
-	 * Accessor method to solveWithIterativeDeepening this puzzle using A* Search
+	 * Accessor method to solve this puzzle using Uniform cost search with a chosen open list, holding no more nodes
+	 * than a budget
+	 * A search which reaches its budget is finished with Iterative Deepening, which also estimates every remaining
+	 * distance as 0
+	 *
+	 * @param openListType The open list to order the nodes waiting to be expanded with
+	 * @param budget       The largest number of nodes to hold at once
+	 *
+	 * @throws UnsolvablePuzzleException if the start cannot reach the destination
+	 */
+	@SuppressWarnings("PublicMethodNotExposedInInterface")
+	public void solveWithUniformCostSearch(final OpenListType openListType, final SearchBudget budget)
+	{
+		this.uniformCostSearch(this.startConfig, this.destinationConfig, openListType, budget);
+	}
+
+	/**
+	 * Accessor method to solveWithIterativeDeepening this puzzle using A* Search with the linear conflict heuristic
 	 */
 	@SuppressWarnings("PublicMethodNotExposedInInterface")
 	public void solveWithAStarSearch()
 	{
-		this.aStarSearch(this.startConfig, this.destinationConfig);
+		this.solveWithAStarSearch(HeuristicType.LINEAR_CONFLICT);
 	}
 
 	/**
-	 * Non-Terminating UniformCostSearch to find Optimal PuzzleConfigurations on a route between start and destination
-	 * Alternative to A* Search and Iterative Deepening
+	 * Accessor method to solveWithIterativeDeepening this puzzle using A* Search with a chosen heuristic
+	 *
+	 * @param heuristicType The heuristic to estimate the remaining jumps with
+	 */
+	@SuppressWarnings("PublicMethodNotExposedInInterface")
+	public void solveWithAStarSearch(final HeuristicType heuristicType)
+	{
+		this.solveWithAStarSearch(heuristicType, OpenListType.DEFAULT);
+	}
+
+	/**
+	 * Accessor method to solve this puzzle using A* Search with a chosen heuristic and open list
 	 *
-	 * @param start       Starting node
-	 * @param destination Destination node
+	 * @param heuristicType The heuristic to estimate the remaining jumps with
+	 * @param openListType  The open list to order the nodes waiting to be expanded with
 	 */
-	private void uniformCostSearch(final PuzzleConfiguration start, final PuzzleConfiguration destination)
+	@SuppressWarnings("PublicMethodNotExposedInInterface")
+	public void solveWithAStarSearch(final HeuristicType heuristicType, final OpenListType openListType)
 	{
-		//PriorityQueue can record which node has the best ranking
-		final PriorityQueue<RankedRoute> nodeLeague = new PriorityQueue<RankedRoute>();
-		nodeLeague.add(new RankedRoute(start));
-		while (true)
+		this.solveWithAStarSearch(heuristicType, openListType, SearchBudget.UNLIMITED);
+	}
+
+	/**
+	 * Accessor method to solve this puzzle using A* Search with a chosen heuristic and open list, holding no more
+	 * nodes than a budget
+	 * A search which reaches its budget is finished with Iterative Deepening A* and the same heuristic
+	 *
+	 * @param heuristicType The heuristic to estimate the remaining jumps with
+	 * @param openListType  The open list to order the nodes waiting to be expanded with
+	 * @param budget        The largest number of nodes to hold at once
+	 *
+	 * @throws UnsolvablePuzzleException if the start cannot reach the destination
+	 */
+	@SuppressWarnings("PublicMethodNotExposedInInterface")
+	public void solveWithAStarSearch(final HeuristicType heuristicType, final OpenListType openListType,
+	                                 final SearchBudget budget)
+	{
+		final SearchMethod method = (budget == SearchBudget.UNLIMITED) ? SearchMethod.A_STAR :
+		                            SearchMethod.BOUNDED_A_STAR;
+		this.aStarSearch(this.startConfig, this.destinationConfig,
+		                 heuristicType.create(this.destinationConfig.getState()), openListType, budget, null,
+		                 this.startSearch(method, heuristicType));
+	}
+
+	/**
+	 * Accessor method to solve this puzzle using A* Search with a chosen heuristic, shortened by the routes other
+	 * puzzles with the same destination have recorded in a SharedDistanceTable
+	 * The route found is recorded in the table in turn
+	 *
+	 * @param heuristicType The heuristic to estimate the remaining jumps with
+	 * @param table         Shortest routes shared between puzzles
+	 *
+	 * @throws UnsolvablePuzzleException if the start cannot reach the destination
+	 */
+	@SuppressWarnings("PublicMethodNotExposedInInterface")
+	public void solveWithAStarSearch(final HeuristicType heuristicType, final SharedDistanceTable table)
+	{
+		this.aStarSearch(this.startConfig, this.destinationConfig,
+		                 heuristicType.create(this.destinationConfig.getState()), OpenListType.DEFAULT,
+		                 SearchBudget.UNLIMITED, table,
+		                 this.startSearch(SharedDistanceTable.METHOD + '/' + heuristicType));
+		final long[] states = new long[this.route.size()];
+		for (int i = 0;i < states.length;i++)
 		{
-			if (nodeLeague.isEmpty())
+			states[i] = this.route.get(i).getState();
+		}
+		table.record(states);
+	}
+
+	/**
+	 * Solves puzzle using bidirectional breadth first search
+	 *
+	 * @throws UnsolvablePuzzleException if the start cannot reach the destination
+	 */
+	@SuppressWarnings("PublicMethodNotExposedInInterface")
+	public void solveWithBidirectionalSearch()
+	{
+		final SearchStats searchStats = this.startSearch(SearchMethod.BIDIRECTIONAL_BREADTH_FIRST, null);
+		final long[] states;
+		try
+		{
+			states = new BidirectionalSearch().breadthFirst(this.startConfig.getState(),
+			                                                this.destinationConfig.getState(), searchStats);
+		}
+		finally
+		{
+			searchStats.stop();
+		}
+		this.finishBidirectionalSearch(states);
+	}
+
+	/**
+	 * Solves puzzle using breadth first search shared out between several threads
+	 * The threads are started for this search alone; solveWithParallelBreadthFirstSearch(ParallelBreadthFirstSearch)
+	 * reuses threads which are already running
+	 *
+	 * @param workers The number of worker threads
+	 *
+	 * @throws UnsolvablePuzzleException if the start cannot reach the destination
+	 */
+	@SuppressWarnings("PublicMethodNotExposedInInterface")
+	public void solveWithParallelBreadthFirstSearch(final int workers)
+	{
+		final ParallelBreadthFirstSearch search = new ParallelBreadthFirstSearch(workers);
+		try
+		{
+			this.solveWithParallelBreadthFirstSearch(search);
+		}
+		finally
+		{
+			search.close();
+		}
+	}
+
+	/**
+	 * Solves puzzle using breadth first search shared out between the threads of a ParallelBreadthFirstSearch
+	 *
+	 * @param search The search, whose threads are left running
+	 *
+	 * @throws UnsolvablePuzzleException if the start cannot reach the destination
+	 */
+	@SuppressWarnings("PublicMethodNotExposedInInterface")
+	public void solveWithParallelBreadthFirstSearch(final ParallelBreadthFirstSearch search)
+	{
+		final SearchStats searchStats = this.startSearch(SearchMethod.PARALLEL_BREADTH_FIRST, null);
+		final long[] states;
+		try
+		{
+			states = search.search(this.startConfig.getState(), this.destinationConfig.getState(), searchStats);
+		}
+		finally
+		{
+			searchStats.stop();
+		}
+		if (states == null)
+		{
+			throw new UnsolvablePuzzleException(this);
+		}
+		this.route = Puzzle.toRoute(states);
+	}
+
+	/**
+	 * Solves puzzle using a breadth first sweep of its own
+	 *
+	 * @throws UnsolvablePuzzleException if the start cannot reach the destination
+	 */
+	@SuppressWarnings("PublicMethodNotExposedInInterface")
+	public void solveWithMultiTargetSearch()
+	{
+		this.solveWithMultiTargetSearch(new MultiTargetSearch(this.startConfig.getState()));
+	}
+
+	/**
+	 * Solves puzzle using a breadth first sweep shared with other puzzles
+	 * The sweep must start from either the start or the destination of this puzzle; a sweep from the destination
+	 * finds the route backwards
+	 *
+	 * @param search The sweep
+	 *
+	 * @throws UnsolvablePuzzleException if the start cannot reach the destination
+	 * @throws IllegalArgumentException  if the sweep starts from neither end of this puzzle
+	 */
+	@SuppressWarnings("PublicMethodNotExposedInInterface")
+	public void solveWithMultiTargetSearch(final MultiTargetSearch search)
+	{
+		final long start = this.startConfig.getState();
+		final long destination = this.destinationConfig.getState();
+		if ((search.getSource() != start) && (search.getSource() != destination))
+		{
+			throw new IllegalArgumentException("Sweep starts from neither end of " + this);
+		}
+		final SearchStats searchStats = this.startSearch(SearchMethod.MULTI_TARGET, null);
+		final long[] states;
+		try
+		{
+			states = (search.getSource() == start) ? search.routeTo(destination, searchStats) :
+			         search.routeTo(start, searchStats);
+		}
+		finally
+		{
+			searchStats.stop();
+		}
+		if (states == null)
+		{
+			throw new UnsolvablePuzzleException(this);
+		}
+		this.route = Puzzle.toRoute(states);
+		if (search.getSource() != start)
+		{
+			Collections.reverse(this.route);
+		}
+	}
+
+	/**
+	 * Solves puzzle using front-to-end bidirectional A* Search with a chosen heuristic
+	 * The heuristic is built once for each end of the route
+	 *
+	 * @param heuristicType The heuristic to estimate the remaining jumps with
+	 *
+	 * @throws UnsolvablePuzzleException if the start cannot reach the destination
+	 */
+	@SuppressWarnings("PublicMethodNotExposedInInterface")
+	public void solveWithBidirectionalSearch(final HeuristicType heuristicType)
+	{
+		final long start = this.startConfig.getState();
+		final long destination = this.destinationConfig.getState();
+		final Heuristic toEnd = heuristicType.create(destination);
+		final Heuristic toStart = heuristicType.create(start);
+		final SearchStats searchStats = this.startSearch(SearchMethod.BIDIRECTIONAL_A_STAR, heuristicType);
+		final long[] states;
+		try
+		{
+			states = new BidirectionalSearch().aStar(start, destination, toEnd, toStart, searchStats);
+		}
+		finally
+		{
+			searchStats.stop();
+		}
+		this.finishBidirectionalSearch(states);
+	}
+
+	/**
+	 * Stores the result of a bidirectional search
+	 *
+	 * @param states Packed states from start to destination, or null if there is no route
+	 *
+	 * @throws UnsolvablePuzzleException if states is null
+	 */
+	private void finishBidirectionalSearch(final long[] states)
+	{
+		if (states == null)
+		{
+			throw new UnsolvablePuzzleException(this);
+		}
+		this.route = Puzzle.toRoute(states);
+	}
+
+	/**
+	 * Accessor method to solve this puzzle by descending an exact distance table of its destination
+	 * The table is loaded from or persisted to PatternDatabase.DIRECTORY, so later puzzles with the same destination
+	 * are solved without searching at all
+	 * The table is built for the canonical form of the destination under Symmetry, so it is shared by every
+	 * destination which is a mirror image, rotation or relabelling of another
+	 */
+	@SuppressWarnings("PublicMethodNotExposedInInterface")
+	public void solveWithDistanceTable()
+	{
+		final long destination = this.destinationConfig.getState();
+		final Symmetry symmetry = Symmetry.canonical(destination);
+		this.solveWithDistanceTable(PatternDatabase.get(symmetry.apply(destination), PatternDatabase.ALL_LETTERS),
+		                            symmetry);
+	}
+
+	/**
+	 * Solves this puzzle by descending an exact distance table of its destination
+	 * Each step takes any move to a configuration one jump closer, so the route costs O(route length) lookups
+	 *
+	 * @param table Exact distance table built for the destination of this puzzle
+	 *
+	 * @throws UnsolvablePuzzleException if the start cannot reach the destination
+	 */
+	@SuppressWarnings("PublicMethodNotExposedInInterface")
+	public void solveWithDistanceTable(final PatternDatabase table)
+	{
+		this.solveWithDistanceTable(table, Symmetry.IDENTITY);
+	}
+
+	/**
+	 * Solves this puzzle by descending an exact distance table of a transformed destination
+	 *
+	 * @param table    Exact distance table built for the destination of this puzzle transformed by symmetry
+	 * @param symmetry The symmetry taking this puzzle onto the table
+	 *
+	 * @throws UnsolvablePuzzleException if the start cannot reach the destination
+	 */
+	private void solveWithDistanceTable(final PatternDatabase table, final Symmetry symmetry)
+	{
+		if (!table.isExact())
+		{
+			throw new IllegalArgumentException("Distance table must track every letter");
+		}
+		final SearchStats searchStats = this.startSearch(SearchMethod.DISTANCE_TABLE, null);
+		try
+		{
+			long state = symmetry.apply(this.startConfig.getState());
+			int distance = table.accepts(state) ? table.distance(state) : PatternDatabase.UNREACHABLE;
+			if (distance == PatternDatabase.UNREACHABLE)
 			{
 				// No solutions exist
-				System.err.println("Status 8: Unable to finish search.");
-				System.err.println("Quitting Application...");
-				System.exit(8);
-			}
-			final RankedRoute rankedRoute = nodeLeague.poll();
-			// Get the best looking route
-			final PuzzleConfiguration last = rankedRoute.getLast();
-			if (last.equals(destination))
-			{
-				//Solved
-				this.route = rankedRoute;
-				return;
+				throw new UnsolvablePuzzleException(this);
 			}
-			for (final PuzzleConfiguration config : last.generateNextConfigs())
+			final long[] descent = new long[distance + 1];
+			descent[0] = state;
+			final long[] neighbours = new long[PackedState.MOVES];
+			while (distance > 0)
 			{
-				if (!rankedRoute.contains(config)) // deja vu
+				searchStats.expanded();
+				final int legal = PackedState.successors(state, neighbours, 0);
+				for (int j = 0;j < legal;j++)
 				{
-					final RankedRoute tempRoute = new RankedRoute(rankedRoute);
-					tempRoute.addLast(config);
-					nodeLeague.add(tempRoute);
+					final long next = neighbours[j];
+					searchStats.generated();
+					if (table.distance(next) == (distance - 1))
+					{
+						state = next;
+						break;
+					}
 				}
+				distance--;
+				descent[descent.length - 1 - distance] = state;
 			}
+			this.route = Puzzle.toRoute(symmetry.inverse().apply(descent));
 		}
+		finally
+		{
+			searchStats.stop();
+		}
+	}
+
+	/**
+	 * Getter for the number of nodes expanded by the last search
+	 *
+	 * @return The number of configurations whose neighbours were generated
+	 */
+	@SuppressWarnings("PublicMethodNotExposedInInterface")
+	public long getExpandedNodes()
+	{
+		return (this.stats == null) ? 0L : this.stats.getExpandedNodes();
+	}
+
+	/**
+	 * Getter for the counts of the last search
+	 * The counts are kept when a search fails, so a puzzle found to be unsolvable still reports its work
+	 *
+	 * @return The SearchStats of the last search, or null if the puzzle has not been searched
+	 */
+	@SuppressWarnings("PublicMethodNotExposedInInterface")
+	public SearchStats getStats()
+	{
+		return this.stats;
+	}
+
+	/**
+	 * Terminating UniformCostSearch to find Optimal PuzzleConfigurations on a route between start and destination
+	 * Alternative to A* Search and Iterative Deepening
+	 * Uniform Cost Search is A* Search which estimates every remaining distance as 0
+	 *
+	 * @param start        Starting node
+	 * @param destination  Destination node
+	 * @param openListType The open list to order the nodes waiting to be expanded with
+	 * @param budget       The largest number of nodes to hold before falling back to Iterative Deepening
+	 */
+	private void uniformCostSearch(final PuzzleConfiguration start,
+	                               final PuzzleConfiguration destination,
+	                               final OpenListType openListType,
+	                               final SearchBudget budget)
+	{
+		this.aStarSearch(start, destination, HeuristicType.NONE.create(destination.getState()), openListType,
+		                 budget, null, this.startSearch(SearchMethod.UNIFORM_COST, null));
 	}
 
 	/**
-	 * Non-Terminating A* Search to find Optimal PuzzleConfigurations on a route between start and destination
+	 * Terminating A* Search to find Optimal PuzzleConfigurations on a route between start and destination
 	 * Alternative to Uniform Cost Search and Iterative Deepening
+	 * The heuristic must be consistent as every configuration is expanded at most once
 	 *
-	 * @param start       Starting node
-	 * @param destination Destination node
+	 * @param start        Starting node
+	 * @param destination  Destination node
+	 * @param heuristic    Estimate of the remaining jumps to destination
+	 * @param openListType The open list to order the nodes waiting to be expanded with
+	 * @param budget       The largest number of nodes to hold before falling back to Iterative Deepening A*
+	 * @param table        Shortest routes recorded by other searches, or null to search alone
+	 * @param searchStats  Started counts of the search, which are stopped when it ends
+	 *
+	 * @throws UnsolvablePuzzleException if every reachable configuration is expanded without finding destination
 	 */
 	@SuppressWarnings("FeatureEnvy")
-	private void aStarSearch(final PuzzleConfiguration start, final PuzzleConfiguration destination)
+	private void aStarSearch(final PuzzleConfiguration start,
+	                         final PuzzleConfiguration destination,
+	                         final Heuristic heuristic,
+	                         final OpenListType openListType,
+	                         final SearchBudget budget,
+	                         final SharedDistanceTable table,
+	                         final SearchStats searchStats)
+	{
+		try
+		{
+			final int bound = this.aStarSearch(start.getState(), destination.getState(), heuristic,
+			                                   openListType.create(), budget, table, searchStats);
+			if (bound != SOLVED)
+			{
+				//The open list and closed set of A* Search are no longer referenced and may be collected
+				this.iterativeDeepeningSearch(start.getState(), destination.getState(), heuristic, bound,
+				                              searchStats);
+			}
+		}
+		finally
+		{
+			searchStats.stop();
+		}
+	}
+
+	/**
+	 * The body of aStarSearch on packed states
+	 * A search which reaches its budget clears its open list and returns, so its nodes can be collected before the
+	 * search is finished with Iterative Deepening A*
+	 *
+	 * @param start       Packed starting state
+	 * @param target      Packed destination state
+	 * @param heuristic   Estimate of the remaining jumps to destination
+	 * @param nodeLeague  Empty open list, which records which node has the best ranking
+	 * @param budget      The largest number of nodes to hold before falling back to Iterative Deepening A*
+	 * @param table       Shortest routes recorded by other searches, or null to search alone
+	 * @param searchStats Counts of the search
+	 *
+	 * @return SOLVED once the route is found, or a number of jumps that no route is shorter than once the budget is
+	 * reached
+	 *
+	 * @throws UnsolvablePuzzleException if every reachable configuration is expanded without finding destination
+	 */
+	@SuppressWarnings({"FeatureEnvy", "OverlyLongMethod"})
+	private int aStarSearch(final long start, final long target, final Heuristic heuristic,
+	                         final OpenList nodeLeague, final SearchBudget budget, final SharedDistanceTable table,
+	                         final SearchStats searchStats)
 	{
-		//PriorityQueue can record which node has the best ranking
-		final PriorityQueue<RankedRoute> nodeLeague = new PriorityQueue<RankedRoute>();
-		final RankedRoute starter = new RankedRoute(start);
-		starter.addToRank(start.getMinDistanceTo(destination));
-		nodeLeague.add(starter);
+		//Closed set of configurations which have already been expanded
+		final LongHashSet expanded = new LongHashSet();
+		//Neighbours of the node being expanded
+		final long[] neighbours = new long[PackedState.MOVES];
+		//Shortest complete route known through a state recorded in the table
+		SearchNode shortcut = null;
+		long[] rest = null;
+		int shortcutCost = Integer.MAX_VALUE;
+		nodeLeague.add(new SearchNode(start, 0, heuristic.estimate(start), null));
 		while (true)
 		{
+			if ((shortcut != null) && (nodeLeague.isEmpty() || (nodeLeague.peek().getRank() >= shortcutCost)))
+			{
+				//No route left in the open list can be shorter (the heuristic is consistent)
+				this.route = shortcut.toRoute();
+				for (int i = 1;i < rest.length;i++)
+				{
+					this.route.add(new PuzzleConfiguration(rest[i]));
+				}
+				return SOLVED;
+			}
 			if (nodeLeague.isEmpty())
 			{
 				// No solutions exist
-				System.err.println("Status 8: Unable to finish search.");
-				System.err.println("Quitting Application...");
-				System.exit(8);
+				throw new UnsolvablePuzzleException(this);
 			}
-			final RankedRoute rankedRoute = nodeLeague.poll();
-			// Get the best looking route
-			final PuzzleConfiguration last = rankedRoute.getLast();
-			if (rankedRoute.getLast().equals(destination))
+			// Get the best looking node
+			final SearchNode node = nodeLeague.poll();
+			final long last = node.getState();
+			if (last == target)
 			{
 				//Solved
-				this.route = rankedRoute;
-				return;
+				this.route = node.toRoute();
+				return SOLVED;
 			}
-			for (final PuzzleConfiguration config : last.generateNextConfigs())
+			if (!expanded.add(last))
 			{
-				if (!rankedRoute.contains(config))
+				//Already expanded through a route at least as short (the heuristic is consistent)
+				searchStats.duplicate();
+				continue;
+			}
+			searchStats.expanded();
+			final int legal = PackedState.successors(last, neighbours, 0);
+			for (int j = 0;j < legal;j++)
+			{
+				final long next = neighbours[j];
+				searchStats.generated();
+				if (expanded.contains(next)) // deja vu
 				{
-					final RankedRoute tempRoute = new RankedRoute(rankedRoute);
-					tempRoute.addLast(config);
-					tempRoute.addToRank(config.getMinDistanceTo(destination));
-					nodeLeague.add(tempRoute);
+					searchStats.duplicate();
 				}
+				else
+				{
+					final SearchNode child = new SearchNode(next, node.getCost() + 1, heuristic.estimate(next), node);
+					final int distance = (table == null) ? SharedDistanceTable.UNKNOWN : table.distance(next, target);
+					if ((distance != SharedDistanceTable.UNKNOWN) && ((child.getCost() + distance) < shortcutCost))
+					{
+						final long[] states = table.route(next, target);
+						if (states != null)
+						{
+							shortcut = child;
+							rest = states;
+							shortcutCost = child.getCost() + distance;
+						}
+					}
+					nodeLeague.add(child);
+				}
+			}
+			searchStats.open(nodeLeague.size());
+			if (budget.isExceeded((long) expanded.size() + (long) nodeLeague.size()))
+			{
+				//Every route shorter than the best rank left has been ruled out, so IDA* may start from there
+				final int bound = nodeLeague.peek().getRank();
+				nodeLeague.clear();
+				return bound;
 			}
 		}
 	}
+
+	/**
+	 * Finishes a search with Iterative Deepening A* once A* Search has run out of budget and returned
+	 *
+	 * @param start       Packed starting state
+	 * @param target      Packed destination state
+	 * @param heuristic   Estimate of the remaining jumps to destination
+	 * @param bound       A number of jumps that no route is shorter than
+	 * @param searchStats Counts of the search
+	 *
+	 * @throws UnsolvablePuzzleException if there is no route of at most IdaStarSearch.MAX_DEPTH jumps
+	 */
+	private void iterativeDeepeningSearch(final long start, final long target, final Heuristic heuristic,
+	                                      final int bound, final SearchStats searchStats)
+	{
+		final long[] states = new IdaStarSearch(heuristic).search(start, target, bound, searchStats);
+		if (states == null)
+		{
+			throw new UnsolvablePuzzleException(this);
+		}
+		this.route = Puzzle.toRoute(states);
+	}
 }
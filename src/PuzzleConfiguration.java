@@ -1,11 +1,10 @@
-import sun.plugin.dom.exception.InvalidStateException;
-
 import java.util.List;
 
 /**
  * PuzzleConfiguration is a class which represents a single state of a Puzzle
  * It is initialised by using strings which are parsed and validated appropriately
  * It can generate the possible configurations that it can go to
+ * The state is held as a packed long (see PackedState); the char[][] view is only built when it is asked for
  * Created by Toby Leheup on 28/02/14.
  *
  * @author Toby Leheup - TL258
@@ -19,9 +18,9 @@ public class PuzzleConfiguration
 	 */
 	private static final int CONFIG_LENGTH = 12;
 	/**
-	 * configuration is a 2 dimensional char array representation of the grid of the puzzle
+	 * state is the packed representation of the grid of the puzzle
 	 */
-	private final char[][] configuration;
+	private final long state;
 
 	/**
 	 * Constructor for PuzzleConfiguration
@@ -32,7 +31,17 @@ public class PuzzleConfiguration
 	 */
 	public PuzzleConfiguration(final CharSequence configuration)
 	{
-		this.configuration = PuzzleConfiguration.parseConfig(configuration);
+		this.state = PuzzleConfiguration.parseState(configuration);
+	}
+
+	/**
+	 * Constructor for PuzzleConfiguration from an already validated packed state
+	 *
+	 * @param state A packed state as produced by PackedState
+	 */
+	public PuzzleConfiguration(final long state)
+	{
+		this.state = state;
 	}
 
 	/**
@@ -44,6 +53,18 @@ public class PuzzleConfiguration
 	 * @return An array containing 2 configurations
 	 */
 	public static char[][] parseConfig(final CharSequence configuration)
+	{
+		return PackedState.unpack(PuzzleConfiguration.parseState(configuration));
+	}
+
+	/**
+	 * Parses and validates a charSequence representing a single configuration into its packed state
+	 *
+	 * @param configuration The configuration in row-major order
+	 *
+	 * @return The packed state
+	 */
+	public static long parseState(final CharSequence configuration)
 	{
 		try
 		{
@@ -52,24 +73,14 @@ public class PuzzleConfiguration
 				throw new IllegalArgumentException("Invalid Puzzle");
 			}
 			//CONFIGURATION IS VALID
-			final char[][] puzzleConfig = new char[4][3];
-			int jumper = 0;
-			for (int i = 0;i < 4;i++)
-			{
-				for (int t = 0;t < 3;t++)
-				{
-					puzzleConfig[i][t] = configuration.charAt(i + t + jumper);
-				}
-				jumper += 2;
-			}
-			return puzzleConfig;
+			return PackedState.pack(configuration);
 		}
 		catch (final IllegalArgumentException exception)
 		{
 			System.err.println("Status 4: Attempted to parse invalid configuration");
 			System.err.println("Quitting Application...");
 			System.exit(4);
-			return null;
+			return PackedState.NO_STATE;
 		}
 	}
 
@@ -95,13 +106,24 @@ public class PuzzleConfiguration
 
 	/**
 	 * getter for the configuration
+	 * The 2 dimensional view is built on every call, so it should be used for export rather than searching
 	 *
 	 * @return The current configuration
 	 */
 	@SuppressWarnings("PublicMethodNotExposedInInterface")
 	public char[][] getConfiguration()
 	{
-		return this.configuration;
+		return PackedState.unpack(this.state);
+	}
+
+	/**
+	 * getter for the packed state
+	 *
+	 * @return The current configuration as a packed long
+	 */
+	public long getState()
+	{
+		return this.state;
 	}
 
 	/**
@@ -112,65 +134,52 @@ public class PuzzleConfiguration
 	@Override
 	public String toString()
 	{
-		final StringBuilder stringBuilder = new StringBuilder(4);
-		for (final char[] chars : this.configuration)
-		{
-			stringBuilder.append(chars);
-		}
-		return stringBuilder.toString();
+		return PackedState.toString(this.state);
 	}
 
 	/**
-	 * Converts a configuration into a string representation
-	 *
-	 * @param config A valid puzzle configuration
+	 * Getter for the cell of the '_', which is cached in the packed state
 	 *
-	 * @return A string representation of a configuration
+	 * @return The cell index in row-major order
 	 */
-	private static String toString(final char[][] config)
+	public int getBlank()
 	{
-		final StringBuilder stringBuilder = new StringBuilder(4);
-		for (final char[] chars : config)
-		{
-			stringBuilder.append(chars);
-		}
-		return stringBuilder.toString();
+		return PackedState.blankOf(this.state);
 	}
 
 	/**
 	 * Generates the next possible configurations from this configuration
 	 * A configuration can move left, right, up or down only.
 	 * Any move can only be performed if there is a valid cell in the place that _ wants to move to
+	 * Wraps generateNextStates; search engines should call that with a reused buffer instead
 	 *
 	 * @return A list of configurations that can be moved to from base
 	 */
-	@SuppressWarnings("MethodWithMoreThanThreeNegations")
 	public List<PuzzleConfiguration> generateNextConfigs()
 	{
+		final long[] states = new long[PackedState.MOVES];
+		final int count = this.generateNextStates(states);
 		final RankedRoute neighbours = new RankedRoute();
-		final PuzzleConfiguration up = this.generateMoveUp();
-		final PuzzleConfiguration right = this.generateMoveRight();
-		final PuzzleConfiguration down = this.generateMoveDown();
-		final PuzzleConfiguration left = this.generateMoveLeft();
-		if (up != null)
-		{
-			neighbours.add(up);
-		}
-		if (right != null)
+		for (int i = 0;i < count;i++)
 		{
-			neighbours.add(right);
-		}
-		if (down != null)
-		{
-			neighbours.add(down);
-		}
-		if (left != null)
-		{
-			neighbours.add(left);
+			neighbours.add(new PuzzleConfiguration(states[i]));
 		}
 		return neighbours;
 	}
 
+	/**
+	 * Generates the packed states of the next possible configurations without allocating
+	 *
+	 * @param buffer Receives the states in the order of the moves UP, RIGHT, DOWN, LEFT; it needs room for
+	 *               PackedState.MOVES
+	 *
+	 * @return The number of states written
+	 */
+	public int generateNextStates(final long[] buffer)
+	{
+		return PackedState.successors(this.state, buffer, 0);
+	}
+
 	/**
 	 * Generates a new configuration where the '_' character in the current configuration has swapped with the
 	 * character above it.
@@ -181,34 +190,7 @@ public class PuzzleConfiguration
 	@SuppressWarnings("MethodReturnOfConcreteClass")
 	public PuzzleConfiguration generateMoveUp()
 	{
-		//Check if '_' is on top row
-		//true -> return null
-		//false -> swap '_' and char above it
-		for (int i = 0;i < 3;i++)
-		{
-			if (this.configuration[0][i] == '_')
-			{
-				return null;
-			}
-		}
-		//Possible to move up
-		for (int i = 1;i < 4;i++)
-		{
-			for (int t = 0;t < 3;t++)
-			{
-				if (this.configuration[i][t] == '_')
-				{
-					final char[][] newConfig = PuzzleConfiguration.copyConfiguration(this.configuration);
-					final char temp = newConfig[i][t];
-					newConfig[i][t] = newConfig[i - 1][t];
-					newConfig[i - 1][t] = temp;
-					return new PuzzleConfiguration(PuzzleConfiguration.toString(newConfig));
-				}
-			}
-		}
-		//Move up
-		//In theory, not possible to get this far...
-		throw new InvalidStateException("Invalid configuration: Missing '_");
+		return this.generateMove(PackedState.UP);
 	}
 
 	/**
@@ -221,35 +203,7 @@ public class PuzzleConfiguration
 	@SuppressWarnings("MethodReturnOfConcreteClass")
 	public PuzzleConfiguration generateMoveRight()
 	{
-		//Check if '_' is on right column
-		//true -> return null
-		//false -> swap '_' and char to left of it
-		for (int i = 0;i < 4;i++)
-		{
-			if (this.configuration[i][2] == '_')
-			{
-				return null;
-			}
-		}
-		//Possible to move right
-		for (int i = 0;i < 4;i++)
-		{
-			for (int t = 0;t < 2;t++)
-			{
-				if (this.configuration[i][t] == '_')
-				{
-					@SuppressWarnings("CallToSimpleGetterFromWithinClass")
-					final char[][] newConfig = PuzzleConfiguration.copyConfiguration(this.configuration);
-					final char temp = newConfig[i][t];
-					newConfig[i][t] = newConfig[i][t + 1];
-					newConfig[i][t + 1] = temp;
-					return new PuzzleConfiguration(PuzzleConfiguration.toString(newConfig));
-				}
-			}
-		}
-		//Move right
-		//In theory, not possible to get this far...
-		throw new InvalidStateException("Invalid configuration: Missing '_");
+		return this.generateMove(PackedState.RIGHT);
 	}
 
 	/**
@@ -262,34 +216,7 @@ public class PuzzleConfiguration
 	@SuppressWarnings("MethodReturnOfConcreteClass")
 	public PuzzleConfiguration generateMoveDown()
 	{
-		//Check if '_' is on bottom row
-		//true -> return null
-		//false -> swap '_' and char below it
-		for (int i = 0;i < 3;i++)
-		{
-			if (this.configuration[3][i] == '_')
-			{
-				return null;
-			}
-		}
-		//Possible to move down
-		for (int i = 0;i < 3;i++)
-		{
-			for (int t = 0;t < 3;t++)
-			{
-				if (this.configuration[i][t] == '_')
-				{
-					final char[][] newConfig = PuzzleConfiguration.copyConfiguration(this.configuration);
-					final char temp = newConfig[i][t];
-					newConfig[i][t] = newConfig[i + 1][t];
-					newConfig[i + 1][t] = temp;
-					return new PuzzleConfiguration(PuzzleConfiguration.toString(newConfig));
-				}
-			}
-		}
-		//Move down
-		//In theory, not possible to get this far...
-		throw new InvalidStateException("Invalid configuration: Missing '_");
+		return this.generateMove(PackedState.DOWN);
 	}
 
 	/**
@@ -302,51 +229,21 @@ public class PuzzleConfiguration
 	@SuppressWarnings("MethodReturnOfConcreteClass")
 	public PuzzleConfiguration generateMoveLeft()
 	{
-		//Check if '_' is on left column
-		//true -> return null
-		//false -> swap '_' and char to the right of it
-		for (int i = 0;i < 4;i++)
-		{
-			if (this.configuration[i][0] == '_')
-			{
-				return null;
-			}
-		}
-		//Possible to move left
-		for (int i = 0;i < 4;i++)
-		{
-			for (int t = 1;t < 3;t++)
-			{
-				if (this.configuration[i][t] == '_')
-				{
-					final char[][] newConfig = PuzzleConfiguration.copyConfiguration(this.configuration);
-					final char temp = newConfig[i][t];
-					newConfig[i][t] = newConfig[i][t - 1];
-					newConfig[i][t - 1] = temp;
-					return new PuzzleConfiguration(PuzzleConfiguration.toString(newConfig));
-				}
-			}
-		}
-		//Move left
-		//In theory, not possible to get this far...
-		throw new InvalidStateException("Invalid configuration: Missing '_");
+		return this.generateMove(PackedState.LEFT);
 	}
 
 	/**
-	 * Creates a deep copy of a configuration
+	 * Generates a new configuration where the '_' has been moved in the given direction
 	 *
-	 * @param configuration The configuration to be deep copied
+	 * @param move The move (PackedState.UP, RIGHT, DOWN or LEFT)
 	 *
-	 * @return The deep copy of the given configuration
+	 * @return Either the new configuration or null if '_' cannot move
 	 */
-	private static char[][] copyConfiguration(final char[][] configuration)
+	@SuppressWarnings("MethodReturnOfConcreteClass")
+	private PuzzleConfiguration generateMove(final int move)
 	{
-		final char[][] copy = new char[4][3];
-		for (int i = 0;i < 4;i++)
-		{
-			System.arraycopy(configuration[i], 0, copy[i], 0, 3);
-		}
-		return copy;
+		final long next = PackedState.move(this.state, move);
+		return (next == PackedState.NO_STATE) ? null : new PuzzleConfiguration(next);
 	}
 
 	/**
@@ -357,23 +254,23 @@ public class PuzzleConfiguration
 	 *
 	 * @return boolean of equality test
 	 */
-	@SuppressWarnings({"MethodMayBeStatic", "EqualsWhichDoesntCheckParameterClass"})
 	@Override
 	public boolean equals(final Object puzzleConfiguration)
 	{
-		@SuppressWarnings("CallToSimpleGetterFromWithinClass")
-		final char[][] otherConfig = ((PuzzleConfiguration) puzzleConfiguration).getConfiguration();
-		for (int i = 0;i < 4;i++)
-		{
-			for (int t = 0;t < 3;t++)
-			{
-				if (this.configuration[i][t] != otherConfig[i][t])
-				{
-					return false;
-				}
-			}
-		}
-		return true;
+		return (puzzleConfiguration instanceof PuzzleConfiguration) &&
+		       (this.state == ((PuzzleConfiguration) puzzleConfiguration).state);
+	}
+
+	/**
+	 * Hash of the packed state, consistent with equals
+	 * Override of Object.hashCode
+	 *
+	 * @return hash of the current configuration
+	 */
+	@Override
+	public int hashCode()
+	{
+		return LongHashSet.hash(this.state);
 	}
 
 	/**
@@ -385,12 +282,12 @@ public class PuzzleConfiguration
 	 */
 	public char[] getRow(final int i)
 	{
-		return this.configuration[i];
+		return PackedState.row(this.state, i);
 	}
 
 	/**
-	 * Gets the shortest possible distance between the '_' of this configuration being in the position of the '_' in
-	 * target configuration
+	 * Gets the shortest possible distance (the Manhattan distance) between the '_' of this configuration being in the
+	 * position of the '_' in target configuration
 	 * This is very useful for finding the absolute minimum number of moves that any given configuration will require
 	 * to be converted into a target configuration
 	 *
@@ -400,27 +297,25 @@ public class PuzzleConfiguration
 	 */
 	public int getMinDistanceTo(final PuzzleConfiguration target)
 	{
-		int myX = 0;
-		int myY = 0;
-		int targetX = 0;
-		int targetY = 0;
-		for (int i = 0;i < 4;i++)
-		{
-			for (int t = 0;t < 3;t++)
-			{
-				if (this.configuration[i][t] == '_')
-				{
-					myX = i;
-					myY = t;
-				}
-				//noinspection CallToSimpleGetterFromWithinClass
-				if (target.getConfiguration()[i][t] == '_')
-				{
-					targetX = i;
-					targetY = t;
-				}
-			}
-		}
-		return Math.abs((myX + myY) - (targetX + targetY));
+		return PuzzleConfiguration.getMinDistance(this.state, target.state);
+	}
+
+	/**
+	 * Packed state equivalent of getMinDistanceTo which does not need a PuzzleConfiguration for either state
+	 *
+	 * @param state  The packed state of the '_' to be moved
+	 * @param target The packed state with the sought after '_'
+	 *
+	 * @return The number of moves required to take the '_' of state to the '_' of target
+	 */
+	public static int getMinDistance(final long state, final long target)
+	{
+		final int mine = PackedState.blankOf(state);
+		final int theirs = PackedState.blankOf(target);
+		final int myX = mine / PackedState.COLUMNS;
+		final int myY = mine % PackedState.COLUMNS;
+		final int targetX = theirs / PackedState.COLUMNS;
+		final int targetY = theirs % PackedState.COLUMNS;
+		return Math.abs(myX - targetX) + Math.abs(myY - targetY);
 	}
 }
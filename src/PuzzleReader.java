@@ -0,0 +1,101 @@
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * PuzzleReader parses puzzles from a list one line at a time
+ * Only the line being parsed is held in memory, so lists of any length can be read
+ * Each line holds a puzzle in "start2destination" format, optionally followed by ".txt"; blank lines are skipped
+ * Puzzle quits the application on an invalid configuration, so a reader which must carry on past a malformed line
+ * reads lines with nextLine and checks them with isValid before building a Puzzle
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public class PuzzleReader implements Closeable
+{
+	/**
+	 * Length of a puzzle in "start2destination" format
+	 */
+	private static final int PUZZLE_LENGTH = (PackedState.CELLS * 2) + 1;
+
+	/**
+	 * The list being read
+	 */
+	private final BufferedReader reader;
+
+	/**
+	 * Constructor for PuzzleReader
+	 *
+	 * @param reader The list to read, which is closed with the PuzzleReader
+	 */
+	public PuzzleReader(final Reader reader)
+	{
+		this.reader = (reader instanceof BufferedReader) ? (BufferedReader) reader : new BufferedReader(reader);
+	}
+
+	/**
+	 * Reads the next puzzle
+	 *
+	 * @return The next puzzle or null at the end of the list
+	 *
+	 * @throws IOException if the list cannot be read
+	 */
+	public Puzzle next() throws IOException
+	{
+		final String line = this.nextLine();
+		return (line == null) ? null : new Puzzle(line);
+	}
+
+	/**
+	 * Reads the next puzzle without parsing it
+	 *
+	 * @return The next line which is not blank, trimmed and without ".txt", or null at the end of the list
+	 *
+	 * @throws IOException if the list cannot be read
+	 */
+	public String nextLine() throws IOException
+	{
+		String line = this.reader.readLine();
+		while (line != null)
+		{
+			line = line.trim();
+			if (!line.isEmpty())
+			{
+				return line.replace(".txt", "");
+			}
+			line = this.reader.readLine();
+		}
+		return null;
+	}
+
+	/**
+	 * Tests whether a line holds a puzzle that can be parsed
+	 *
+	 * @param configuration The puzzle in "start2destination" format
+	 *
+	 * @return true if both configurations have a single '_' and only letters otherwise
+	 */
+	public static boolean isValid(final String configuration)
+	{
+		if ((configuration.length() != PUZZLE_LENGTH) || (configuration.charAt(PackedState.CELLS) != '2'))
+		{
+			return false;
+		}
+		try
+		{
+			PackedState.pack(configuration.substring(0, PackedState.CELLS));
+			PackedState.pack(configuration.substring(PackedState.CELLS + 1));
+			return true;
+		}
+		catch (final IllegalArgumentException ignored)
+		{
+			return false;
+		}
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		this.reader.close();
+	}
+}
@@ -1,4 +1,15 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Calculates and writes solutions to a list of puzzles
@@ -10,10 +21,18 @@ import java.util.List;
 @SuppressWarnings("PublicMethodNotExposedInInterface")
 public class PuzzleSolver
 {
+	/**
+	 * Number of puzzles that may wait in the queue for each worker of a parallel batch
+	 */
+	private static final int QUEUE_PER_WORKER = 4;
 	/**
 	 * List of puzzles to solveWithIterativeDeepening
 	 */
-	private final List<Puzzle> puzzles;
+	private final List<Puzzle>        puzzles;
+	/**
+	 * SearchStats of every puzzle solved
+	 */
+	private final SearchStatsRegistry statsRegistry = new SearchStatsRegistry();
 
 	/**
 	 * Instantiates PuzzleSolver
@@ -29,7 +48,7 @@ public class PuzzleSolver
 	 * Method which uses Iterative Deepening to optimally solveWithIterativeDeepening all puzzles in PuzzleSolver
 	 * .puzzles
 	 * Solution history is stored in each puzzle
-	 * Note that method will never cease if the puzzles are not solvable!
+	 * Puzzles which are not solvable are rejected with an UnsolvablePuzzleException before they are searched
 	 */
 	@SuppressWarnings("FeatureEnvy")
 	public void solveAllIterativeDeepening()
@@ -38,6 +57,7 @@ public class PuzzleSolver
 		{
 			System.out.println("Solving " + puzzle.getFilename() + "...");
 			puzzle.solveWithIterativeDeepening();
+			this.statsRegistry.record(puzzle);
 			System.out.println("Solved puzzle " + puzzle.getFilename() + '!');
 		}
 	}
@@ -45,7 +65,7 @@ public class PuzzleSolver
 	/**
 	 * Method which uses A* Searching to optimally solveWithIterativeDeepening all puzzles in PuzzleSolver.puzzles
 	 * Solution history is stored in each puzzle
-	 * Note that method will never cease if the puzzles are not solvable!
+	 * Puzzles which are not solvable are rejected with an UnsolvablePuzzleException before they are searched
 	 */
 	@SuppressWarnings({"FeatureEnvy", "UnusedDeclaration"})
 	public void solveAllUniformCost()
@@ -54,6 +74,7 @@ public class PuzzleSolver
 		{
 			System.out.println("Solving " + puzzle.getFilename() + "...");
 			puzzle.solveWithUniformCostSearch();
+			this.statsRegistry.record(puzzle);
 			System.out.println("Solved puzzle " + puzzle.getFilename() + '!');
 		}
 	}
@@ -61,7 +82,7 @@ public class PuzzleSolver
 	/**
 	 * Method which uses A* Searching to optimally solveWithIterativeDeepening all puzzles in PuzzleSolver.puzzles
 	 * Solution history is stored in each puzzle
-	 * Note that method will never cease if the puzzles are not solvable!
+	 * Puzzles which are not solvable are rejected with an UnsolvablePuzzleException before they are searched
 	 */
 	@SuppressWarnings({"FeatureEnvy", "UnusedDeclaration"})
 	public void solveAllAStar()
@@ -70,10 +91,255 @@ public class PuzzleSolver
 		{
 			System.out.println("Solving " + puzzle.getFilename() + "...");
 			puzzle.solveWithAStarSearch();
+			this.statsRegistry.record(puzzle);
+			System.out.println("Solved puzzle " + puzzle.getFilename() + '!');
+		}
+	}
+
+	/**
+	 * Method which uses A* Searching with a chosen heuristic to optimally solve all puzzles in PuzzleSolver.puzzles
+	 * Solution history is stored in each puzzle
+	 * Puzzles which are not solvable are rejected with an UnsolvablePuzzleException before they are searched
+	 *
+	 * @param heuristicType The heuristic to estimate the remaining jumps with
+	 */
+	@SuppressWarnings("FeatureEnvy")
+	public void solveAllAStar(final HeuristicType heuristicType)
+	{
+		for (final Puzzle puzzle : this.puzzles)
+		{
+			System.out.println("Solving " + puzzle.getFilename() + "...");
+			puzzle.solveWithAStarSearch(heuristicType);
+			this.statsRegistry.record(puzzle);
+			System.out.println("Solved puzzle " + puzzle.getFilename() + '!');
+		}
+	}
+
+	/**
+	 * Method which solves all puzzles in PuzzleSolver.puzzles by descending exact distance tables
+	 * A table is built (or loaded from its cache file) once per destination and shared by every puzzle with that
+	 * destination
+	 * Solution history is stored in each puzzle
+	 */
+	@SuppressWarnings("FeatureEnvy")
+	public void solveAllByTable()
+	{
+		for (final Puzzle puzzle : this.puzzles)
+		{
+			System.out.println("Solving " + puzzle.getFilename() + "...");
+			puzzle.solveWithDistanceTable();
+			this.statsRegistry.record(puzzle);
+			System.out.println("Solved puzzle " + puzzle.getFilename() + '!');
+		}
+	}
+
+	/**
+	 * Method which solves all puzzles in PuzzleSolver.puzzles with breadth first sweeps shared between puzzles
+	 * Puzzles are grouped by their start, or by their destination when more puzzles share it, and each group is solved
+	 * by one sweep from the common end which stops once every puzzle of the group has been reached
+	 * Groups are solved one at a time so only a single sweep is held in memory
+	 * Solution history is stored in each puzzle
+	 */
+	@SuppressWarnings("FeatureEnvy")
+	public void solveAllMultiTarget()
+	{
+		final Map<Long, Integer> starts = new HashMap<Long, Integer>();
+		final Map<Long, Integer> destinations = new HashMap<Long, Integer>();
+		for (final Puzzle puzzle : this.puzzles)
+		{
+			PuzzleSolver.count(starts, puzzle.getStartConfig().getState());
+			PuzzleSolver.count(destinations, puzzle.getDestinationConfig().getState());
+		}
+		//Source of each sweep with the puzzles it solves, in the order the sources are first needed
+		final Map<Long, List<Puzzle>> groups = new LinkedHashMap<Long, List<Puzzle>>();
+		for (final Puzzle puzzle : this.puzzles)
+		{
+			final long start = puzzle.getStartConfig().getState();
+			final long destination = puzzle.getDestinationConfig().getState();
+			final long source = (destinations.get(destination) > starts.get(start)) ? destination : start;
+			List<Puzzle> group = groups.get(source);
+			if (group == null)
+			{
+				group = new ArrayList<Puzzle>();
+				groups.put(source, group);
+			}
+			group.add(puzzle);
+		}
+		for (final Map.Entry<Long, List<Puzzle>> group : groups.entrySet())
+		{
+			final MultiTargetSearch search = new MultiTargetSearch(group.getKey());
+			for (final Puzzle puzzle : group.getValue())
+			{
+				System.out.println("Solving " + puzzle.getFilename() + "...");
+				puzzle.solveWithMultiTargetSearch(search);
+				this.statsRegistry.record(puzzle);
+				System.out.println("Solved puzzle " + puzzle.getFilename() + '!');
+			}
+		}
+	}
+
+	/**
+	 * Adds one to the count of a state
+	 *
+	 * @param counts Number of puzzles of each packed state
+	 * @param state  The packed state
+	 */
+	private static void count(final Map<Long, Integer> counts, final long state)
+	{
+		final Integer count = counts.get(state);
+		counts.put(state, (count == null) ? 1 : (count + 1));
+	}
+
+	/**
+	 * Method which solves all puzzles in PuzzleSolver.puzzles, searching only for routes which are not in a cache
+	 * Every route searched for is added to the cache
+	 * Solution history is stored in each puzzle
+	 *
+	 * @param method The method to solve each puzzle with when its route is not cached
+	 * @param cache  Routes solved before
+	 */
+	@SuppressWarnings("FeatureEnvy")
+	public void solveAllCached(final SearchMethod method, final SolutionCache cache)
+	{
+		for (final Puzzle puzzle : this.puzzles)
+		{
+			System.out.println("Solving " + puzzle.getFilename() + "...");
+			cache.solve(puzzle, method);
+			this.statsRegistry.record(puzzle);
 			System.out.println("Solved puzzle " + puzzle.getFilename() + '!');
 		}
 	}
 
+	/**
+	 * Method which solves all puzzles in PuzzleSolver.puzzles concurrently
+	 * Puzzles are handed to a fixed number of workers through a bounded queue; when the queue is full the calling
+	 * thread solves the next puzzle itself, so a huge batch never queues more than a few puzzles per worker
+	 * A puzzle which fails does not stop the others
+	 * Solution history is stored in each puzzle
+	 *
+	 * @param method  The method to solve each puzzle with
+	 * @param workers The number of worker threads
+	 *
+	 * @return The result of every puzzle, in the same order as PuzzleSolver.puzzles
+	 */
+	public List<SolveResult> solveAllParallel(final SearchMethod method, final int workers)
+	{
+		return this.solveAllParallel(method, null, null, workers);
+	}
+
+	/**
+	 * Method which solves all puzzles in PuzzleSolver.puzzles concurrently with A* Search, sharing the routes found
+	 * between the workers through a SharedDistanceTable
+	 * Puzzles with a common destination finish sooner once one of them has been solved
+	 * A puzzle which fails does not stop the others
+	 * Solution history is stored in each puzzle
+	 *
+	 * @param heuristicType The heuristic to estimate the remaining jumps with
+	 * @param table         Shortest routes shared between the workers
+	 * @param workers       The number of worker threads
+	 *
+	 * @return The result of every puzzle, in the same order as PuzzleSolver.puzzles
+	 */
+	public List<SolveResult> solveAllParallel(final HeuristicType heuristicType, final SharedDistanceTable table,
+	                                          final int workers)
+	{
+		return this.solveAllParallel(null, heuristicType, table, workers);
+	}
+
+	/**
+	 * Solves all puzzles in PuzzleSolver.puzzles concurrently
+	 *
+	 * @param method        The method to solve each puzzle with, if there is no table
+	 * @param heuristicType The heuristic of A* Search, if there is a table
+	 * @param table         Shortest routes shared between the workers, or null to solve with method
+	 * @param workers       The number of worker threads
+	 *
+	 * @return The result of every puzzle, in the same order as PuzzleSolver.puzzles
+	 */
+	@SuppressWarnings("FeatureEnvy")
+	private List<SolveResult> solveAllParallel(final SearchMethod method, final HeuristicType heuristicType,
+	                                           final SharedDistanceTable table, final int workers)
+	{
+		if (workers < 1)
+		{
+			throw new IllegalArgumentException("At least one worker is required");
+		}
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+		                                                           new ArrayBlockingQueue<Runnable>(
+				                                                           workers * QUEUE_PER_WORKER),
+		                                                           new CallerRunsPolicy());
+		final List<Future<Void>> futures = new ArrayList<Future<Void>>(this.puzzles.size());
+		final List<SolveResult> results = new ArrayList<SolveResult>(this.puzzles.size());
+		try
+		{
+			for (final Puzzle puzzle : this.puzzles)
+			{
+				futures.add(executor.submit(new Callable<Void>()
+				{
+					@Override
+					public Void call()
+					{
+						if (table == null)
+						{
+							method.solve(puzzle);
+						}
+						else
+						{
+							puzzle.solveWithAStarSearch(heuristicType, table);
+						}
+						return null;
+					}
+				}));
+			}
+			for (int i = 0;i < futures.size();i++)
+			{
+				results.add(new SolveResult(this.puzzles.get(i), PuzzleSolver.failureOf(futures.get(i))));
+				this.statsRegistry.record(this.puzzles.get(i));
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+		return results;
+	}
+
+	/**
+	 * Waits for a puzzle of a parallel batch to finish
+	 *
+	 * @param future The future of the puzzle
+	 *
+	 * @return Why the puzzle was not solved or null if it was
+	 */
+	private static Throwable failureOf(final Future<Void> future)
+	{
+		try
+		{
+			future.get();
+			return null;
+		}
+		catch (final ExecutionException exception)
+		{
+			return exception.getCause();
+		}
+		catch (final InterruptedException exception)
+		{
+			Thread.currentThread().interrupt();
+			future.cancel(true);
+			return exception;
+		}
+	}
+
+	/**
+	 * Getter for the SearchStats of every puzzle solved so far, in the order of PuzzleSolver.puzzles within each batch
+	 *
+	 * @return The registry
+	 */
+	public SearchStatsRegistry getStatsRegistry()
+	{
+		return this.statsRegistry;
+	}
+
 	/**
 	 * Getter for puzzles list
 	 * This method does not guarantee that the list of puzzles returned will be solved
@@ -0,0 +1,219 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * RouteIndex is an open-addressing hash map kept on disk, from the packed start and destination states of a route to
+ * the position of its record in a log
+ * Each slot holds the start, the destination and the position as 3 longs in a memory mapped file, so the index takes
+ * no heap however many routes the log holds; the operating system pages in only the slots in use. A position of 0
+ * marks an empty slot, so positions must be positive. The file is a temporary one in the directory of the log, which
+ * is doubled and rebuilt when half full and deleted when the index is closed.
+ * It is not safe to use from several threads at once.
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public class RouteIndex implements Closeable
+{
+	/**
+	 * Returned by get for a route which is not indexed
+	 */
+	public static final  long NO_POSITION   = -1L;
+	/**
+	 * Bytes of a slot: start, destination and position
+	 */
+	private static final int  SLOT_BYTES    = 3 * 8;
+	/**
+	 * Number of slots of a new index
+	 */
+	private static final int  INITIAL_SLOTS = 1 << 12;
+	/**
+	 * Largest number of slots, as a single mapping cannot exceed Integer.MAX_VALUE bytes
+	 */
+	private static final int  MAX_SLOTS     = 1 << 26;
+
+	/**
+	 * Directory the index file is kept in
+	 */
+	private final File             directory;
+	/**
+	 * The index file
+	 */
+	private       File             file;
+	/**
+	 * The open index file
+	 */
+	private       RandomAccessFile data;
+	/**
+	 * The slots, mapped from the index file
+	 */
+	private       MappedByteBuffer slots;
+	/**
+	 * Number of slots - 1
+	 */
+	private       int              mask;
+	/**
+	 * Number of routes indexed
+	 */
+	private       int              size;
+
+	/**
+	 * Constructor for RouteIndex
+	 *
+	 * @param directory Directory to keep the index file in
+	 *
+	 * @throws IOException if the index file cannot be created
+	 */
+	public RouteIndex(final File directory) throws IOException
+	{
+		this.directory = directory;
+		this.allocate(INITIAL_SLOTS);
+	}
+
+	/**
+	 * Creates an empty index file and maps it
+	 *
+	 * @param count The number of slots, a power of 2
+	 *
+	 * @throws IOException if the index file cannot be created
+	 */
+	private void allocate(final int count) throws IOException
+	{
+		this.file = File.createTempFile("routes", ".idx", this.directory);
+		this.data = new RandomAccessFile(this.file, "rw");
+		//A file extended by setLength reads as zeros, so every slot starts empty
+		this.data.setLength((long) count * SLOT_BYTES);
+		this.slots = this.data.getChannel().map(FileChannel.MapMode.READ_WRITE, 0L, (long) count * SLOT_BYTES);
+		this.mask = count - 1;
+		this.size = 0;
+	}
+
+	/**
+	 * Finds the slot of a route
+	 *
+	 * @param start       The packed start state
+	 * @param destination The packed destination state
+	 *
+	 * @return The byte offset of the slot holding the route or of the empty slot where it would go
+	 */
+	private int slotOf(final long start, final long destination)
+	{
+		int slot = LongHashSet.hash((start * 0x9E3779B97F4A7C15L) ^ destination) & this.mask;
+		while (true)
+		{
+			final int offset = slot * SLOT_BYTES;
+			if ((this.slots.getLong(offset + 16) == 0L) ||
+			    ((this.slots.getLong(offset) == start) && (this.slots.getLong(offset + 8) == destination)))
+			{
+				return offset;
+			}
+			slot = (slot + 1) & this.mask;
+		}
+	}
+
+	/**
+	 * Gets the position of the record of a route
+	 *
+	 * @param start       The packed start state
+	 * @param destination The packed destination state
+	 *
+	 * @return The position or NO_POSITION if the route is not indexed
+	 */
+	public long get(final long start, final long destination)
+	{
+		final long position = this.slots.getLong(this.slotOf(start, destination) + 16);
+		return (position == 0L) ? NO_POSITION : position;
+	}
+
+	/**
+	 * Indexes the record of a route, unless the route is already indexed
+	 *
+	 * @param start       The packed start state
+	 * @param destination The packed destination state
+	 * @param position    The position of the record, which must be positive
+	 *
+	 * @return true if the route was not indexed before
+	 *
+	 * @throws IOException if the index file cannot be grown
+	 */
+	public boolean put(final long start, final long destination, final long position) throws IOException
+	{
+		if (position <= 0L)
+		{
+			throw new IllegalArgumentException("Position must be positive: " + position);
+		}
+		final int offset = this.slotOf(start, destination);
+		if (this.slots.getLong(offset + 16) != 0L)
+		{
+			return false;
+		}
+		this.slots.putLong(offset, start);
+		this.slots.putLong(offset + 8, destination);
+		this.slots.putLong(offset + 16, position);
+		this.size++;
+		if ((this.size * 2) > (this.mask + 1))
+		{
+			this.grow();
+		}
+		return true;
+	}
+
+	/**
+	 * Doubles the slots into a new index file and re-inserts every route
+	 *
+	 * @throws IOException if the new index file cannot be created
+	 */
+	private void grow() throws IOException
+	{
+		final int count = this.mask + 1;
+		if (count >= MAX_SLOTS)
+		{
+			throw new IOException("Route index is full");
+		}
+		final File oldFile = this.file;
+		final RandomAccessFile oldData = this.data;
+		final MappedByteBuffer oldSlots = this.slots;
+		this.allocate(count * 2);
+		for (int offset = 0;offset < (count * SLOT_BYTES);offset += SLOT_BYTES)
+		{
+			final long position = oldSlots.getLong(offset + 16);
+			if (position != 0L)
+			{
+				final int slot = this.slotOf(oldSlots.getLong(offset), oldSlots.getLong(offset + 8));
+				this.slots.putLong(slot, oldSlots.getLong(offset));
+				this.slots.putLong(slot + 8, oldSlots.getLong(offset + 8));
+				this.slots.putLong(slot + 16, position);
+				this.size++;
+			}
+		}
+		oldData.close();
+		//The old mapping stays valid until it is collected, but nothing reads it any more
+		//noinspection ResultOfMethodCallIgnored
+		oldFile.delete();
+	}
+
+	/**
+	 * Getter for the number of routes indexed
+	 *
+	 * @return The number of routes
+	 */
+	public int size()
+	{
+		return this.size;
+	}
+
+	/**
+	 * Closes and deletes the index file
+	 *
+	 * @throws IOException if the index file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		this.data.close();
+		//noinspection ResultOfMethodCallIgnored
+		this.file.delete();
+	}
+}
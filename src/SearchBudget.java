@@ -0,0 +1,106 @@
+/**
+ * SearchBudget bounds the number of nodes A* Search may hold in memory at once
+ * A* keeps every node it has generated, in the open list or the closed set, so a hard puzzle can fill the heap before
+ * it is solved. A search which reaches its budget clears its open list and returns, leaving its closed set to be
+ * collected, before it is finished with Iterative Deepening A*, which needs memory only for the route it is on; the
+ * smallest rank left in the open list is passed on as the first threshold so the iterations already covered by A*
+ * are not repeated. Routes stay optimal either way.
+ * A budget may be given in nodes or in bytes, which are converted to nodes at BYTES_PER_NODE.
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public final class SearchBudget
+{
+	/**
+	 * Estimated heap used by a single node: a SearchNode (32 bytes), its reference in the open list and its slot in the
+	 * closed set at the LongHashSet load factor
+	 */
+	public static final long         BYTES_PER_NODE = 56L;
+	/**
+	 * Never falls back
+	 */
+	public static final SearchBudget UNLIMITED      = new SearchBudget(Long.MAX_VALUE);
+	/**
+	 * Budget of SearchMethod.BOUNDED_A_STAR: 64 MB for each search
+	 */
+	public static final SearchBudget DEFAULT        = SearchBudget.bytes(64L << 20);
+
+	/**
+	 * Largest number of nodes held at once
+	 */
+	private final long maxNodes;
+
+	/**
+	 * Constructor for SearchBudget
+	 *
+	 * @param maxNodes Largest number of nodes held at once
+	 */
+	private SearchBudget(final long maxNodes)
+	{
+		this.maxNodes = maxNodes;
+	}
+
+	/**
+	 * Builds a budget of nodes
+	 *
+	 * @param maxNodes Largest number of nodes held at once
+	 *
+	 * @return The budget
+	 *
+	 * @throws IllegalArgumentException if maxNodes is not positive
+	 */
+	public static SearchBudget nodes(final long maxNodes)
+	{
+		if (maxNodes < 1L)
+		{
+			throw new IllegalArgumentException("Budget must allow at least one node");
+		}
+		return new SearchBudget(maxNodes);
+	}
+
+	/**
+	 * Builds a budget of heap
+	 *
+	 * @param maxBytes Largest number of bytes of nodes held at once
+	 *
+	 * @return The budget
+	 *
+	 * @throws IllegalArgumentException if maxBytes is smaller than a single node
+	 */
+	public static SearchBudget bytes(final long maxBytes)
+	{
+		return SearchBudget.nodes(maxBytes / BYTES_PER_NODE);
+	}
+
+	/**
+	 * Tests whether a search holding some nodes must fall back
+	 *
+	 * @param nodes The number of nodes held
+	 *
+	 * @return true once nodes is over the budget
+	 */
+	public boolean isExceeded(final long nodes)
+	{
+		return nodes > this.maxNodes;
+	}
+
+	/**
+	 * Getter for the largest number of nodes held at once
+	 *
+	 * @return The number of nodes
+	 */
+	public long getMaxNodes()
+	{
+		return this.maxNodes;
+	}
+
+	/**
+	 * String representation of SearchBudget
+	 *
+	 * @return The number of nodes
+	 */
+	@Override
+	public String toString()
+	{
+		return (this == UNLIMITED) ? "unlimited" : (this.maxNodes + " nodes");
+	}
+}
@@ -0,0 +1,20 @@
+/**
+ * Thrown when a search gives up because its Cancellation was set
+ */
+public class SearchCancelledException extends RuntimeException
+{
+	/**
+	 * Serialisation version
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructor for SearchCancelledException
+	 *
+	 * @param stats Counts of the search which gave up
+	 */
+	public SearchCancelledException(final SearchStats stats)
+	{
+		super(stats.getMethod() + " cancelled after " + stats.getExpandedNodes() + " expanded nodes");
+	}
+}
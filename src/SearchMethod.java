@@ -0,0 +1,129 @@
+/**
+ * SearchMethod lists the ways in which a single Puzzle can be solved
+ * It lets batch solvers choose a method without knowing which Puzzle accessor it calls
+ */
+public enum SearchMethod
+{
+	/**
+	 * Puzzle.solveWithIterativeDeepening, which is Iterative Deepening A* Search
+	 */
+	ITERATIVE_DEEPENING
+			{
+				@Override
+				public void solve(final Puzzle puzzle)
+				{
+					puzzle.solveWithIterativeDeepening();
+				}
+			},
+	/**
+	 * Puzzle.solveWithUniformCostSearch
+	 */
+	UNIFORM_COST
+			{
+				@Override
+				public void solve(final Puzzle puzzle)
+				{
+					puzzle.solveWithUniformCostSearch();
+				}
+			},
+	/**
+	 * Puzzle.solveWithAStarSearch with its default heuristic
+	 */
+	A_STAR
+			{
+				@Override
+				public void solve(final Puzzle puzzle)
+				{
+					puzzle.solveWithAStarSearch();
+				}
+			},
+	/**
+	 * Puzzle.solveWithAStarSearch with pattern databases
+	 */
+	A_STAR_PATTERN_DATABASE
+			{
+				@Override
+				public void solve(final Puzzle puzzle)
+				{
+					puzzle.solveWithAStarSearch(HeuristicType.PATTERN_DATABASE);
+				}
+			},
+	/**
+	 * Puzzle.solveWithAStarSearch with pattern databases, falling back to Iterative Deepening A* once it holds
+	 * SearchBudget.DEFAULT nodes
+	 */
+	BOUNDED_A_STAR
+			{
+				@Override
+				public void solve(final Puzzle puzzle)
+				{
+					puzzle.solveWithAStarSearch(HeuristicType.PATTERN_DATABASE, OpenListType.DEFAULT,
+					                            SearchBudget.DEFAULT);
+				}
+			},
+	/**
+	 * Puzzle.solveWithBidirectionalSearch with breadth first search from both ends
+	 */
+	BIDIRECTIONAL_BREADTH_FIRST
+			{
+				@Override
+				public void solve(final Puzzle puzzle)
+				{
+					puzzle.solveWithBidirectionalSearch();
+				}
+			},
+	/**
+	 * Puzzle.solveWithBidirectionalSearch with A* Search from both ends
+	 */
+	BIDIRECTIONAL_A_STAR
+			{
+				@Override
+				public void solve(final Puzzle puzzle)
+				{
+					puzzle.solveWithBidirectionalSearch(HeuristicType.LINEAR_CONFLICT);
+				}
+			},
+	/**
+	 * Puzzle.solveWithParallelBreadthFirstSearch with the shared ParallelBreadthFirstSearch, which has a worker for
+	 * every processor
+	 */
+	PARALLEL_BREADTH_FIRST
+			{
+				@Override
+				public void solve(final Puzzle puzzle)
+				{
+					puzzle.solveWithParallelBreadthFirstSearch(ParallelBreadthFirstSearch.getShared());
+				}
+			},
+	/**
+	 * Puzzle.solveWithMultiTargetSearch with a sweep of its own; PuzzleSolver.solveAllMultiTarget shares sweeps
+	 */
+	MULTI_TARGET
+			{
+				@Override
+				public void solve(final Puzzle puzzle)
+				{
+					puzzle.solveWithMultiTargetSearch();
+				}
+			},
+	/**
+	 * Puzzle.solveWithDistanceTable
+	 */
+	DISTANCE_TABLE
+			{
+				@Override
+				public void solve(final Puzzle puzzle)
+				{
+					puzzle.solveWithDistanceTable();
+				}
+			};
+
+	/**
+	 * Solves a puzzle with this method, storing the route in the puzzle
+	 *
+	 * @param puzzle The puzzle to solve
+	 *
+	 * @throws UnsolvablePuzzleException if the method finds that the puzzle cannot be solved
+	 */
+	public abstract void solve(Puzzle puzzle);
+}
@@ -0,0 +1,126 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SearchNode is a single node of a best first search
+ * It holds a packed state, the number of jumps from the start (cost), the estimated total number of jumps (rank)
+ * and a reference to the node it was reached from
+ * Unlike RankedRoute, a node never copies the route it is on; the route is only rebuilt once the search is solved
+ * Low rank is "good"!
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public final class SearchNode implements Comparable<SearchNode>
+{
+	/**
+	 * Packed state of this node
+	 */
+	private final long       state;
+	/**
+	 * Number of jumps from the start to this node
+	 */
+	private final int        cost;
+	/**
+	 * Cost plus the estimated number of jumps still required
+	 */
+	private final int        rank;
+	/**
+	 * The node this node was reached from or null for the start
+	 */
+	private final SearchNode parent;
+
+	/**
+	 * Constructor for SearchNode
+	 *
+	 * @param state    Packed state of the node
+	 * @param cost     Number of jumps from the start
+	 * @param estimate Estimated number of jumps still required to reach the destination
+	 * @param parent   The node this node was reached from or null for the start
+	 */
+	public SearchNode(final long state, final int cost, final int estimate, final SearchNode parent)
+	{
+		this.state = state;
+		this.cost = cost;
+		this.rank = cost + estimate;
+		this.parent = parent;
+	}
+
+	/**
+	 * Getter for the packed state
+	 *
+	 * @return The packed state of this node
+	 */
+	public long getState()
+	{
+		return this.state;
+	}
+
+	/**
+	 * Getter for the cost
+	 *
+	 * @return The number of jumps from the start to this node
+	 */
+	public int getCost()
+	{
+		return this.cost;
+	}
+
+	/**
+	 * Getter for the rank
+	 *
+	 * @return The cost plus the estimated number of jumps still required
+	 */
+	public int getRank()
+	{
+		return this.rank;
+	}
+
+	/**
+	 * Getter for the parent
+	 *
+	 * @return The node this node was reached from or null for the start
+	 */
+	@SuppressWarnings("MethodReturnOfConcreteClass")
+	public SearchNode getParent()
+	{
+		return this.parent;
+	}
+
+	/**
+	 * Rebuilds the route from the start to this node by following the parents
+	 *
+	 * @return List containing configurations from start to this node
+	 */
+	public List<PuzzleConfiguration> toRoute()
+	{
+		final List<PuzzleConfiguration> route = new ArrayList<PuzzleConfiguration>(this.cost + 1);
+		for (SearchNode node = this;node != null;node = node.parent)
+		{
+			route.add(new PuzzleConfiguration(node.state));
+		}
+		Collections.reverse(route);
+		return route;
+	}
+
+	/**
+	 * Compares self with another SearchNode by rank
+	 * Equal ranks favour the node with the higher cost as it is closer to the destination
+	 *
+	 * @param node The SearchNode to compare with
+	 *
+	 * @return +1 When self rank is higher. -1 when self rank is lower. Else the reverse order of cost
+	 */
+	@Override
+	public int compareTo(final SearchNode node)
+	{
+		if (this.rank != node.rank)
+		{
+			return (this.rank > node.rank) ? 1 : -1;
+		}
+		if (this.cost != node.cost)
+		{
+			return (this.cost > node.cost) ? -1 : 1;
+		}
+		return 0;
+	}
+}
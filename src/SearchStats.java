@@ -0,0 +1,291 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * SearchStats records the work done by a single search
+ * Search engines count nodes into it as they go; start and stop bracket the search to measure its wall time and the
+ * bytes allocated by the searching thread. Allocation is measured through com.sun.management.ThreadMXBean and is
+ * reported as UNKNOWN on JVMs which do not provide it.
+ * A search given a Cancellation gives up once it is set: every CHECK_INTERVAL expansions the flag is read and a
+ * SearchCancelledException thrown, so every engine can be cancelled without checking the flag itself.
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public class SearchStats
+{
+	/**
+	 * Reported for a measurement which is not available
+	 */
+	public static final  long         UNKNOWN        = -1L;
+	/**
+	 * Thread bean used to measure allocation
+	 */
+	private static final ThreadMXBean THREADS        = ManagementFactory.getThreadMXBean();
+	/**
+	 * Number of expansions between reads of the Cancellation, a power of 2
+	 */
+	private static final long         CHECK_INTERVAL = 1024L;
+
+	/**
+	 * Name of the search method
+	 */
+	private final String       method;
+	/**
+	 * Flag asking the search to give up, or null if it cannot be cancelled
+	 */
+	private final Cancellation cancellation;
+	/**
+	 * Number of nodes whose moves were generated
+	 */
+	private       long         expandedNodes;
+	/**
+	 * Number of nodes generated
+	 */
+	private       long         generatedNodes;
+	/**
+	 * Number of times a state was met again and discarded
+	 */
+	private       long         duplicates;
+	/**
+	 * Largest number of nodes waiting to be expanded at once
+	 */
+	private       long         peakOpen;
+	/**
+	 * System.nanoTime when the search started, then the wall time once stopped
+	 */
+	private       long         wallNanos;
+	/**
+	 * Bytes allocated by the thread when the search started, then the bytes allocated once stopped
+	 */
+	private       long         allocatedBytes = UNKNOWN;
+
+	/**
+	 * Constructor for SearchStats
+	 *
+	 * @param method Name of the search method
+	 */
+	public SearchStats(final String method)
+	{
+		this(method, null);
+	}
+
+	/**
+	 * Constructor for SearchStats of a search which can be cancelled
+	 *
+	 * @param method       Name of the search method
+	 * @param cancellation Flag asking the search to give up, or null if it cannot be cancelled
+	 */
+	public SearchStats(final String method, final Cancellation cancellation)
+	{
+		this.method = method;
+		this.cancellation = cancellation;
+	}
+
+	/**
+	 * Gets the bytes allocated so far by the current thread
+	 *
+	 * @return The number of bytes or UNKNOWN
+	 */
+	private static long threadAllocatedBytes()
+	{
+		if (THREADS instanceof com.sun.management.ThreadMXBean)
+		{
+			final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+			if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled())
+			{
+				return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+		return UNKNOWN;
+	}
+
+	/**
+	 * Marks the start of the search
+	 * Must be called on the thread which performs the search
+	 */
+	public void start()
+	{
+		this.allocatedBytes = SearchStats.threadAllocatedBytes();
+		this.wallNanos = System.nanoTime();
+	}
+
+	/**
+	 * Marks the end of the search
+	 * Must be called on the thread which called start
+	 */
+	public void stop()
+	{
+		this.wallNanos = System.nanoTime() - this.wallNanos;
+		final long allocated = SearchStats.threadAllocatedBytes();
+		this.allocatedBytes = ((allocated == UNKNOWN) || (this.allocatedBytes == UNKNOWN)) ? UNKNOWN :
+		                      (allocated - this.allocatedBytes);
+	}
+
+	/**
+	 * Counts a node whose moves were generated
+	 *
+	 * @throws SearchCancelledException if the search has been cancelled
+	 */
+	public void expanded()
+	{
+		this.expandedNodes++;
+		if ((this.expandedNodes & (CHECK_INTERVAL - 1L)) == 0L)
+		{
+			this.checkCancelled();
+		}
+	}
+
+	/**
+	 * Gives up the search if it has been cancelled
+	 *
+	 * @throws SearchCancelledException if the search has been cancelled
+	 */
+	public void checkCancelled()
+	{
+		if ((this.cancellation != null) && this.cancellation.isCancelled())
+		{
+			throw new SearchCancelledException(this);
+		}
+	}
+
+	/**
+	 * Counts a node generated
+	 */
+	public void generated()
+	{
+		this.generatedNodes++;
+	}
+
+	/**
+	 * Counts a state which was met again and discarded
+	 */
+	public void duplicate()
+	{
+		this.duplicates++;
+	}
+
+	/**
+	 * Records the number of nodes waiting to be expanded
+	 *
+	 * @param size The current size of the open list
+	 */
+	public void open(final long size)
+	{
+		if (size > this.peakOpen)
+		{
+			this.peakOpen = size;
+		}
+	}
+
+	/**
+	 * Adds the counts of another search to this one
+	 * Peak open list sizes are combined by taking the larger
+	 *
+	 * @param other The other search, which must have been stopped
+	 */
+	public void add(final SearchStats other)
+	{
+		this.expandedNodes += other.expandedNodes;
+		this.generatedNodes += other.generatedNodes;
+		this.duplicates += other.duplicates;
+		this.peakOpen = Math.max(this.peakOpen, other.peakOpen);
+		this.wallNanos += other.wallNanos;
+		if (other.allocatedBytes != UNKNOWN)
+		{
+			this.allocatedBytes = (this.allocatedBytes == UNKNOWN) ? other.allocatedBytes :
+			                      (this.allocatedBytes + other.allocatedBytes);
+		}
+	}
+
+	/**
+	 * Getter for the name of the search method
+	 *
+	 * @return The method name
+	 */
+	public String getMethod()
+	{
+		return this.method;
+	}
+
+	/**
+	 * Getter for the flag asking the search to give up
+	 *
+	 * @return The Cancellation or null if the search cannot be cancelled
+	 */
+	public Cancellation getCancellation()
+	{
+		return this.cancellation;
+	}
+
+	/**
+	 * Getter for the number of nodes expanded
+	 *
+	 * @return The number of nodes whose moves were generated
+	 */
+	public long getExpandedNodes()
+	{
+		return this.expandedNodes;
+	}
+
+	/**
+	 * Getter for the number of nodes generated
+	 *
+	 * @return The number of nodes generated
+	 */
+	public long getGeneratedNodes()
+	{
+		return this.generatedNodes;
+	}
+
+	/**
+	 * Getter for the number of duplicates
+	 *
+	 * @return The number of times a state was met again and discarded
+	 */
+	public long getDuplicates()
+	{
+		return this.duplicates;
+	}
+
+	/**
+	 * Getter for the peak open list size
+	 *
+	 * @return The largest number of nodes waiting to be expanded at once
+	 */
+	public long getPeakOpen()
+	{
+		return this.peakOpen;
+	}
+
+	/**
+	 * Getter for the wall time, once stopped
+	 *
+	 * @return The wall time in nanoseconds
+	 */
+	public long getWallNanos()
+	{
+		return this.wallNanos;
+	}
+
+	/**
+	 * Getter for the bytes allocated, once stopped
+	 *
+	 * @return The number of bytes allocated by the searching thread or UNKNOWN
+	 */
+	public long getAllocatedBytes()
+	{
+		return this.allocatedBytes;
+	}
+
+	/**
+	 * String representation of SearchStats
+	 *
+	 * @return The method and its counts
+	 */
+	@Override
+	public String toString()
+	{
+		return this.method + ": " + this.expandedNodes + " expanded, " + this.generatedNodes + " generated, " +
+		       this.duplicates + " duplicates, " + this.peakOpen + " peak open, " + (this.wallNanos / 1000000L) +
+		       " ms, " + this.allocatedBytes + " bytes";
+	}
+}
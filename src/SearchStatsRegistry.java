@@ -0,0 +1,238 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SearchStatsRegistry collects the SearchStats of a batch of puzzles
+ * Puzzles may be recorded from several threads at once. The batch can be exported as JSON or CSV, one row per puzzle
+ * followed by the total.
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public class SearchStatsRegistry
+{
+	/**
+	 * Column names of the CSV export
+	 */
+	static final         String CSV_HEADER = "puzzle,method,solved,moves,expandedNodes,generatedNodes,duplicates," +
+	                                         "peakOpen,wallNanos,allocatedBytes";
+	/**
+	 * Name given to the total of the batch
+	 */
+	static final         String TOTAL      = "total";
+
+	/**
+	 * Filename of each puzzle recorded
+	 */
+	private final List<String>      puzzles = new ArrayList<String>();
+	/**
+	 * Number of moves in the route of each puzzle recorded, or -1 if it was not solved
+	 */
+	private final List<Integer>     moves   = new ArrayList<Integer>();
+	/**
+	 * SearchStats of each puzzle recorded
+	 */
+	private final List<SearchStats> stats   = new ArrayList<SearchStats>();
+
+	/**
+	 * Records the last search of a puzzle
+	 * Puzzles which have never been searched are ignored
+	 *
+	 * @param puzzle The puzzle
+	 */
+	public synchronized void record(final Puzzle puzzle)
+	{
+		final SearchStats searchStats = puzzle.getStats();
+		if (searchStats != null)
+		{
+			this.puzzles.add(puzzle.getFilename().toString());
+			this.moves.add(SearchStatsRegistry.movesOf(puzzle));
+			this.stats.add(searchStats);
+		}
+	}
+
+	/**
+	 * Gets the number of moves in the route of a puzzle
+	 *
+	 * @param puzzle The puzzle
+	 *
+	 * @return The number of moves or -1 if it has not been solved
+	 */
+	static int movesOf(final Puzzle puzzle)
+	{
+		return (puzzle.getRoute() == null) ? -1 : (puzzle.getRoute().size() - 1);
+	}
+
+	/**
+	 * Getter for the number of puzzles recorded
+	 *
+	 * @return The number of puzzles
+	 */
+	public synchronized int size()
+	{
+		return this.stats.size();
+	}
+
+	/**
+	 * Gets the SearchStats of a recorded puzzle
+	 *
+	 * @param i The index of the puzzle, in the order recorded
+	 *
+	 * @return The SearchStats
+	 */
+	public synchronized SearchStats get(final int i)
+	{
+		return this.stats.get(i);
+	}
+
+	/**
+	 * Sums the SearchStats of every puzzle recorded
+	 *
+	 * @return A new SearchStats holding the totals; its peak open size is the largest of any puzzle
+	 */
+	public synchronized SearchStats getTotal()
+	{
+		final SearchStats total = new SearchStats(TOTAL);
+		for (final SearchStats searchStats : this.stats)
+		{
+			total.add(searchStats);
+		}
+		return total;
+	}
+
+	/**
+	 * Tests whether every puzzle recorded was solved
+	 *
+	 * @return true if every route was found
+	 */
+	private boolean allSolved()
+	{
+		return !this.moves.contains(-1);
+	}
+
+	/**
+	 * Sums the moves of every route found
+	 *
+	 * @return The number of moves over every solved puzzle
+	 */
+	private int totalMoves()
+	{
+		int total = 0;
+		for (final int routeMoves : this.moves)
+		{
+			total += Math.max(routeMoves, 0);
+		}
+		return total;
+	}
+
+	/**
+	 * Forgets every puzzle recorded
+	 */
+	public synchronized void clear()
+	{
+		this.puzzles.clear();
+		this.moves.clear();
+		this.stats.clear();
+	}
+
+	/**
+	 * Writes the batch as a JSON document with a "puzzles" array and a "total" object
+	 *
+	 * @param file The file to write
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	public synchronized void writeJson(final File file) throws IOException
+	{
+		final Writer writer = new BufferedWriter(new FileWriter(file));
+		try
+		{
+			writer.write("{\n  \"puzzles\": [");
+			for (int i = 0;i < this.stats.size();i++)
+			{
+				writer.write((i == 0) ? "\n    " : ",\n    ");
+				final int routeMoves = this.moves.get(i);
+				writer.write(SearchStatsRegistry.toJson(this.puzzles.get(i), routeMoves >= 0, routeMoves,
+				                                        this.stats.get(i)));
+			}
+			writer.write("\n  ],\n  \"total\": ");
+			writer.write(SearchStatsRegistry.toJson(TOTAL, this.allSolved(), this.totalMoves(), this.getTotal()));
+			writer.write("\n}\n");
+		}
+		finally
+		{
+			writer.close();
+		}
+	}
+
+	/**
+	 * Writes the batch as CSV with a header row and a final row holding the total
+	 *
+	 * @param file The file to write
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	public synchronized void writeCsv(final File file) throws IOException
+	{
+		final Writer writer = new BufferedWriter(new FileWriter(file));
+		try
+		{
+			writer.write(CSV_HEADER);
+			writer.write('\n');
+			for (int i = 0;i < this.stats.size();i++)
+			{
+				final int routeMoves = this.moves.get(i);
+				writer.write(SearchStatsRegistry.toCsv(this.puzzles.get(i), routeMoves >= 0, routeMoves,
+				                                       this.stats.get(i)));
+			}
+			writer.write(SearchStatsRegistry.toCsv(TOTAL, this.allSolved(), this.totalMoves(), this.getTotal()));
+		}
+		finally
+		{
+			writer.close();
+		}
+	}
+
+	/**
+	 * Formats a single puzzle as a JSON object
+	 * Puzzle filenames and method names never contain characters which JSON would need escaped
+	 *
+	 * @param puzzle      The puzzle filename
+	 * @param solved      Whether the puzzle was solved
+	 * @param moves       The number of moves in its route, or -1 if it was not solved
+	 * @param searchStats The SearchStats of the puzzle
+	 *
+	 * @return The JSON object
+	 */
+	static String toJson(final String puzzle, final boolean solved, final int moves,
+	                     final SearchStats searchStats)
+	{
+		return "{\"puzzle\": \"" + puzzle + "\", \"method\": \"" + searchStats.getMethod() + "\", \"solved\": " +
+		       solved + ", \"moves\": " + moves + ", \"expandedNodes\": " + searchStats.getExpandedNodes() +
+		       ", \"generatedNodes\": " + searchStats.getGeneratedNodes() + ", \"duplicates\": " +
+		       searchStats.getDuplicates() + ", \"peakOpen\": " + searchStats.getPeakOpen() + ", \"wallNanos\": " +
+		       searchStats.getWallNanos() + ", \"allocatedBytes\": " + searchStats.getAllocatedBytes() + '}';
+	}
+
+	/**
+	 * Formats a single puzzle as a CSV row
+	 *
+	 * @param puzzle      The puzzle filename
+	 * @param solved      Whether the puzzle was solved
+	 * @param moves       The number of moves in its route, or -1 if it was not solved
+	 * @param searchStats The SearchStats of the puzzle
+	 *
+	 * @return The CSV row including its line break
+	 */
+	static String toCsv(final String puzzle, final boolean solved, final int moves,
+	                    final SearchStats searchStats)
+	{
+		return puzzle + ',' + searchStats.getMethod() + ',' + solved + ',' + moves + ',' +
+		       searchStats.getExpandedNodes() + ',' + searchStats.getGeneratedNodes() + ',' +
+		       searchStats.getDuplicates() + ',' + searchStats.getPeakOpen() + ',' + searchStats.getWallNanos() + ',' +
+		       searchStats.getAllocatedBytes() + '\n';
+	}
+}
@@ -0,0 +1,384 @@
+import java.util.Arrays;
+
+/**
+ * SharedDistanceTable lets workers solving puzzles with the same destination reuse each other's routes
+ * Every state on a shortest route is exactly as far from the destination as the rest of the route, so once a worker
+ * has solved a puzzle, each state of its route is recorded with that distance and the jump which continues the route.
+ * A later search which generates a recorded state knows a complete route through it, and may stop as soon as nothing
+ * left in its open list could beat that route. Following the recorded jumps from any state leads to the destination
+ * in exactly the recorded distance, whichever routes they were recorded from.
+ * The table is split into stripes, each guarded by its own lock and holding an equal share of a fixed capacity in
+ * primitive arrays, so looking a state up allocates nothing. When a stripe is full a state which has not been looked
+ * up since the clock hand last passed it is evicted, an approximation of least recently used. All methods may be
+ * called from several threads at once.
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public class SharedDistanceTable
+{
+	/**
+	 * Name of the search method recorded for a puzzle solved with the table
+	 */
+	public static final  String METHOD      = "SHARED_A_STAR";
+	/**
+	 * Returned by distance when a state is not recorded
+	 */
+	public static final  int    UNKNOWN     = -1;
+	/**
+	 * Number of bits of a hash which choose its stripe
+	 */
+	private static final int    STRIPE_BITS = 4;
+	/**
+	 * Number of independently locked stripes
+	 */
+	private static final int    STRIPES     = 1 << STRIPE_BITS;
+	/**
+	 * Number of bits of a value taken by the jump which continues the route
+	 */
+	private static final int    MOVE_BITS   = 2;
+	/**
+	 * Mask of the jump within a value
+	 */
+	private static final int    MOVE_MASK   = (1 << MOVE_BITS) - 1;
+
+	/**
+	 * The stripes, each holding states and destinations mapped to their distance shifted past the jump which
+	 * continues the route
+	 */
+	private final Stripe[] stripes = new Stripe[STRIPES];
+
+	/**
+	 * Constructor for SharedDistanceTable
+	 *
+	 * @param capacity The largest number of states held; each stripe holds an equal share
+	 */
+	public SharedDistanceTable(final int capacity)
+	{
+		if (capacity < STRIPES)
+		{
+			throw new IllegalArgumentException("Table must hold at least " + STRIPES + " states");
+		}
+		for (int i = 0;i < STRIPES;i++)
+		{
+			this.stripes[i] = new Stripe(capacity / STRIPES);
+		}
+	}
+
+	/**
+	 * Mixes a state and the destination it is measured to into a single hash
+	 *
+	 * @param state       The packed state
+	 * @param destination The packed destination state
+	 *
+	 * @return A well mixed hash of both
+	 */
+	private static int hash(final long state, final long destination)
+	{
+		return LongHashSet.hash((state * 0x9E3779B97F4A7C15L) ^ destination);
+	}
+
+	/**
+	 * Gets the stripe holding a state
+	 *
+	 * @param hash The hash of the state and destination
+	 *
+	 * @return The stripe, which must be locked before it is used
+	 */
+	private Stripe stripeOf(final int hash)
+	{
+		return this.stripes[hash >>> (Integer.SIZE - STRIPE_BITS)];
+	}
+
+	/**
+	 * Records every state of a shortest route
+	 *
+	 * @param states Packed states of a shortest route, from start to destination inclusive
+	 */
+	public void record(final long[] states)
+	{
+		final long destination = states[states.length - 1];
+		for (int i = 0;i < (states.length - 1);i++)
+		{
+			final int move = PackedState.moveBetween(states[i], states[i + 1]);
+			final int hash = SharedDistanceTable.hash(states[i], destination);
+			final Stripe stripe = this.stripeOf(hash);
+			synchronized (stripe)
+			{
+				stripe.put(states[i], destination, hash, ((states.length - 1 - i) << MOVE_BITS) | move);
+			}
+		}
+	}
+
+	/**
+	 * Gets the value of a state
+	 *
+	 * @param state       The packed state
+	 * @param destination The packed destination state
+	 *
+	 * @return The distance shifted past the jump which continues the route, or UNKNOWN if the state is not recorded
+	 */
+	private int get(final long state, final long destination)
+	{
+		final int hash = SharedDistanceTable.hash(state, destination);
+		final Stripe stripe = this.stripeOf(hash);
+		synchronized (stripe)
+		{
+			return stripe.get(state, destination, hash);
+		}
+	}
+
+	/**
+	 * Gets the exact number of jumps from a state to a destination
+	 *
+	 * @param state       The packed state
+	 * @param destination The packed destination state
+	 *
+	 * @return The number of jumps, or UNKNOWN if the state is not recorded
+	 */
+	public int distance(final long state, final long destination)
+	{
+		if (state == destination)
+		{
+			return 0;
+		}
+		final int value = this.get(state, destination);
+		return (value == UNKNOWN) ? UNKNOWN : (value >>> MOVE_BITS);
+	}
+
+	/**
+	 * Gets a shortest route from a state to a destination by following the recorded jumps
+	 *
+	 * @param state       The packed state
+	 * @param destination The packed destination state
+	 *
+	 * @return The packed states from state to destination inclusive, or null if a state along the way is not
+	 * recorded
+	 */
+	public long[] route(final long state, final long destination)
+	{
+		final int distance = this.distance(state, destination);
+		if (distance == UNKNOWN)
+		{
+			return null;
+		}
+		final long[] states = new long[distance + 1];
+		states[0] = state;
+		for (int i = 1;i <= distance;i++)
+		{
+			final int value = this.get(states[i - 1], destination);
+			if (value == UNKNOWN)
+			{
+				//Evicted since the route was started
+				return null;
+			}
+			states[i] = PackedState.move(states[i - 1], value & MOVE_MASK);
+		}
+		return states;
+	}
+
+	/**
+	 * Gets the number of states held
+	 *
+	 * @return The number of states held over every stripe
+	 */
+	public int size()
+	{
+		int size = 0;
+		for (final Stripe stripe : this.stripes)
+		{
+			synchronized (stripe)
+			{
+				size += stripe.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * A share of the table: an open-addressing hash table with linear probing, keyed by state and destination
+	 * It never holds more than its capacity, evicting with a clock hand which spares states looked up since it last
+	 * passed them. Callers must hold its lock.
+	 */
+	private static final class Stripe
+	{
+		/**
+		 * Marker for an empty slot
+		 */
+		private static final long EMPTY = PackedState.NO_STATE;
+
+		/**
+		 * Largest number of states held
+		 */
+		private final int       capacity;
+		/**
+		 * Packed state of each slot, or EMPTY
+		 */
+		private final long[]    states;
+		/**
+		 * Packed destination of the state in the same slot
+		 */
+		private final long[]    destinations;
+		/**
+		 * Value of the state in the same slot
+		 */
+		private final int[]     values;
+		/**
+		 * Whether the state in the same slot has been looked up since the clock hand last passed it
+		 */
+		private final boolean[] referenced;
+		/**
+		 * states.length - 1
+		 */
+		private final int       mask;
+		/**
+		 * Slot the clock hand last passed
+		 */
+		private       int       hand;
+		/**
+		 * Number of states held
+		 */
+		private       int       size;
+
+		/**
+		 * Constructor for Stripe
+		 *
+		 * @param capacity Largest number of states held
+		 */
+		private Stripe(final int capacity)
+		{
+			int slots = 4;
+			while (slots < (capacity * 2))
+			{
+				slots <<= 1;
+			}
+			this.capacity = capacity;
+			this.states = new long[slots];
+			Arrays.fill(this.states, EMPTY);
+			this.destinations = new long[slots];
+			this.values = new int[slots];
+			this.referenced = new boolean[slots];
+			this.mask = slots - 1;
+		}
+
+		/**
+		 * Finds the slot of a state
+		 *
+		 * @param state       The packed state
+		 * @param destination The packed destination state
+		 * @param hash        The hash of the state and destination
+		 *
+		 * @return The slot holding the state or the empty slot where it would go
+		 */
+		private int slotOf(final long state, final long destination, final int hash)
+		{
+			int slot = hash & this.mask;
+			while ((this.states[slot] != EMPTY) &&
+			       ((this.states[slot] != state) || (this.destinations[slot] != destination)))
+			{
+				slot = (slot + 1) & this.mask;
+			}
+			return slot;
+		}
+
+		/**
+		 * Gets the value of a state, sparing it from the next pass of the clock hand
+		 *
+		 * @param state       The packed state
+		 * @param destination The packed destination state
+		 * @param hash        The hash of the state and destination
+		 *
+		 * @return The value, or UNKNOWN if the state is not held
+		 */
+		private int get(final long state, final long destination, final int hash)
+		{
+			final int slot = this.slotOf(state, destination, hash);
+			if (this.states[slot] == EMPTY)
+			{
+				return UNKNOWN;
+			}
+			this.referenced[slot] = true;
+			return this.values[slot];
+		}
+
+		/**
+		 * Stores the value of a state, evicting another if the stripe is full
+		 *
+		 * @param state       The packed state
+		 * @param destination The packed destination state
+		 * @param hash        The hash of the state and destination
+		 * @param value       The distance shifted past the jump which continues the route
+		 */
+		private void put(final long state, final long destination, final int hash, final int value)
+		{
+			int slot = this.slotOf(state, destination, hash);
+			if (this.states[slot] == EMPTY)
+			{
+				if (this.size == this.capacity)
+				{
+					this.evict();
+					slot = this.slotOf(state, destination, hash);
+				}
+				this.states[slot] = state;
+				this.destinations[slot] = destination;
+				this.size++;
+			}
+			this.values[slot] = value;
+			this.referenced[slot] = true;
+		}
+
+		/**
+		 * Moves the clock hand to the first state which has not been looked up since it was last passed, sparing the
+		 * states on the way, and removes it
+		 */
+		private void evict()
+		{
+			while (true)
+			{
+				this.hand = (this.hand + 1) & this.mask;
+				if (this.states[this.hand] != EMPTY)
+				{
+					if (!this.referenced[this.hand])
+					{
+						this.remove(this.hand);
+						return;
+					}
+					this.referenced[this.hand] = false;
+				}
+			}
+		}
+
+		/**
+		 * Empties a slot, shifting back the states after it which would otherwise no longer be found
+		 *
+		 * @param slot The slot
+		 */
+		private void remove(final int slot)
+		{
+			int hole = slot;
+			for (int next = (hole + 1) & this.mask;this.states[next] != EMPTY;next = (next + 1) & this.mask)
+			{
+				final int home = SharedDistanceTable.hash(this.states[next], this.destinations[next]) & this.mask;
+				if (((next - home) & this.mask) >= ((next - hole) & this.mask))
+				{
+					this.states[hole] = this.states[next];
+					this.destinations[hole] = this.destinations[next];
+					this.values[hole] = this.values[next];
+					this.referenced[hole] = this.referenced[next];
+					hole = next;
+				}
+			}
+			this.states[hole] = EMPTY;
+			this.referenced[hole] = false;
+			this.size--;
+		}
+
+		/**
+		 * Getter for the number of states held
+		 *
+		 * @return The number of states
+		 */
+		private int size()
+		{
+			return this.size;
+		}
+	}
+}
@@ -0,0 +1,143 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * SolutionBatchReader reads solutions back from the files written by SolutionBatchWriter
+ * The index is memory-mapped, so any solution can be read without scanning the data file
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public class SolutionBatchReader implements Closeable
+{
+	/**
+	 * Every byte of the data file is ASCII
+	 */
+	private static final Charset ASCII = Charset.forName("US-ASCII");
+
+	/**
+	 * File the data channel belongs to
+	 */
+	private final RandomAccessFile dataFile;
+	/**
+	 * Channel reading the data file
+	 */
+	private final FileChannel      data;
+	/**
+	 * The mapped index file
+	 */
+	private final MappedByteBuffer index;
+	/**
+	 * Number of complete index entries
+	 */
+	private final int              size;
+
+	/**
+	 * Constructor for SolutionBatchReader
+	 *
+	 * @param dataFile  The file of solutions
+	 * @param indexFile The index of dataFile
+	 *
+	 * @throws IOException if either file cannot be read
+	 */
+	public SolutionBatchReader(final File dataFile, final File indexFile) throws IOException
+	{
+		final RandomAccessFile indexAccess = new RandomAccessFile(indexFile, "r");
+		try
+		{
+			this.index = indexAccess.getChannel().map(FileChannel.MapMode.READ_ONLY, 0L, indexAccess.length());
+		}
+		finally
+		{
+			//The mapping stays valid once the file is closed
+			indexAccess.close();
+		}
+		this.size = this.index.capacity() / SolutionBatchWriter.INDEX_ENTRY_BYTES;
+		this.dataFile = new RandomAccessFile(dataFile, "r");
+		this.data = this.dataFile.getChannel();
+	}
+
+	/**
+	 * Getter for the number of solutions
+	 *
+	 * @return The number of solutions in the index
+	 */
+	public int size()
+	{
+		return this.size;
+	}
+
+	/**
+	 * Gets the packed start state of a solution
+	 *
+	 * @param entry The index of the solution
+	 *
+	 * @return The packed start state
+	 */
+	public long getStart(final int entry)
+	{
+		return this.index.getLong(entry * SolutionBatchWriter.INDEX_ENTRY_BYTES);
+	}
+
+	/**
+	 * Gets the packed destination state of a solution
+	 *
+	 * @param entry The index of the solution
+	 *
+	 * @return The packed destination state
+	 */
+	public long getDestination(final int entry)
+	{
+		return this.index.getLong((entry * SolutionBatchWriter.INDEX_ENTRY_BYTES) + 8);
+	}
+
+	/**
+	 * Gets the name of the per-puzzle file a solution would have been exported to
+	 *
+	 * @param entry The index of the solution
+	 *
+	 * @return The filename in "start2destination.txt" format
+	 */
+	public String getFilename(final int entry)
+	{
+		return PackedState.toString(this.getStart(entry)) + '2' + PackedState.toString(this.getDestination(entry)) +
+		       ".txt";
+	}
+
+	/**
+	 * Reads a solution
+	 *
+	 * @param entry The index of the solution
+	 *
+	 * @return The 4 lines of the solution, each ending with '\n'
+	 *
+	 * @throws IOException if the data file cannot be read
+	 */
+	public String getText(final int entry) throws IOException
+	{
+		final int base = entry * SolutionBatchWriter.INDEX_ENTRY_BYTES;
+		long position = this.index.getLong(base + 16);
+		final ByteBuffer buffer = ByteBuffer.allocate(this.index.getInt(base + 24));
+		while (buffer.hasRemaining())
+		{
+			final int read = this.data.read(buffer, position);
+			if (read < 0)
+			{
+				throw new IOException("Solution " + entry + " is beyond the end of the data file");
+			}
+			position += read;
+		}
+		buffer.flip();
+		return ASCII.decode(buffer).toString();
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		this.dataFile.close();
+	}
+}
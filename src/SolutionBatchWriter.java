@@ -0,0 +1,215 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+/**
+ * SolutionBatchWriter appends every solution of a batch to a single data file, with an index of where each starts
+ * A solution is stored in the layout of the per-puzzle files written by Application.exportSolution: 4 lines, each
+ * holding one row of every configuration of the route followed by a space. Lines end with '\n'.
+ * Each index entry is INDEX_ENTRY_BYTES long: the packed start and destination states, then the offset and length
+ * of the solution in the data file. Both files are only ever appended to, through large direct buffers, and
+ * solutions are formatted straight from the packed states into the buffer without allocating.
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public class SolutionBatchWriter implements SolutionSink, Closeable
+{
+	/**
+	 * Length of an index entry: start, destination, offset (all long) and length (int)
+	 */
+	public static final  int    INDEX_ENTRY_BYTES  = 28;
+	/**
+	 * Size of the data buffer
+	 */
+	private static final int    DATA_BUFFER_BYTES  = 1 << 20;
+	/**
+	 * Size of the index buffer
+	 */
+	private static final int    INDEX_BUFFER_BYTES = INDEX_ENTRY_BYTES << 11;
+	/**
+	 * Bytes of a single configuration within a line: 3 tiles and a space
+	 */
+	private static final int    CELL_ROW_BYTES     = PackedState.COLUMNS + 1;
+	/**
+	 * ASCII byte of each symbol code
+	 */
+	private static final byte[] SYMBOL_BYTES       = {'_', 'a', 'b', 'c', 'd'};
+
+	/**
+	 * Stream the data channel belongs to
+	 */
+	private final FileOutputStream dataStream;
+	/**
+	 * Stream the index channel belongs to
+	 */
+	private final FileOutputStream indexStream;
+	/**
+	 * Channel appending to the data file
+	 */
+	private final FileChannel      data;
+	/**
+	 * Channel appending to the index file
+	 */
+	private final FileChannel      index;
+	/**
+	 * Solutions waiting to be written to data
+	 */
+	private final ByteBuffer       dataBuffer  = ByteBuffer.allocateDirect(DATA_BUFFER_BYTES);
+	/**
+	 * Index entries waiting to be written to index
+	 */
+	private final ByteBuffer       indexBuffer = ByteBuffer.allocateDirect(INDEX_BUFFER_BYTES);
+	/**
+	 * Offset in the data file of the next solution
+	 */
+	private       long             offset;
+
+	/**
+	 * Constructor for SolutionBatchWriter
+	 * Existing files are appended to
+	 *
+	 * @param dataFile  The file to append solutions to
+	 * @param indexFile The file to append index entries to
+	 *
+	 * @throws IOException if either file cannot be opened
+	 */
+	public SolutionBatchWriter(final File dataFile, final File indexFile) throws IOException
+	{
+		this.dataStream = new FileOutputStream(dataFile, true);
+		try
+		{
+			this.indexStream = new FileOutputStream(indexFile, true);
+		}
+		catch (final IOException exception)
+		{
+			this.dataStream.close();
+			throw exception;
+		}
+		this.data = this.dataStream.getChannel();
+		this.index = this.indexStream.getChannel();
+		this.offset = this.data.size();
+	}
+
+	/**
+	 * Writes the solution of a solved result; failed results are skipped
+	 *
+	 * @param result The result of a puzzle
+	 *
+	 * @throws IOException if the files cannot be written
+	 */
+	@Override
+	public void accept(final SolveResult result) throws IOException
+	{
+		if (result.isSolved())
+		{
+			this.write(result.getPuzzle());
+		}
+	}
+
+	/**
+	 * Appends the solution of a puzzle
+	 *
+	 * @param puzzle A solved puzzle
+	 *
+	 * @throws IOException if the files cannot be written
+	 */
+	public void write(final Puzzle puzzle) throws IOException
+	{
+		final List<PuzzleConfiguration> route = puzzle.getRoute();
+		if (route == null)
+		{
+			throw new IllegalArgumentException("Puzzle has not been solved");
+		}
+		final int states = route.size();
+		final int length = PackedState.ROWS * ((states * CELL_ROW_BYTES) + 1);
+		for (int row = 0;row < PackedState.ROWS;row++)
+		{
+			for (int i = 0;i < states;i++)
+			{
+				if (this.dataBuffer.remaining() < CELL_ROW_BYTES)
+				{
+					this.flush(this.dataBuffer, this.data);
+				}
+				final long state = route.get(i).getState();
+				final int first = row * PackedState.COLUMNS;
+				for (int cell = first;cell < (first + PackedState.COLUMNS);cell++)
+				{
+					this.dataBuffer.put(SYMBOL_BYTES[PackedState.symbolAt(state, cell)]);
+				}
+				this.dataBuffer.put((byte) ' ');
+			}
+			if (!this.dataBuffer.hasRemaining())
+			{
+				this.flush(this.dataBuffer, this.data);
+			}
+			this.dataBuffer.put((byte) '\n');
+		}
+		if (this.indexBuffer.remaining() < INDEX_ENTRY_BYTES)
+		{
+			this.flush(this.indexBuffer, this.index);
+		}
+		this.indexBuffer.putLong(route.get(0).getState());
+		this.indexBuffer.putLong(route.get(states - 1).getState());
+		this.indexBuffer.putLong(this.offset);
+		this.indexBuffer.putInt(length);
+		this.offset += length;
+	}
+
+	/**
+	 * Writes everything in a buffer to its channel and empties it
+	 *
+	 * @param buffer  The buffer
+	 * @param channel The channel
+	 *
+	 * @throws IOException if the channel cannot be written
+	 */
+	private void flush(final ByteBuffer buffer, final FileChannel channel) throws IOException
+	{
+		buffer.flip();
+		while (buffer.hasRemaining())
+		{
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Writes every buffered solution and index entry to the files
+	 * Solutions are written before the index entries which point at them
+	 *
+	 * @throws IOException if the files cannot be written
+	 */
+	public void flush() throws IOException
+	{
+		this.flush(this.dataBuffer, this.data);
+		this.flush(this.indexBuffer, this.index);
+	}
+
+	/**
+	 * Flushes and closes both files
+	 *
+	 * @throws IOException if the files cannot be written
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		try
+		{
+			this.flush();
+		}
+		finally
+		{
+			try
+			{
+				this.dataStream.close();
+			}
+			finally
+			{
+				this.indexStream.close();
+			}
+		}
+	}
+}
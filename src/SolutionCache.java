@@ -0,0 +1,469 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SolutionCache remembers the routes of solved puzzles so that a puzzle seen before is never searched again
+ * Routes are keyed by the packed start and destination states of the canonical form of their puzzle under Symmetry,
+ * so a mirror image, rotation or relabelling of a cached puzzle is also a hit. The most recently used routes are held
+ * in memory up to a fixed number; every route is also appended to a log on disk in the BinarySolutionWriter record
+ * format, so the cache survives restarts. The position of each record in the log is kept in a RouteIndex, which is
+ * memory mapped rather than held on the heap, so memory stays bounded however long the log grows.
+ * A log left with a partly written record is truncated back to its last whole record when opened.
+ * All methods may be called from several threads at once. The routes in memory, the index and the appending of
+ * records are each guarded by their own lock, and records are read from the log with positional reads outside any
+ * lock, so a lookup which goes to disk does not hold up lookups answered from memory.
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public class SolutionCache implements Closeable
+{
+	/**
+	 * Name of the search method recorded for a puzzle solved from the cache
+	 */
+	public static final String METHOD = "CACHE";
+
+	/**
+	 * The log of every route cached
+	 */
+	private final RandomAccessFile  log;
+	/**
+	 * Channel of the log, read and written at explicit positions
+	 */
+	private final FileChannel       channel;
+	/**
+	 * Position in the log of the record of each route cached, guarded by its own lock
+	 */
+	private final RouteIndex        index;
+	/**
+	 * Most recently used routes as packed states in canonical form, least recently used first, guarded by its own lock
+	 */
+	private final Map<Key, long[]>  routes;
+	/**
+	 * Guards appending to the log
+	 */
+	private final Object            appendLock = new Object();
+	/**
+	 * Buffer for a single record appended to the log, guarded by appendLock
+	 */
+	private final byte[]            record     = new byte[BinarySolutionWriter.MAX_RECORD];
+	/**
+	 * Position after the last whole record of the log, guarded by appendLock
+	 */
+	private       long              end;
+	/**
+	 * Number of lookups answered from memory
+	 */
+	private final AtomicLong        memoryHits = new AtomicLong();
+	/**
+	 * Number of lookups answered from the log
+	 */
+	private final AtomicLong        diskHits   = new AtomicLong();
+	/**
+	 * Number of lookups which found nothing
+	 */
+	private final AtomicLong        misses     = new AtomicLong();
+
+	/**
+	 * Constructor for SolutionCache
+	 * An existing log is indexed; a missing or empty one is started
+	 *
+	 * @param file     The log
+	 * @param capacity The number of routes to hold in memory
+	 *
+	 * @throws IOException if the log cannot be read or written or is not a binary solution file
+	 */
+	public SolutionCache(final File file, final int capacity) throws IOException
+	{
+		if (capacity < 1)
+		{
+			throw new IllegalArgumentException("Cache must hold at least one route");
+		}
+		this.routes = new LinkedHashMap<Key, long[]>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<Key, long[]> eldest)
+			{
+				return this.size() > capacity;
+			}
+		};
+		this.log = new RandomAccessFile(file, "rw");
+		this.channel = this.log.getChannel();
+		try
+		{
+			this.index = new RouteIndex(file.getAbsoluteFile().getParentFile());
+		}
+		catch (final IOException exception)
+		{
+			this.log.close();
+			throw exception;
+		}
+		try
+		{
+			this.index();
+		}
+		catch (final IOException exception)
+		{
+			this.index.close();
+			this.log.close();
+			throw exception;
+		}
+	}
+
+	/**
+	 * Records the position of every whole record in the log, writing the header of a new log
+	 *
+	 * @throws IOException if the log cannot be read or is not a binary solution file
+	 */
+	private void index() throws IOException
+	{
+		if (this.log.length() == 0L)
+		{
+			this.log.write(BinarySolutionWriter.MAGIC);
+			this.end = BinarySolutionWriter.MAGIC.length;
+			return;
+		}
+		final byte[] magic = new byte[BinarySolutionWriter.MAGIC.length];
+		if ((this.log.length() < magic.length) || (this.log.read(magic) != magic.length) ||
+		    !Arrays.equals(magic, BinarySolutionWriter.MAGIC))
+		{
+			throw new IOException("Not a binary solution file");
+		}
+		final long length = this.log.length();
+		long position = magic.length;
+		while ((position + BinarySolutionWriter.HEADER_BYTES) <= length)
+		{
+			this.log.seek(position);
+			this.log.readFully(this.record, 0, BinarySolutionWriter.HEADER_BYTES);
+			final int bytes = BinarySolutionWriter.recordBytes(BinarySolutionReader.moveCountOf(this.record));
+			if ((position + bytes) > length)
+			{
+				break;
+			}
+			this.log.readFully(this.record, BinarySolutionWriter.HEADER_BYTES,
+			                   bytes - BinarySolutionWriter.HEADER_BYTES);
+			final long[] states = BinarySolutionReader.statesOf(this.record);
+			final Key key = SolutionCache.keyOf(Symmetry.canonical(states[0], states[states.length - 1]),
+			                                    states[0], states[states.length - 1]);
+			this.index.put(key.start, key.destination, position);
+			position += bytes;
+		}
+		//Drop a record cut short by a crash so that the next route is appended after the last whole one
+		this.log.setLength(position);
+		this.end = position;
+	}
+
+	/**
+	 * Reads a record of the log without moving the file pointer, so several threads may read at once
+	 *
+	 * @param position The position of the record
+	 *
+	 * @return The packed states of the record
+	 *
+	 * @throws IOException if the log cannot be read
+	 */
+	private long[] read(final long position) throws IOException
+	{
+		final byte[] bytes = new byte[BinarySolutionWriter.MAX_RECORD];
+		final ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, BinarySolutionWriter.HEADER_BYTES);
+		this.readFully(buffer, position);
+		buffer.limit(BinarySolutionWriter.recordBytes(BinarySolutionReader.moveCountOf(bytes)));
+		this.readFully(buffer, position + BinarySolutionWriter.HEADER_BYTES);
+		return BinarySolutionReader.statesOf(bytes);
+	}
+
+	/**
+	 * Fills the rest of a buffer from the log
+	 *
+	 * @param buffer   The buffer, filled from its position to its limit
+	 * @param position The position in the log of the first byte to read
+	 *
+	 * @throws IOException if the log cannot be read or ends first
+	 */
+	private void readFully(final ByteBuffer buffer, final long position) throws IOException
+	{
+		long from = position;
+		while (buffer.hasRemaining())
+		{
+			final int read = this.channel.read(buffer, from);
+			if (read < 0)
+			{
+				throw new IOException("Log ends within a record");
+			}
+			from += read;
+		}
+	}
+
+	/**
+	 * Looks up the route between two states
+	 *
+	 * @param start       The packed start state
+	 * @param destination The packed destination state
+	 *
+	 * @return The packed states from start to destination, or null if the route is not cached
+	 *
+	 * @throws IOException if the log cannot be read
+	 */
+	public long[] get(final long start, final long destination) throws IOException
+	{
+		final Symmetry symmetry = Symmetry.canonical(start, destination);
+		final Key key = SolutionCache.keyOf(symmetry, start, destination);
+		long[] states;
+		synchronized (this.routes)
+		{
+			states = this.routes.get(key);
+		}
+		if (states != null)
+		{
+			this.memoryHits.incrementAndGet();
+			return symmetry.inverse().apply(states);
+		}
+		final long position;
+		synchronized (this.index)
+		{
+			position = this.index.get(key.start, key.destination);
+		}
+		if (position == RouteIndex.NO_POSITION)
+		{
+			this.misses.incrementAndGet();
+			return null;
+		}
+		//Records are logged as their puzzle was posed, which may be any member of its class
+		states = this.read(position);
+		states = Symmetry.canonical(states[0], states[states.length - 1]).apply(states);
+		synchronized (this.routes)
+		{
+			this.routes.put(key, states);
+		}
+		this.diskHits.incrementAndGet();
+		return symmetry.inverse().apply(states);
+	}
+
+	/**
+	 * Builds the key of a puzzle
+	 *
+	 * @param symmetry    The symmetry taking the puzzle to its canonical form
+	 * @param start       The packed start state
+	 * @param destination The packed destination state
+	 *
+	 * @return The key of the canonical form
+	 */
+	private static Key keyOf(final Symmetry symmetry, final long start, final long destination)
+	{
+		return new Key(symmetry.apply(start), symmetry.apply(destination));
+	}
+
+	/**
+	 * Caches the route of a solved puzzle
+	 * Unsolved puzzles, routes already cached and routes too long for the log are ignored
+	 *
+	 * @param puzzle The puzzle
+	 *
+	 * @throws IOException if the log cannot be written
+	 */
+	public void put(final Puzzle puzzle) throws IOException
+	{
+		if ((puzzle.getRoute() == null) || ((puzzle.getRoute().size() - 1) > BinarySolutionWriter.MAX_MOVES))
+		{
+			return;
+		}
+		final long[] route = new long[puzzle.getRoute().size()];
+		for (int i = 0;i < route.length;i++)
+		{
+			route[i] = puzzle.getRoute().get(i).getState();
+		}
+		final Symmetry symmetry = Symmetry.canonical(route[0], route[route.length - 1]);
+		final Key key = SolutionCache.keyOf(symmetry, route[0], route[route.length - 1]);
+		synchronized (this.appendLock)
+		{
+			synchronized (this.index)
+			{
+				if (this.index.get(key.start, key.destination) != RouteIndex.NO_POSITION)
+				{
+					return;
+				}
+			}
+			final ByteBuffer buffer = ByteBuffer.wrap(this.record, 0,
+			                                          BinarySolutionWriter.encode(puzzle.getRoute(), this.record));
+			final long position = this.end;
+			while (buffer.hasRemaining())
+			{
+				this.end += this.channel.write(buffer, this.end);
+			}
+			//Indexed only once written, so a lookup never reads a record which is not there yet
+			synchronized (this.index)
+			{
+				this.index.put(key.start, key.destination, position);
+			}
+		}
+		synchronized (this.routes)
+		{
+			this.routes.put(key, symmetry.apply(route));
+		}
+	}
+
+	/**
+	 * Solves a puzzle from the cache, or in canonical form with a search method if its route is not cached, caching
+	 * the route found
+	 *
+	 * @param puzzle The puzzle to solve
+	 * @param method The method to solve it with on a miss
+	 *
+	 * @throws UnsolvablePuzzleException if the method finds that the puzzle cannot be solved
+	 * @throws IllegalStateException     if the log cannot be read or written
+	 */
+	public void solve(final Puzzle puzzle, final SearchMethod method)
+	{
+		try
+		{
+			if (!puzzle.solveFromCache(this))
+			{
+				puzzle.solveCanonical(method);
+				this.put(puzzle);
+			}
+		}
+		catch (final IOException exception)
+		{
+			throw new IllegalStateException("Solution cache failed", exception);
+		}
+	}
+
+	/**
+	 * Getter for the number of routes cached
+	 *
+	 * @return The number of routes in the log
+	 */
+	public int size()
+	{
+		synchronized (this.index)
+		{
+			return this.index.size();
+		}
+	}
+
+	/**
+	 * Getter for the number of lookups answered from memory
+	 *
+	 * @return The number of memory hits
+	 */
+	public long getMemoryHits()
+	{
+		return this.memoryHits.get();
+	}
+
+	/**
+	 * Getter for the number of lookups answered from the log
+	 *
+	 * @return The number of disk hits
+	 */
+	public long getDiskHits()
+	{
+		return this.diskHits.get();
+	}
+
+	/**
+	 * Getter for the number of lookups which found nothing
+	 *
+	 * @return The number of misses
+	 */
+	public long getMisses()
+	{
+		return this.misses.get();
+	}
+
+	/**
+	 * Gets the fraction of lookups which found a route
+	 *
+	 * @return The hit rate between 0 and 1, or 0 if nothing has been looked up
+	 */
+	public double getHitRate()
+	{
+		final long hits = this.memoryHits.get() + this.diskHits.get();
+		final long misses = this.misses.get();
+		return ((hits + misses) == 0L) ? 0.0 : ((double) hits / (double) (hits + misses));
+	}
+
+	/**
+	 * String representation of SolutionCache
+	 *
+	 * @return The number of routes cached and the hit and miss counts
+	 */
+	@Override
+	public String toString()
+	{
+		return this.size() + " routes cached, " + (this.memoryHits.get() + this.diskHits.get()) + " hits (" +
+		       this.memoryHits.get() + " memory, " + this.diskHits.get() + " disk), " + this.misses.get() +
+		       " misses, " + Math.round(this.getHitRate() * 100.0) + "% hit rate";
+	}
+
+	/**
+	 * Closes the log and deletes the index, which is rebuilt from the log when it is next opened
+	 *
+	 * @throws IOException if the log cannot be closed
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		synchronized (this.appendLock)
+		{
+			synchronized (this.index)
+			{
+				this.index.close();
+			}
+			this.log.close();
+		}
+	}
+
+	/**
+	 * Key of a route: its packed start and destination states
+	 */
+	private static final class Key
+	{
+		/**
+		 * The packed start state
+		 */
+		private final long start;
+		/**
+		 * The packed destination state
+		 */
+		private final long destination;
+
+		/**
+		 * Constructor for Key
+		 *
+		 * @param start       The packed start state
+		 * @param destination The packed destination state
+		 */
+		private Key(final long start, final long destination)
+		{
+			this.start = start;
+			this.destination = destination;
+		}
+
+		@Override
+		public boolean equals(final Object o)
+		{
+			if (!(o instanceof Key))
+			{
+				return false;
+			}
+			final Key key = (Key) o;
+			return (this.start == key.start) && (this.destination == key.destination);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final long mixed = (this.start * 0x9E3779B97F4A7C15L) ^ this.destination;
+			return (int) (mixed ^ (mixed >>> 32));
+		}
+	}
+}
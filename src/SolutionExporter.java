@@ -0,0 +1,197 @@
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * SolutionExporter is the SolutionSink used by Application
+ * Each solved puzzle is handed on to a sink of solutions as soon as it arrives and the search statistics of every
+ * puzzle are appended to both stats.csv and stats.json in a statistics directory, so nothing but the running totals is
+ * kept; the total row of each is written on close
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public class SolutionExporter implements SolutionSink, Closeable
+{
+	/**
+	 * Sink which exports each solved puzzle to its own file with Application.exportSolution
+	 */
+	public static final SolutionSink PER_FILE = new SolutionSink()
+	{
+		@Override
+		public void accept(final SolveResult result)
+		{
+			if (result.isSolved())
+			{
+				Application.exportSolution(result.getPuzzle());
+			}
+		}
+	};
+
+	/**
+	 * Receives every solved puzzle
+	 */
+	private final SolutionSink solutions;
+	/**
+	 * Search statistics in the layout of SearchStatsRegistry.writeCsv
+	 */
+	private final Writer       statsWriter;
+	/**
+	 * Search statistics in the layout of SearchStatsRegistry.writeJson
+	 */
+	private final Writer       jsonWriter;
+	/**
+	 * Sum of the search statistics so far
+	 */
+	private final SearchStats  total = new SearchStats(SearchStatsRegistry.TOTAL);
+	/**
+	 * Number of puzzles exported
+	 */
+	private       long         solved;
+	/**
+	 * Number of puzzles which could not be solved
+	 */
+	private       long         failures;
+	/**
+	 * Number of moves over every puzzle exported
+	 */
+	private       int          moves;
+	/**
+	 * Number of rows of search statistics written
+	 */
+	private       long         rows;
+
+	/**
+	 * Constructor for SolutionExporter which exports each solution to its own file
+	 *
+	 * @param statsDir The directory to write stats.csv and stats.json to
+	 *
+	 * @throws IOException if the files cannot be written
+	 */
+	public SolutionExporter(final File statsDir) throws IOException
+	{
+		this(statsDir, PER_FILE);
+	}
+
+	/**
+	 * Constructor for SolutionExporter
+	 *
+	 * @param statsDir  The directory to write stats.csv and stats.json to
+	 * @param solutions Receives every solved puzzle, such as PER_FILE or a SolutionBatchWriter
+	 *
+	 * @throws IOException if the files cannot be written
+	 */
+	public SolutionExporter(final File statsDir, final SolutionSink solutions) throws IOException
+	{
+		this.solutions = solutions;
+		this.statsWriter = new BufferedWriter(new FileWriter(new File(statsDir, "stats.csv")));
+		try
+		{
+			this.jsonWriter = new BufferedWriter(new FileWriter(new File(statsDir, "stats.json")));
+		}
+		catch (final IOException exception)
+		{
+			this.statsWriter.close();
+			throw exception;
+		}
+		this.statsWriter.write(SearchStatsRegistry.CSV_HEADER);
+		this.statsWriter.write('\n');
+		this.jsonWriter.write("{\n  \"puzzles\": [");
+	}
+
+	@Override
+	public void accept(final SolveResult result) throws IOException
+	{
+		final Puzzle puzzle = result.getPuzzle();
+		if (puzzle == null)
+		{
+			System.err.println("Status 4: Skipped invalid configuration " + result.getLine());
+			this.failures++;
+			return;
+		}
+		if (result.isSolved())
+		{
+			this.solutions.accept(result);
+			this.solved++;
+			this.moves += SearchStatsRegistry.movesOf(puzzle);
+		}
+		else
+		{
+			System.err.println("Status 8: Unable to solve " + puzzle.getFilename() + ": " +
+			                   result.getFailure().getMessage());
+			this.failures++;
+		}
+		final SearchStats stats = puzzle.getStats();
+		if (stats != null)
+		{
+			final String filename = puzzle.getFilename().toString();
+			final int routeMoves = SearchStatsRegistry.movesOf(puzzle);
+			this.statsWriter.write(SearchStatsRegistry.toCsv(filename, result.isSolved(), routeMoves, stats));
+			this.jsonWriter.write((this.rows == 0L) ? "\n    " : ",\n    ");
+			this.jsonWriter.write(SearchStatsRegistry.toJson(filename, result.isSolved(), routeMoves, stats));
+			this.rows++;
+			this.total.add(stats);
+		}
+	}
+
+	/**
+	 * Writes the total row of the search statistics and closes both files
+	 *
+	 * @throws IOException if the files cannot be written
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		try
+		{
+			this.statsWriter.write(SearchStatsRegistry.toCsv(SearchStatsRegistry.TOTAL, this.failures == 0L,
+			                                                 this.moves, this.total));
+			this.jsonWriter.write("\n  ],\n  \"total\": ");
+			this.jsonWriter.write(SearchStatsRegistry.toJson(SearchStatsRegistry.TOTAL, this.failures == 0L,
+			                                                 this.moves, this.total));
+			this.jsonWriter.write("\n}\n");
+		}
+		finally
+		{
+			try
+			{
+				this.statsWriter.close();
+			}
+			finally
+			{
+				this.jsonWriter.close();
+			}
+		}
+	}
+
+	/**
+	 * Getter for the number of puzzles exported
+	 *
+	 * @return The number of puzzles solved
+	 */
+	public long getSolved()
+	{
+		return this.solved;
+	}
+
+	/**
+	 * Getter for the number of puzzles which could not be solved
+	 *
+	 * @return The number of failures
+	 */
+	public long getFailures()
+	{
+		return this.failures;
+	}
+
+	/**
+	 * Getter for the sum of the search statistics so far
+	 *
+	 * @return The total SearchStats
+	 */
+	public SearchStats getTotal()
+	{
+		return this.total;
+	}
+}
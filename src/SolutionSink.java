@@ -0,0 +1,17 @@
+import java.io.IOException;
+
+/**
+ * SolutionSink receives the results of a StreamingSolver as each puzzle finishes
+ * Results are delivered one at a time from a single thread, so a sink need not be thread safe
+ */
+public interface SolutionSink
+{
+	/**
+	 * Handles the result of a puzzle; the puzzle is not referenced again afterwards
+	 *
+	 * @param result The result of the puzzle
+	 *
+	 * @throws IOException if the result cannot be written
+	 */
+	void accept(SolveResult result) throws IOException;
+}
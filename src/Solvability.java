@@ -0,0 +1,109 @@
+/**
+ * Solvability decides whether the start of a puzzle can reach its destination without searching
+ * A jump only moves the '_', so the start and destination must hold the same number of each letter. Beyond that a
+ * jump is a transposition of the '_' with a tile: on a board with an odd number of columns a jump up or down carries
+ * the tile past the 2 other tiles of its row, so the parity of the order of the tiles read row by row never changes.
+ * That parity is the only other invariant of a board of at least 2 x 2, and it is lost as soon as a letter appears
+ * twice, since swapping 2 equal tiles flips it without changing the configuration. With 11 tiles drawn from 4 letters
+ * that is always the case, so in practice only the letters are compared.
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public final class Solvability
+{
+	/**
+	 * Utility class, never instantiated
+	 */
+	private Solvability()
+	{
+	}
+
+	/**
+	 * Tests whether one configuration can reach another
+	 *
+	 * @param start       The packed start state
+	 * @param destination The packed destination state
+	 *
+	 * @return true if a route exists
+	 */
+	public static boolean isSolvable(final long start, final long destination)
+	{
+		final int[] startCounts = Solvability.countSymbols(start);
+		final int[] destinationCounts = Solvability.countSymbols(destination);
+		boolean repeated = false;
+		for (int symbol = PackedState.BLANK + 1;symbol < PackedState.SYMBOLS;symbol++)
+		{
+			if (startCounts[symbol] != destinationCounts[symbol])
+			{
+				return false;
+			}
+			repeated |= startCounts[symbol] > 1;
+		}
+		return repeated || (Solvability.parity(start, destination) == 0);
+	}
+
+	/**
+	 * Counts the cells holding each symbol
+	 *
+	 * @param state The packed state
+	 *
+	 * @return The number of cells holding each symbol code
+	 */
+	private static int[] countSymbols(final long state)
+	{
+		final int[] counts = new int[PackedState.SYMBOLS];
+		for (int cell = 0;cell < PackedState.CELLS;cell++)
+		{
+			counts[PackedState.symbolAt(state, cell)]++;
+		}
+		return counts;
+	}
+
+	/**
+	 * Gets the parity of the permutation taking the tiles of the destination to the tiles of the start
+	 * Every tile must be a different letter. On a board with an even number of columns a jump up or down passes an
+	 * odd number of tiles, so the number of rows between the 2 '_' cells is added in.
+	 *
+	 * @param start       The packed start state
+	 * @param destination The packed destination state
+	 *
+	 * @return 0 for an even permutation, 1 for an odd one
+	 */
+	private static int parity(final long start, final long destination)
+	{
+		//Position of each letter in the destination, read row by row without the '_'
+		final int[] order = new int[PackedState.SYMBOLS];
+		int position = 0;
+		for (int cell = 0;cell < PackedState.CELLS;cell++)
+		{
+			final int symbol = PackedState.symbolAt(destination, cell);
+			if (symbol != PackedState.BLANK)
+			{
+				order[symbol] = position++;
+			}
+		}
+		final int[] tiles = new int[position];
+		position = 0;
+		for (int cell = 0;cell < PackedState.CELLS;cell++)
+		{
+			final int symbol = PackedState.symbolAt(start, cell);
+			if (symbol != PackedState.BLANK)
+			{
+				tiles[position++] = order[symbol];
+			}
+		}
+		int inversions = 0;
+		for (int i = 0;i < tiles.length;i++)
+		{
+			for (int j = i + 1;j < tiles.length;j++)
+			{
+				inversions += (tiles[i] > tiles[j]) ? 1 : 0;
+			}
+		}
+		if ((PackedState.COLUMNS & 1) == 0)
+		{
+			inversions += Math.abs((PackedState.blankOf(start) / PackedState.COLUMNS) -
+			                       (PackedState.blankOf(destination) / PackedState.COLUMNS));
+		}
+		return inversions & 1;
+	}
+}
@@ -0,0 +1,100 @@
+/**
+ * SolveResult records what happened to one puzzle of a batch
+ * A puzzle is either solved, in which case its route is stored in the puzzle, or has the failure which stopped it
+ * A line of a list which could not be read as a puzzle has no puzzle, only the line and its failure
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public class SolveResult
+{
+	/**
+	 * The puzzle this is the result of
+	 */
+	@SuppressWarnings("InstanceVariableOfConcreteClass")
+	private final Puzzle    puzzle;
+	/**
+	 * Why the puzzle was not solved or null if it was
+	 */
+	private final Throwable failure;
+	/**
+	 * The line which could not be read as a puzzle, or null if the puzzle was read
+	 */
+	private final String    line;
+
+	/**
+	 * Constructor for SolveResult
+	 *
+	 * @param puzzle  The puzzle this is the result of
+	 * @param failure Why the puzzle was not solved or null if it was
+	 */
+	public SolveResult(final Puzzle puzzle, final Throwable failure)
+	{
+		this(puzzle, failure, null);
+	}
+
+	/**
+	 * Constructor for SolveResult
+	 *
+	 * @param puzzle  The puzzle this is the result of, or null if it could not be read
+	 * @param failure Why the puzzle was not solved or null if it was
+	 * @param line    The line which could not be read as a puzzle, or null if the puzzle was read
+	 */
+	private SolveResult(final Puzzle puzzle, final Throwable failure, final String line)
+	{
+		this.puzzle = puzzle;
+		this.failure = failure;
+		this.line = line;
+	}
+
+	/**
+	 * Builds the result of a line which could not be read as a puzzle
+	 *
+	 * @param line The line
+	 *
+	 * @return A failed result without a puzzle
+	 */
+	public static SolveResult unreadable(final String line)
+	{
+		return new SolveResult(null, new IllegalArgumentException("Invalid puzzle: " + line), line);
+	}
+
+	/**
+	 * Getter for the puzzle
+	 *
+	 * @return The puzzle this is the result of, or null if the line could not be read as a puzzle
+	 */
+	@SuppressWarnings("MethodReturnOfConcreteClass")
+	public Puzzle getPuzzle()
+	{
+		return this.puzzle;
+	}
+
+	/**
+	 * Getter for the line which could not be read as a puzzle
+	 *
+	 * @return The line, or null if the puzzle was read
+	 */
+	public String getLine()
+	{
+		return this.line;
+	}
+
+	/**
+	 * Getter for the failure
+	 *
+	 * @return Why the puzzle was not solved or null if it was
+	 */
+	public Throwable getFailure()
+	{
+		return this.failure;
+	}
+
+	/**
+	 * Tests whether the puzzle was solved
+	 *
+	 * @return true if the route of the puzzle has been found
+	 */
+	public boolean isSolved()
+	{
+		return this.failure == null;
+	}
+}
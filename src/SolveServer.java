@@ -0,0 +1,949 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SolveServer answers requests to solve puzzles over HTTP for as long as it runs, so the pattern databases, the
+ * solution cache and the compiled code are reused by every request instead of being rebuilt by a new process
+ * It listens on the loopback address only. GET PATH?puzzle=start2destination solves one puzzle; POST PATH solves one
+ * puzzle per line of the body. The format parameter chooses between MOVES, a line per puzzle holding the number of
+ * jumps and the direction of each jump of the '_', and ROWS, the 4 row layout of the exported solution files with a
+ * blank line after each puzzle. The status is 200 when every puzzle is solved, 422 when any is not, 400 when a
+ * request cannot be read and 413 when it holds more than MAX_PUZZLES puzzles or MAX_BODY_BYTES bytes.
+ * At most maxQueued puzzles are admitted at once, from the time their request is read until they are solved or dropped;
+ * a request for more puzzles than are free is refused with 503, so clients cannot queue work without limit in front of
+ * the solver pool.
+ * Requests arriving within BATCH_WINDOW_NANOS of each other are gathered into a batch of up to BATCH_SIZE puzzles;
+ * each distinct puzzle of a batch is solved once on a fixed pool of solver threads and answers every request for it.
+ * Each exchange is handled on a virtual thread where the JVM has them, so a waiting client costs a little memory
+ * rather than a platform thread, and only the solver pool, sized to the cores, searches. A request gives up after
+ * the timeout parameter, in milliseconds, with status 504; once every request for a puzzle has given up, the search
+ * of that puzzle is cancelled through its Cancellation.
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public class SolveServer implements Closeable
+{
+	/**
+	 * Port listened on when none is given
+	 */
+	public static final  int    DEFAULT_PORT       = 8111;
+	/**
+	 * Path of the solve service
+	 */
+	public static final  String PATH               = "/solve";
+	/**
+	 * Format giving the number of jumps and the direction of each jump of the '_'
+	 */
+	public static final  String MOVES              = "moves";
+	/**
+	 * Format giving the 4 rows of every configuration of the route
+	 */
+	public static final  String ROWS               = "rows";
+	/**
+	 * Milliseconds a request waits for its puzzles when it gives no timeout parameter
+	 */
+	public static final  long   DEFAULT_TIMEOUT    = 30000L;
+	/**
+	 * Longest time in milliseconds a request waits for its puzzles; larger timeouts are reduced to it
+	 */
+	public static final  long   MAX_TIMEOUT        = TimeUnit.DAYS.toMillis(1L);
+	/**
+	 * Largest number of puzzles in a request
+	 */
+	public static final  int    MAX_PUZZLES        = 4096;
+	/**
+	 * Number of puzzles admitted at once when no limit is given
+	 */
+	public static final  int    DEFAULT_MAX_QUEUED = MAX_PUZZLES * 4;
+	/**
+	 * Largest number of puzzles in a batch; the puzzles of a larger request are queued in batches of this size
+	 */
+	private static final int    BATCH_SIZE         = 64;
+	/**
+	 * Longest time a batch waits for more requests once its first has arrived
+	 */
+	private static final long   BATCH_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(2L);
+	/**
+	 * Character of each move of the '_', indexed by PackedState move
+	 */
+	private static final String MOVE_CHARS         = "URDL";
+	/**
+	 * HTTP status of a request with a puzzle which could not be solved
+	 */
+	private static final int    UNPROCESSABLE      = 422;
+	/**
+	 * Length of a puzzle in "start2destination" format
+	 */
+	private static final int    PUZZLE_LENGTH      = (PackedState.CELLS * 2) + 1;
+	/**
+	 * Largest body of a request: MAX_PUZZLES puzzles, each ended by "\r\n"
+	 */
+	private static final int    MAX_BODY_BYTES     = MAX_PUZZLES * (PUZZLE_LENGTH + 2);
+
+	/**
+	 * The method to solve each puzzle with
+	 */
+	private final SearchMethod                      method;
+	/**
+	 * Routes solved before, consulted before searching, or null to always search
+	 */
+	private final SolutionCache                     cache;
+	/**
+	 * The HTTP server
+	 */
+	private final HttpServer                        server;
+	/**
+	 * Threads handling HTTP exchanges, which wait for their puzzles to be solved; virtual where the JVM has them
+	 */
+	private final ExecutorService                   handlers;
+	/**
+	 * Threads solving puzzles
+	 */
+	private final ThreadPoolExecutor                solvers;
+	/**
+	 * Largest number of puzzles admitted at once
+	 */
+	private final int                               maxQueued;
+	/**
+	 * A permit for each puzzle which may still be admitted
+	 */
+	private final Semaphore                         admitted;
+	/**
+	 * Puzzles of each request waiting to be batched, never more than maxQueued
+	 */
+	private final BlockingQueue<List<SolveRequest>> pending;
+	/**
+	 * Gathers waiting requests into batches
+	 */
+	private final Thread                            dispatcher;
+	/**
+	 * Number of batches dispatched
+	 */
+	private final AtomicLong                        batches = new AtomicLong();
+	/**
+	 * Number of distinct puzzles solved
+	 */
+	private final AtomicLong                        solves  = new AtomicLong();
+
+	/**
+	 * Constructor for SolveServer admitting DEFAULT_MAX_QUEUED puzzles at once
+	 * The server does not answer until it is started
+	 *
+	 * @param port    The port to listen on, or 0 for any free port
+	 * @param method  The method to solve each puzzle with
+	 * @param workers The number of solver threads
+	 * @param cache   Routes solved before, which is given every new route, or null to always search
+	 *
+	 * @throws IOException if the port cannot be listened on
+	 */
+	public SolveServer(final int port, final SearchMethod method, final int workers, final SolutionCache cache)
+			throws IOException
+	{
+		this(port, method, workers, cache, DEFAULT_MAX_QUEUED);
+	}
+
+	/**
+	 * Constructor for SolveServer
+	 * The server does not answer until it is started
+	 *
+	 * @param port      The port to listen on, or 0 for any free port
+	 * @param method    The method to solve each puzzle with
+	 * @param workers   The number of solver threads
+	 * @param cache     Routes solved before, which is given every new route, or null to always search
+	 * @param maxQueued The largest number of puzzles admitted at once
+	 *
+	 * @throws IOException if the port cannot be listened on
+	 */
+	public SolveServer(final int port, final SearchMethod method, final int workers, final SolutionCache cache,
+	                   final int maxQueued) throws IOException
+	{
+		if (workers < 1)
+		{
+			throw new IllegalArgumentException("At least one worker is required");
+		}
+		if (maxQueued < 1)
+		{
+			throw new IllegalArgumentException("At least one puzzle must be admitted");
+		}
+		this.method = method;
+		this.cache = cache;
+		this.maxQueued = maxQueued;
+		this.admitted = new Semaphore(maxQueued);
+		//Each queued chunk and each queued search holds at least one permit, so neither queue can fill
+		this.pending = new LinkedBlockingQueue<List<SolveRequest>>(maxQueued);
+		this.solvers = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+		                                      new LinkedBlockingQueue<Runnable>(maxQueued));
+		this.handlers = SolveServer.newHandlerExecutor();
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		this.server.setExecutor(this.handlers);
+		this.server.createContext(PATH, new HttpHandler()
+		{
+			@Override
+			public void handle(final HttpExchange exchange) throws IOException
+			{
+				SolveServer.this.handle(exchange);
+			}
+		});
+		this.dispatcher = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				SolveServer.this.dispatch();
+			}
+		}, "solve-dispatcher");
+		this.dispatcher.setDaemon(true);
+	}
+
+	/**
+	 * Creates the executor handling HTTP exchanges
+	 * Executors.newVirtualThreadPerTaskExecutor is looked up at run time so the server still runs on JVMs from
+	 * before Java 21, where each exchange is handled on a pooled platform thread instead
+	 *
+	 * @return A virtual thread per task executor, or a cached thread pool where virtual threads are not available
+	 */
+	private static ExecutorService newHandlerExecutor()
+	{
+		try
+		{
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		}
+		catch (final NoSuchMethodException ignored)
+		{
+			return Executors.newCachedThreadPool();
+		}
+		catch (final IllegalAccessException ignored)
+		{
+			return Executors.newCachedThreadPool();
+		}
+		catch (final InvocationTargetException ignored)
+		{
+			return Executors.newCachedThreadPool();
+		}
+	}
+
+	/**
+	 * Starts answering requests
+	 */
+	public void start()
+	{
+		this.dispatcher.start();
+		this.server.start();
+	}
+
+	/**
+	 * Getter for the port listened on
+	 *
+	 * @return The port
+	 */
+	public int getPort()
+	{
+		return this.server.getAddress().getPort();
+	}
+
+	/**
+	 * Getter for the number of batches dispatched
+	 *
+	 * @return The number of batches
+	 */
+	public long getBatches()
+	{
+		return this.batches.get();
+	}
+
+	/**
+	 * Getter for the number of distinct puzzles solved, once per batch
+	 *
+	 * @return The number of puzzles
+	 */
+	public long getSolves()
+	{
+		return this.solves.get();
+	}
+
+	/**
+	 * Getter for the number of puzzles admitted and not yet solved or dropped
+	 *
+	 * @return The number of puzzles
+	 */
+	public int getQueued()
+	{
+		return this.maxQueued - this.admitted.availablePermits();
+	}
+
+	/**
+	 * Reads the puzzles and format of an exchange, waits for the puzzles to be solved and writes the response
+	 *
+	 * @param exchange The HTTP exchange
+	 *
+	 * @throws IOException if the exchange cannot be read or written
+	 */
+	private void handle(final HttpExchange exchange) throws IOException
+	{
+		try
+		{
+			final Map<String, String> query = SolveServer.parseQuery(exchange.getRequestURI().getRawQuery());
+			final String format = query.containsKey("format") ? query.get("format") : MOVES;
+			final long timeout = query.containsKey("timeout") ? SolveServer.parseTimeout(query.get("timeout")) :
+			                     DEFAULT_TIMEOUT;
+			final List<String> puzzles = new ArrayList<String>();
+			if ("GET".equals(exchange.getRequestMethod()) && query.containsKey("puzzle"))
+			{
+				puzzles.add(query.get("puzzle"));
+			}
+			else if ("POST".equals(exchange.getRequestMethod()))
+			{
+				final byte[] body = SolveServer.readBody(exchange);
+				if (body == null)
+				{
+					SolveServer.respond(exchange, HttpURLConnection.HTTP_ENTITY_TOO_LARGE,
+					                    "Body is larger than " + MAX_BODY_BYTES + " bytes\n");
+					return;
+				}
+				final BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+				                                                                       "UTF-8"));
+				for (String line = reader.readLine();line != null;line = reader.readLine())
+				{
+					if (!line.trim().isEmpty())
+					{
+						puzzles.add(line.trim());
+					}
+				}
+			}
+			else
+			{
+				SolveServer.respond(exchange, HttpURLConnection.HTTP_BAD_METHOD,
+				                    "GET " + PATH + "?puzzle=start2destination or POST a puzzle per line\n");
+				return;
+			}
+			if (puzzles.size() > MAX_PUZZLES)
+			{
+				SolveServer.respond(exchange, HttpURLConnection.HTTP_ENTITY_TOO_LARGE,
+				                    "More than " + MAX_PUZZLES + " puzzles\n");
+				return;
+			}
+			final String error = (timeout < 0L) ? ("Invalid timeout: " + query.get("timeout")) :
+			                     SolveServer.validate(puzzles, format);
+			if (error != null)
+			{
+				SolveServer.respond(exchange, HttpURLConnection.HTTP_BAD_REQUEST, error + '\n');
+				return;
+			}
+			if (!this.admitted.tryAcquire(puzzles.size()))
+			{
+				exchange.getResponseHeaders().set("Retry-After", "1");
+				SolveServer.respond(exchange, HttpURLConnection.HTTP_UNAVAILABLE,
+				                    "Too busy to take " + puzzles.size() + " more puzzles\n");
+				return;
+			}
+			final List<SolveRequest> requests = new ArrayList<SolveRequest>(puzzles.size());
+			for (final String puzzle : puzzles)
+			{
+				requests.add(new SolveRequest(puzzle));
+			}
+			for (int i = 0;i < requests.size();i += BATCH_SIZE)
+			{
+				this.pending.add(new ArrayList<SolveRequest>(requests.subList(i, Math.min(i + BATCH_SIZE,
+				                                                                          requests.size()))));
+			}
+			if (!SolveServer.awaitAll(requests, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout)))
+			{
+				SolveServer.respond(exchange, HttpURLConnection.HTTP_GATEWAY_TIMEOUT,
+				                    "Not solved within " + timeout + " ms\n");
+				return;
+			}
+			final StringBuilder body = new StringBuilder();
+			int status = HttpURLConnection.HTTP_OK;
+			for (final SolveRequest request : requests)
+			{
+				if (request.getFailure() == null)
+				{
+					body.append(ROWS.equals(format) ? SolveServer.rowsOf(request.getPuzzle()) :
+					            SolveServer.movesOf(request.getPuzzle()));
+				}
+				else
+				{
+					body.append("UNSOLVED ").append(request.getFailure().getMessage()).append('\n');
+					status = UNPROCESSABLE;
+				}
+			}
+			SolveServer.respond(exchange, status, body.toString());
+		}
+		catch (final InterruptedException exception)
+		{
+			Thread.currentThread().interrupt();
+			SolveServer.respond(exchange, HttpURLConnection.HTTP_UNAVAILABLE, "Server stopping\n");
+		}
+	}
+
+	/**
+	 * Waits for every puzzle of a request to be solved or to fail
+	 * A request which gives up abandons all of its puzzles, so the search of any puzzle which nobody else is waiting
+	 * for is cancelled
+	 *
+	 * @param requests The puzzles of the request
+	 * @param deadline System.nanoTime by which every puzzle must be done
+	 *
+	 * @return true if every puzzle is done, false if the deadline passed first
+	 *
+	 * @throws InterruptedException if the handler is interrupted whilst waiting
+	 */
+	private static boolean awaitAll(final List<SolveRequest> requests, final long deadline) throws InterruptedException
+	{
+		boolean done = false;
+		try
+		{
+			for (final SolveRequest request : requests)
+			{
+				if (!request.await(deadline - System.nanoTime()))
+				{
+					return false;
+				}
+			}
+			done = true;
+			return true;
+		}
+		finally
+		{
+			if (!done)
+			{
+				for (final SolveRequest request : requests)
+				{
+					request.abandon();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads the timeout parameter of a request
+	 *
+	 * @param timeout The parameter
+	 *
+	 * @return The timeout in milliseconds, at most MAX_TIMEOUT, or -1 if it is not a number of milliseconds
+	 */
+	private static long parseTimeout(final String timeout)
+	{
+		try
+		{
+			//Clamped so the deadline of the request cannot overflow
+			return Math.max(-1L, Math.min(MAX_TIMEOUT, Long.parseLong(timeout)));
+		}
+		catch (final NumberFormatException ignored)
+		{
+			return -1L;
+		}
+	}
+
+	/**
+	 * Reads the body of a request, refusing one larger than MAX_BODY_BYTES without buffering it
+	 * Up to MAX_BODY_BYTES more of a refused body are read and discarded, so a client which is still sending it
+	 * receives the refusal rather than a reset connection
+	 *
+	 * @param exchange The HTTP exchange
+	 *
+	 * @return The body, or null if it is too large
+	 *
+	 * @throws IOException if the body cannot be read
+	 */
+	private static byte[] readBody(final HttpExchange exchange) throws IOException
+	{
+		final InputStream input = exchange.getRequestBody();
+		final byte[] buffer = new byte[8192];
+		final String length = exchange.getRequestHeaders().getFirst("Content-Length");
+		try
+		{
+			if ((length != null) && (Long.parseLong(length.trim()) > MAX_BODY_BYTES))
+			{
+				SolveServer.discard(input, buffer);
+				return null;
+			}
+		}
+		catch (final NumberFormatException ignored)
+		{
+			//Counted as it is read instead
+		}
+		final ByteArrayOutputStream body = new ByteArrayOutputStream();
+		for (int read = input.read(buffer);read >= 0;read = input.read(buffer))
+		{
+			body.write(buffer, 0, read);
+			if (body.size() > MAX_BODY_BYTES)
+			{
+				SolveServer.discard(input, buffer);
+				return null;
+			}
+		}
+		return body.toByteArray();
+	}
+
+	/**
+	 * Reads and discards up to MAX_BODY_BYTES of the rest of a refused body
+	 *
+	 * @param input  The body
+	 * @param buffer Space to read into
+	 *
+	 * @throws IOException if the body cannot be read
+	 */
+	private static void discard(final InputStream input, final byte[] buffer) throws IOException
+	{
+		long discarded = 0L;
+		for (int read = input.read(buffer);(read >= 0) && (discarded < MAX_BODY_BYTES);read = input.read(buffer))
+		{
+			discarded += read;
+		}
+	}
+
+	/**
+	 * Checks the puzzles and format of a request
+	 *
+	 * @param puzzles The puzzles
+	 * @param format  The format
+	 *
+	 * @return Why the request cannot be answered, or null if it can
+	 */
+	private static String validate(final List<String> puzzles, final String format)
+	{
+		if (!MOVES.equals(format) && !ROWS.equals(format))
+		{
+			return "Unknown format: " + format;
+		}
+		if (puzzles.isEmpty())
+		{
+			return "No puzzle given";
+		}
+		for (final String puzzle : puzzles)
+		{
+			//Puzzle quits the application on an invalid configuration, so it must only be given valid ones
+			if (!PuzzleReader.isValid(puzzle))
+			{
+				return "Invalid puzzle: " + puzzle;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Splits a query string into its parameters
+	 *
+	 * @param query The raw query or null
+	 *
+	 * @return The decoded value of each parameter
+	 *
+	 * @throws UnsupportedEncodingException never, as UTF-8 is always supported
+	 */
+	private static Map<String, String> parseQuery(final String query) throws UnsupportedEncodingException
+	{
+		final Map<String, String> parameters = new LinkedHashMap<String, String>();
+		if (query != null)
+		{
+			for (final String parameter : query.split("&"))
+			{
+				final int equals = parameter.indexOf('=');
+				if (equals > 0)
+				{
+					parameters.put(URLDecoder.decode(parameter.substring(0, equals), "UTF-8"),
+					               URLDecoder.decode(parameter.substring(equals + 1), "UTF-8"));
+				}
+			}
+		}
+		return parameters;
+	}
+
+	/**
+	 * Writes a text response and ends an exchange
+	 *
+	 * @param exchange The HTTP exchange
+	 * @param status   The HTTP status
+	 * @param body     The text of the response
+	 *
+	 * @throws IOException if the response cannot be written
+	 */
+	private static void respond(final HttpExchange exchange, final int status, final String body) throws IOException
+	{
+		final byte[] bytes = body.getBytes("UTF-8");
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		final OutputStream stream = exchange.getResponseBody();
+		try
+		{
+			stream.write(bytes);
+		}
+		finally
+		{
+			stream.close();
+		}
+	}
+
+	/**
+	 * Formats a solved puzzle as its number of jumps and the direction of each jump of the '_'
+	 *
+	 * @param puzzle The solved puzzle
+	 *
+	 * @return A single line
+	 */
+	public static String movesOf(final Puzzle puzzle)
+	{
+		final List<PuzzleConfiguration> route = puzzle.getRoute();
+		final StringBuilder line = new StringBuilder(route.size() + 4);
+		line.append(route.size() - 1).append(' ');
+		for (int i = 1;i < route.size();i++)
+		{
+			line.append(MOVE_CHARS.charAt(PackedState.moveBetween(route.get(i - 1).getState(),
+			                                                       route.get(i).getState())));
+		}
+		return line.append('\n').toString();
+	}
+
+	/**
+	 * Formats a solved puzzle in the layout of the exported solution files
+	 *
+	 * @param puzzle The solved puzzle
+	 *
+	 * @return The 4 rows followed by a blank line
+	 */
+	public static String rowsOf(final Puzzle puzzle)
+	{
+		final StringBuilder text = new StringBuilder();
+		for (int row = 0;row < PackedState.ROWS;row++)
+		{
+			for (final PuzzleConfiguration configuration : puzzle.getRoute())
+			{
+				text.append(configuration.getRow(row)).append(' ');
+			}
+			text.append('\n');
+		}
+		return text.append('\n').toString();
+	}
+
+	/**
+	 * Body of the dispatcher thread: gathers waiting requests into batches until the server is closed
+	 */
+	private void dispatch()
+	{
+		try
+		{
+			//Queued puzzles which did not fit in the last batch
+			List<SolveRequest> next = this.pending.take();
+			while (true)
+			{
+				final List<SolveRequest> batch = new ArrayList<SolveRequest>(next);
+				next = null;
+				final long deadline = System.nanoTime() + BATCH_WINDOW_NANOS;
+				while (batch.size() < BATCH_SIZE)
+				{
+					final List<SolveRequest> more = this.pending.poll(deadline - System.nanoTime(),
+					                                                  TimeUnit.NANOSECONDS);
+					if (more == null)
+					{
+						break;
+					}
+					if ((batch.size() + more.size()) > BATCH_SIZE)
+					{
+						next = more;
+						break;
+					}
+					batch.addAll(more);
+				}
+				this.solve(batch);
+				if (next == null)
+				{
+					next = this.pending.take();
+				}
+			}
+		}
+		catch (final InterruptedException ignored)
+		{
+			//Closed
+		}
+	}
+
+	/**
+	 * Solves every distinct puzzle of a batch once on the solver threads
+	 *
+	 * @param batch The requests of the batch
+	 */
+	private void solve(final List<SolveRequest> batch)
+	{
+		this.batches.incrementAndGet();
+		final Map<String, List<SolveRequest>> puzzles = new LinkedHashMap<String, List<SolveRequest>>();
+		for (final SolveRequest request : batch)
+		{
+			List<SolveRequest> same = puzzles.get(request.getConfiguration());
+			if (same == null)
+			{
+				same = new ArrayList<SolveRequest>();
+				puzzles.put(request.getConfiguration(), same);
+			}
+			same.add(request);
+		}
+		for (final Map.Entry<String, List<SolveRequest>> entry : puzzles.entrySet())
+		{
+			final SharedSolve shared = new SharedSolve();
+			for (final SolveRequest request : entry.getValue())
+			{
+				request.join(shared);
+			}
+			if (shared.isCancelled())
+			{
+				//Every request for the puzzle gave up whilst it was waiting to be batched
+				this.admitted.release(entry.getValue().size());
+				continue;
+			}
+			this.solvers.execute(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					final Puzzle puzzle = new Puzzle(entry.getKey());
+					puzzle.setCancellation(shared.getCancellation());
+					RuntimeException failure = null;
+					try
+					{
+						if (SolveServer.this.cache == null)
+						{
+							SolveServer.this.method.solve(puzzle);
+						}
+						else
+						{
+							SolveServer.this.cache.solve(puzzle, SolveServer.this.method);
+						}
+					}
+					catch (final RuntimeException exception)
+					{
+						failure = exception;
+					}
+					SolveServer.this.solves.incrementAndGet();
+					//Released first, so a client which has its answer can be admitted again at once
+					SolveServer.this.admitted.release(entry.getValue().size());
+					for (final SolveRequest request : entry.getValue())
+					{
+						request.finish(puzzle, failure);
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * Stops answering requests and stops every thread of the server
+	 * Requests still waiting are answered as the server stopping
+	 */
+	@Override
+	public void close()
+	{
+		this.server.stop(0);
+		this.dispatcher.interrupt();
+		this.solvers.shutdownNow();
+		this.handlers.shutdownNow();
+	}
+
+	/**
+	 * The search of a distinct puzzle of a batch, which is cancelled once every request for it has given up
+	 */
+	private static final class SharedSolve
+	{
+		/**
+		 * Flag asking the search to give up
+		 */
+		private final Cancellation  cancellation = new Cancellation();
+		/**
+		 * Number of requests still waiting for the puzzle
+		 */
+		private final AtomicInteger waiting      = new AtomicInteger();
+
+		/**
+		 * Getter for the flag asking the search to give up
+		 *
+		 * @return The Cancellation
+		 */
+		private Cancellation getCancellation()
+		{
+			return this.cancellation;
+		}
+
+		/**
+		 * Counts a request waiting for the puzzle
+		 */
+		private void join()
+		{
+			this.waiting.incrementAndGet();
+		}
+
+		/**
+		 * Counts a request which has given up waiting, cancelling the search if it was the last
+		 */
+		private void release()
+		{
+			if (this.waiting.decrementAndGet() == 0)
+			{
+				this.cancellation.cancel();
+			}
+		}
+
+		/**
+		 * Tests whether no request is waiting for the puzzle
+		 *
+		 * @return true if the search has been cancelled or was never joined
+		 */
+		private boolean isCancelled()
+		{
+			return (this.waiting.get() == 0) || this.cancellation.isCancelled();
+		}
+	}
+
+	/**
+	 * A single puzzle of a request, which the handler of the request waits on
+	 */
+	private static final class SolveRequest
+	{
+		/**
+		 * The puzzle in "start2destination" format
+		 */
+		private final String           configuration;
+		/**
+		 * Released once the puzzle has been solved or has failed
+		 */
+		private final CountDownLatch   done = new CountDownLatch(1);
+		/**
+		 * The solved puzzle, set before done is released
+		 */
+		private       Puzzle           puzzle;
+		/**
+		 * Why the puzzle was not solved or null if it was, set before done is released
+		 */
+		private       RuntimeException failure;
+		/**
+		 * The search this request waits for, or null before it is batched
+		 */
+		private       SharedSolve      shared;
+		/**
+		 * Whether the handler has given up waiting
+		 */
+		private       boolean          abandoned;
+
+		/**
+		 * Constructor for SolveRequest
+		 *
+		 * @param configuration The puzzle in "start2destination" format
+		 */
+		private SolveRequest(final String configuration)
+		{
+			this.configuration = configuration;
+		}
+
+		/**
+		 * Getter for the puzzle in "start2destination" format
+		 *
+		 * @return The configuration
+		 */
+		private String getConfiguration()
+		{
+			return this.configuration;
+		}
+
+		/**
+		 * Records the outcome and releases the handler
+		 *
+		 * @param puzzle  The puzzle
+		 * @param failure Why the puzzle was not solved or null if it was
+		 */
+		private void finish(final Puzzle puzzle, final RuntimeException failure)
+		{
+			this.puzzle = puzzle;
+			this.failure = failure;
+			this.done.countDown();
+		}
+
+		/**
+		 * Waits for the search of the puzzle of a batch, unless the handler has already given up
+		 *
+		 * @param search The search of the puzzle
+		 */
+		private synchronized void join(final SharedSolve search)
+		{
+			if (!this.abandoned)
+			{
+				this.shared = search;
+				search.join();
+			}
+		}
+
+		/**
+		 * Gives up waiting, releasing the search of the puzzle if it has been batched
+		 */
+		private synchronized void abandon()
+		{
+			if (!this.abandoned)
+			{
+				this.abandoned = true;
+				if (this.shared != null)
+				{
+					this.shared.release();
+				}
+			}
+		}
+
+		/**
+		 * Waits for the outcome
+		 *
+		 * @param nanos The longest time to wait in nanoseconds
+		 *
+		 * @return true if the outcome is known, false if the time passed first
+		 *
+		 * @throws InterruptedException if the handler is interrupted whilst waiting
+		 */
+		private boolean await(final long nanos) throws InterruptedException
+		{
+			return this.done.await(nanos, TimeUnit.NANOSECONDS);
+		}
+
+		/**
+		 * Getter for the solved puzzle
+		 *
+		 * @return The puzzle
+		 */
+		private Puzzle getPuzzle()
+		{
+			return this.puzzle;
+		}
+
+		/**
+		 * Getter for why the puzzle was not solved
+		 *
+		 * @return The failure or null
+		 */
+		private RuntimeException getFailure()
+		{
+			return this.failure;
+		}
+	}
+}
@@ -0,0 +1,236 @@
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * StreamingSolver solves a list of puzzles of any length in constant memory
+ * The calling thread reads puzzles one at a time and hands them to a fixed number of workers through a bounded queue,
+ * solving a puzzle itself whenever the queue is full. Workers pass each result through a second bounded queue to a
+ * single writer thread which hands it to a SolutionSink, so results are written in the order they complete and no
+ * puzzle is held once it has been written.
+ * A line which cannot be read as a puzzle is handed to the sink as a failed SolveResult without a puzzle, so one bad
+ * line does not end the run and lose the results already solved.
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public class StreamingSolver
+{
+	/**
+	 * Number of puzzles, and of results, that may wait in each queue for each worker
+	 */
+	private static final int         QUEUE_PER_WORKER = 4;
+	/**
+	 * Placed on the result queue after the last result
+	 */
+	private static final SolveResult END              = new SolveResult(null, null);
+
+	/**
+	 * The method to solve each puzzle with
+	 */
+	private final SearchMethod  method;
+	/**
+	 * The number of worker threads
+	 */
+	private final int           workers;
+	/**
+	 * Routes solved before, consulted before searching, or null to always search
+	 */
+	private final SolutionCache cache;
+
+	/**
+	 * Constructor for StreamingSolver
+	 *
+	 * @param method  The method to solve each puzzle with
+	 * @param workers The number of worker threads
+	 */
+	public StreamingSolver(final SearchMethod method, final int workers)
+	{
+		this(method, workers, null);
+	}
+
+	/**
+	 * Constructor for StreamingSolver which looks each puzzle up in a SolutionCache before searching
+	 *
+	 * @param method  The method to solve each puzzle with when its route is not cached
+	 * @param workers The number of worker threads
+	 * @param cache   Routes solved before, which is given every new route, or null to always search
+	 */
+	public StreamingSolver(final SearchMethod method, final int workers, final SolutionCache cache)
+	{
+		if (workers < 1)
+		{
+			throw new IllegalArgumentException("At least one worker is required");
+		}
+		this.method = method;
+		this.workers = workers;
+		this.cache = cache;
+	}
+
+	/**
+	 * Solves every puzzle of a list, handing each result to a sink as soon as the puzzle finishes
+	 * A puzzle which fails, or a line which is not a puzzle, is passed to the sink with its failure and does not stop
+	 * the others
+	 * Once the sink has failed, later results are discarded and the failure is thrown when the list is finished
+	 *
+	 * @param reader The list of puzzles, which is read to the end but not closed
+	 * @param sink   Receives every result from a single thread
+	 *
+	 * @return The number of puzzles read, including lines which could not be read as puzzles
+	 *
+	 * @throws IOException          if the list cannot be read or the sink cannot write a result
+	 * @throws InterruptedException if the calling thread is interrupted whilst waiting for the workers
+	 */
+	@SuppressWarnings("FeatureEnvy")
+	public long solve(final PuzzleReader reader, final SolutionSink sink) throws IOException, InterruptedException
+	{
+		final BlockingQueue<SolveResult> results = new ArrayBlockingQueue<SolveResult>(this.workers *
+		                                                                               QUEUE_PER_WORKER);
+		final AtomicReference<Exception> sinkFailure = new AtomicReference<Exception>();
+		final Thread writer = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				StreamingSolver.drain(results, sink, sinkFailure);
+			}
+		}, "solution-writer");
+		writer.start();
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(this.workers, this.workers, 0L,
+		                                                           TimeUnit.MILLISECONDS,
+		                                                           new ArrayBlockingQueue<Runnable>(
+				                                                           this.workers * QUEUE_PER_WORKER),
+		                                                           new CallerRunsPolicy());
+		long count = 0L;
+		try
+		{
+			String line = reader.nextLine();
+			while (line != null)
+			{
+				if (PuzzleReader.isValid(line))
+				{
+					executor.execute(this.task(new Puzzle(line), results));
+				}
+				else
+				{
+					results.put(SolveResult.unreadable(line));
+				}
+				count++;
+				line = reader.nextLine();
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+			try
+			{
+				executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+				results.put(END);
+				writer.join();
+			}
+			finally
+			{
+				if (writer.isAlive())
+				{
+					executor.shutdownNow();
+					writer.interrupt();
+				}
+			}
+		}
+		final Exception failure = sinkFailure.get();
+		if (failure instanceof IOException)
+		{
+			throw (IOException) failure;
+		}
+		if (failure != null)
+		{
+			throw (RuntimeException) failure;
+		}
+		return count;
+	}
+
+	/**
+	 * Creates the task which solves a puzzle and queues its result
+	 *
+	 * @param puzzle  The puzzle to solve
+	 * @param results The queue read by the writer
+	 *
+	 * @return The task
+	 */
+	private Runnable task(final Puzzle puzzle, final BlockingQueue<SolveResult> results)
+	{
+		return new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				Throwable failure = null;
+				try
+				{
+					if (StreamingSolver.this.cache == null)
+					{
+						StreamingSolver.this.method.solve(puzzle);
+					}
+					else
+					{
+						StreamingSolver.this.cache.solve(puzzle, StreamingSolver.this.method);
+					}
+				}
+				catch (final RuntimeException exception)
+				{
+					failure = exception;
+				}
+				try
+				{
+					results.put(new SolveResult(puzzle, failure));
+				}
+				catch (final InterruptedException exception)
+				{
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+	}
+
+	/**
+	 * Body of the writer thread: hands results to the sink until END is taken
+	 *
+	 * @param results     The queue filled by the workers
+	 * @param sink        Receives every result
+	 * @param sinkFailure Set to the first exception thrown by the sink
+	 */
+	private static void drain(final BlockingQueue<SolveResult> results,
+	                          final SolutionSink sink,
+	                          final AtomicReference<Exception> sinkFailure)
+	{
+		try
+		{
+			SolveResult result = results.take();
+			while (result != END)
+			{
+				if (sinkFailure.get() == null)
+				{
+					try
+					{
+						sink.accept(result);
+					}
+					catch (final IOException exception)
+					{
+						sinkFailure.set(exception);
+					}
+					catch (final RuntimeException exception)
+					{
+						sinkFailure.set(exception);
+					}
+				}
+				result = results.take();
+			}
+		}
+		catch (final InterruptedException exception)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,226 @@
+/**
+ * Symmetry is a transformation of the board which maps every route onto another route of the same length
+ * The 4x3 board can be mirrored left to right and rotated by 180 degrees, which together with their combination
+ * (mirroring top to bottom) give 4 placements of the cells. Any relabelling of the letters a, b, c and d applied to
+ * both ends of a puzzle also keeps its routes, giving 96 symmetries in all.
+ * Puzzles in the same class are solved once through their canonical form. Letters are relabelled in the order they
+ * are first read, which leaves 4 candidates; the one with the smallest destination is taken, so every destination of a
+ * class shares a single distance table, and ties are broken on the start.
+ */
+@SuppressWarnings("PublicMethodNotExposedInInterface")
+public final class Symmetry
+{
+	/**
+	 * Number of placements of the cells
+	 */
+	private static final int      PLACEMENTS = 4;
+	/**
+	 * Leaves every state unchanged
+	 */
+	public static final  Symmetry IDENTITY   = new Symmetry(Symmetry.placement(false, false),
+	                                                        new int[]{0, 1, 2, 3, 4});
+
+	/**
+	 * Cell each cell is moved to
+	 */
+	private final int[] cells;
+	/**
+	 * Symbol each symbol is relabelled to; the '_' is never relabelled
+	 */
+	private final int[] symbols;
+
+	/**
+	 * Constructor for Symmetry
+	 *
+	 * @param cells   Cell each cell is moved to
+	 * @param symbols Symbol each symbol is relabelled to
+	 */
+	private Symmetry(final int[] cells, final int[] symbols)
+	{
+		this.cells = cells;
+		this.symbols = symbols;
+	}
+
+	/**
+	 * Builds a placement of the cells
+	 *
+	 * @param mirrorColumns Whether the columns are reversed
+	 * @param mirrorRows    Whether the rows are reversed
+	 *
+	 * @return Cell each cell is moved to
+	 */
+	private static int[] placement(final boolean mirrorColumns, final boolean mirrorRows)
+	{
+		final int[] cells = new int[PackedState.CELLS];
+		for (int cell = 0;cell < PackedState.CELLS;cell++)
+		{
+			final int row = cell / PackedState.COLUMNS;
+			final int column = cell % PackedState.COLUMNS;
+			cells[cell] = ((mirrorRows ? (PackedState.ROWS - 1 - row) : row) * PackedState.COLUMNS) +
+			              (mirrorColumns ? (PackedState.COLUMNS - 1 - column) : column);
+		}
+		return cells;
+	}
+
+	/**
+	 * Finds the symmetry which takes a destination to the canonical form of its class
+	 *
+	 * @param destination The packed destination state
+	 *
+	 * @return The symmetry
+	 */
+	public static Symmetry canonical(final long destination)
+	{
+		return Symmetry.canonical(destination, destination);
+	}
+
+	/**
+	 * Finds the symmetry which takes a puzzle to the canonical form of its class
+	 * The destination alone decides between placements unless it is itself symmetric
+	 *
+	 * @param start       The packed start state
+	 * @param destination The packed destination state
+	 *
+	 * @return The symmetry
+	 */
+	public static Symmetry canonical(final long start, final long destination)
+	{
+		Symmetry best = null;
+		long bestDestination = Long.MAX_VALUE;
+		long bestStart = Long.MAX_VALUE;
+		for (int i = 0;i < PLACEMENTS;i++)
+		{
+			final int[] cells = Symmetry.placement((i & 1) != 0, (i & 2) != 0);
+			final Symmetry placed = new Symmetry(cells, Symmetry.relabelling(cells, destination, start));
+			final long placedDestination = placed.apply(destination);
+			final long placedStart = placed.apply(start);
+			if ((placedDestination < bestDestination) ||
+			    ((placedDestination == bestDestination) && (placedStart < bestStart)))
+			{
+				best = placed;
+				bestDestination = placedDestination;
+				bestStart = placedStart;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Relabels letters in the order they are first met reading the placed destination and then the placed start
+	 * Letters met in neither are given the remaining labels in order
+	 *
+	 * @param cells       Cell each cell is moved to
+	 * @param destination The packed destination state
+	 * @param start       The packed start state
+	 *
+	 * @return Symbol each symbol is relabelled to
+	 */
+	private static int[] relabelling(final int[] cells, final long destination, final long start)
+	{
+		final int[] from = new int[PackedState.CELLS];
+		for (int cell = 0;cell < PackedState.CELLS;cell++)
+		{
+			from[cells[cell]] = cell;
+		}
+		final int[] symbols = new int[PackedState.SYMBOLS];
+		int next = PackedState.BLANK + 1;
+		for (final long state : new long[]{destination, start})
+		{
+			for (int cell = 0;cell < PackedState.CELLS;cell++)
+			{
+				final int symbol = PackedState.symbolAt(state, from[cell]);
+				if ((symbol != PackedState.BLANK) && (symbols[symbol] == 0))
+				{
+					symbols[symbol] = next++;
+				}
+			}
+		}
+		for (int symbol = PackedState.BLANK + 1;symbol < PackedState.SYMBOLS;symbol++)
+		{
+			if (symbols[symbol] == 0)
+			{
+				symbols[symbol] = next++;
+			}
+		}
+		return symbols;
+	}
+
+	/**
+	 * Transforms a state
+	 *
+	 * @param state The packed state
+	 *
+	 * @return The transformed packed state
+	 */
+	public long apply(final long state)
+	{
+		long transformed = 0L;
+		for (int cell = 0;cell < PackedState.CELLS;cell++)
+		{
+			transformed |= ((long) this.symbols[PackedState.symbolAt(state, cell)]) <<
+			               (this.cells[cell] * PackedState.BITS_PER_CELL);
+		}
+		return PackedState.withBlank(transformed, this.cells[PackedState.blankOf(state)]);
+	}
+
+	/**
+	 * Transforms every state of a route
+	 *
+	 * @param states Packed states
+	 *
+	 * @return A new array of the transformed states
+	 */
+	public long[] apply(final long[] states)
+	{
+		final long[] transformed = new long[states.length];
+		for (int i = 0;i < states.length;i++)
+		{
+			transformed[i] = this.apply(states[i]);
+		}
+		return transformed;
+	}
+
+	/**
+	 * Gets the symmetry which undoes this one
+	 *
+	 * @return The inverse symmetry
+	 */
+	public Symmetry inverse()
+	{
+		final int[] cells = new int[PackedState.CELLS];
+		for (int cell = 0;cell < PackedState.CELLS;cell++)
+		{
+			cells[this.cells[cell]] = cell;
+		}
+		final int[] symbols = new int[PackedState.SYMBOLS];
+		for (int symbol = 0;symbol < PackedState.SYMBOLS;symbol++)
+		{
+			symbols[this.symbols[symbol]] = symbol;
+		}
+		return new Symmetry(cells, symbols);
+	}
+
+	/**
+	 * Tests whether this symmetry leaves every state unchanged
+	 *
+	 * @return true for the identity
+	 */
+	public boolean isIdentity()
+	{
+		for (int cell = 0;cell < PackedState.CELLS;cell++)
+		{
+			if (this.cells[cell] != cell)
+			{
+				return false;
+			}
+		}
+		for (int symbol = 0;symbol < PackedState.SYMBOLS;symbol++)
+		{
+			if (this.symbols[symbol] != symbol)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,178 @@
+/**
+ * TileManhattanHeuristic estimates the number of jumps as the sum of the Manhattan distances of every lettered tile
+ * Tiles of the same letter are interchangeable, so each letter's tiles are matched to that letter's destination
+ * cells at the minimum possible total distance
+ * Every jump moves exactly one lettered tile by one cell so this never overestimates, and it changes by at most one
+ * per jump so it is consistent
+ * The minimum matching only depends on which cells hold the letter, so it is precomputed for every set of cells
+ */
+public class TileManhattanHeuristic implements Heuristic
+{
+	/**
+	 * Number of distinct sets of cells
+	 */
+	private static final int    CELL_SETS = 1 << PackedState.CELLS;
+	/**
+	 * Minimum matching distance of each letter, indexed by symbol code then by the bit set of cells holding it
+	 */
+	private final        byte[][] matchingDistance = new byte[PackedState.SYMBOLS][];
+
+	/**
+	 * Constructor for TileManhattanHeuristic
+	 *
+	 * @param destination The packed destination state
+	 */
+	public TileManhattanHeuristic(final long destination)
+	{
+		for (int symbol = 1;symbol < PackedState.SYMBOLS;symbol++)
+		{
+			this.matchingDistance[symbol] = TileManhattanHeuristic.buildMatchingTable(
+					TileManhattanHeuristic.cellsOf(destination, symbol));
+		}
+	}
+
+	/**
+	 * Gets the bit set of cells holding a symbol
+	 *
+	 * @param state  The packed state
+	 * @param symbol The symbol code
+	 *
+	 * @return Bit set with bit i set if cell i holds symbol
+	 */
+	public static int cellsOf(final long state, final int symbol)
+	{
+		int cells = 0;
+		for (int cell = 0;cell < PackedState.CELLS;cell++)
+		{
+			if (PackedState.symbolAt(state, cell) == symbol)
+			{
+				cells |= 1 << cell;
+			}
+		}
+		return cells;
+	}
+
+	/**
+	 * Manhattan distance between 2 cells
+	 *
+	 * @param from The first cell
+	 * @param to   The second cell
+	 *
+	 * @return The number of jumps between the cells
+	 */
+	public static int distance(final int from, final int to)
+	{
+		return Math.abs((from / PackedState.COLUMNS) - (to / PackedState.COLUMNS)) +
+		       Math.abs((from % PackedState.COLUMNS) - (to % PackedState.COLUMNS));
+	}
+
+	/**
+	 * Builds the minimum matching distance to a set of destination cells from every set of cells of the same size
+	 *
+	 * @param targets Bit set of the destination cells of a letter
+	 *
+	 * @return The table indexed by bit set of cells; sets of other sizes are left at 0
+	 */
+	private static byte[] buildMatchingTable(final int targets)
+	{
+		final byte[] table = new byte[CELL_SETS];
+		final int count = Integer.bitCount(targets);
+		if (count == 0)
+		{
+			return table;
+		}
+		final int[] targetCells = TileManhattanHeuristic.toCells(targets);
+		final int[] best = new int[1 << count];
+		for (int cells = 0;cells < CELL_SETS;cells++)
+		{
+			if (Integer.bitCount(cells) == count)
+			{
+				table[cells] = (byte) TileManhattanHeuristic.minimumMatching(
+						TileManhattanHeuristic.toCells(cells), targetCells, best);
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * Dynamic programme over subsets of targets: best[used] is the cheapest way of sending the first
+	 * bitCount(used) tiles to the targets in used
+	 *
+	 * @param cells   Cells of the tiles
+	 * @param targets Destination cells, the same number as cells
+	 * @param best    Scratch array of 2^targets.length entries
+	 *
+	 * @return The minimum total Manhattan distance
+	 */
+	private static int minimumMatching(final int[] cells, final int[] targets, final int[] best)
+	{
+		best[0] = 0;
+		for (int used = 1;used < best.length;used++)
+		{
+			final int tile = cells[Integer.bitCount(used) - 1];
+			int cheapest = Integer.MAX_VALUE;
+			for (int t = 0;t < targets.length;t++)
+			{
+				if ((used & (1 << t)) != 0)
+				{
+					final int cost = best[used & ~(1 << t)] + TileManhattanHeuristic.distance(tile, targets[t]);
+					cheapest = Math.min(cheapest, cost);
+				}
+			}
+			best[used] = cheapest;
+		}
+		return best[best.length - 1];
+	}
+
+	/**
+	 * Lists the cells of a bit set in ascending order
+	 *
+	 * @param cells Bit set of cells
+	 *
+	 * @return The cell indexes
+	 */
+	private static int[] toCells(final int cells)
+	{
+		final int[] list = new int[Integer.bitCount(cells)];
+		int next = 0;
+		for (int cell = 0;cell < PackedState.CELLS;cell++)
+		{
+			if ((cells & (1 << cell)) != 0)
+			{
+				list[next++] = cell;
+			}
+		}
+		return list;
+	}
+
+	@Override
+	public int estimate(final long state)
+	{
+		int aCells = 0;
+		int bCells = 0;
+		int cCells = 0;
+		int dCells = 0;
+		for (int cell = 0;cell < PackedState.CELLS;cell++)
+		{
+			switch (PackedState.symbolAt(state, cell))
+			{
+				case 1:
+					aCells |= 1 << cell;
+					break;
+				case 2:
+					bCells |= 1 << cell;
+					break;
+				case 3:
+					cCells |= 1 << cell;
+					break;
+				case 4:
+					dCells |= 1 << cell;
+					break;
+				default:
+					break;
+			}
+		}
+		return this.matchingDistance[1][aCells] + this.matchingDistance[2][bCells] +
+		       this.matchingDistance[3][cCells] + this.matchingDistance[4][dCells];
+	}
+}
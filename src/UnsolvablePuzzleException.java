@@ -0,0 +1,32 @@
+/**
+ * Thrown when a search runs out of configurations without reaching the destination of a puzzle, or when a puzzle
+ * is found to be unsolvable before it is searched
+ */
+public class UnsolvablePuzzleException extends RuntimeException
+{
+	/**
+	 * Serialisation version
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructor for UnsolvablePuzzleException
+	 *
+	 * @param puzzle The puzzle which could not be solved
+	 */
+	public UnsolvablePuzzleException(final Puzzle puzzle)
+	{
+		super("Unable to finish search for " + puzzle);
+	}
+
+	/**
+	 * Constructor for UnsolvablePuzzleException when a puzzle is rejected before it is searched
+	 *
+	 * @param puzzle The puzzle which cannot be solved
+	 * @param reason Why the puzzle cannot be solved
+	 */
+	public UnsolvablePuzzleException(final Puzzle puzzle, final String reason)
+	{
+		super(reason + ": " + puzzle);
+	}
+}
@@ -0,0 +1,82 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests BidirectionalSearch
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection", "FeatureEnvy"})
+public class BidirectionalSearchTest
+{
+	/**
+	 * Checks that a route runs from start to destination, one move at a time, with the known length
+	 *
+	 * @param start       The packed start state
+	 * @param destination The packed destination state
+	 * @param states      The route found
+	 */
+	private static void assertRoute(final long start, final long destination, final long[] states)
+	{
+		//noinspection UnnecessaryExplicitNumericCast,MagicNumber
+		Assert.assertEquals(15L, (long) states.length);
+		Assert.assertEquals(start, states[0]);
+		Assert.assertEquals(destination, states[states.length - 1]);
+		for (int i = 1;i < states.length;i++)
+		{
+			boolean adjacent = false;
+			for (int move = 0;move < PackedState.MOVES;move++)
+			{
+				adjacent |= PackedState.move(states[i - 1], move) == states[i];
+			}
+			Assert.assertTrue(adjacent);
+		}
+	}
+
+	/**
+	 * Tests bidirectional breadth first search
+	 * @throws Exception
+	 */
+	@Test
+	public void testBreadthFirst() throws Exception
+	{
+		final long start = PackedState.pack("dbaabdc_bddd");
+		final long destination = PackedState.pack("adbdb_abdcdd");
+		final BidirectionalSearch search = new BidirectionalSearch();
+		BidirectionalSearchTest.assertRoute(start, destination, search.breadthFirst(start, destination));
+		Assert.assertTrue(search.getExpandedNodes() > 0L);
+		Assert.assertArrayEquals(new long[]{start}, search.breadthFirst(start, start));
+	}
+
+	/**
+	 * Tests bidirectional A* Search with each heuristic
+	 * @throws Exception
+	 */
+	@Test
+	public void testAStar() throws Exception
+	{
+		final long start = PackedState.pack("dbaabdc_bddd");
+		final long destination = PackedState.pack("adbdb_abdcdd");
+		for (final HeuristicType heuristicType : HeuristicType.values())
+		{
+			final BidirectionalSearch search = new BidirectionalSearch();
+			BidirectionalSearchTest.assertRoute(start, destination,
+			                                    search.aStar(start, destination, heuristicType.create(destination),
+			                                                 heuristicType.create(start)));
+			Assert.assertTrue(search.getExpandedNodes() > 0L);
+		}
+	}
+
+	/**
+	 * Tests that configurations with different letters have no route
+	 * @throws Exception
+	 */
+	@Test
+	public void testNoRoute() throws Exception
+	{
+		final long start = PackedState.pack("dbaabdc_bddd");
+		final long destination = PackedState.pack("adbdb_abdcda");
+		final BidirectionalSearch search = new BidirectionalSearch();
+		Assert.assertNull(search.breadthFirst(start, destination));
+		final Heuristic none = HeuristicType.NONE.create(destination);
+		Assert.assertNull(search.aStar(start, destination, none, none));
+	}
+}
@@ -0,0 +1,127 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Tests BinarySolutionWriter and BinarySolutionReader
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection", "FeatureEnvy"})
+public class BinarySolutionWriterTest
+{
+	/**
+	 * Builds the rows of a solution in the per-puzzle file layout
+	 *
+	 * @param puzzle A solved puzzle
+	 *
+	 * @return The 4 rows of the solution
+	 */
+	private static String[] perFileRows(final Puzzle puzzle)
+	{
+		final String[] rows = new String[PackedState.ROWS];
+		for (int row = 0;row < rows.length;row++)
+		{
+			final StringBuilder text = new StringBuilder();
+			for (final PuzzleConfiguration configuration : puzzle.getRoute())
+			{
+				text.append(configuration.getRow(row)).append(' ');
+			}
+			rows[row] = text.toString();
+		}
+		return rows;
+	}
+
+	/**
+	 * Tests that solutions read back from the binary file expand to the per-puzzle layout, at a fraction of its size
+	 * @throws Exception
+	 */
+	@Test
+	public void testWriteAndRead() throws Exception
+	{
+		final Puzzle first = new Puzzle("dbaabdc_bddd2adbdb_abdcdd");
+		final Puzzle second = new Puzzle("dbbdad_bacdd2bbdddacb_dda");
+		first.solveWithAStarSearch();
+		second.solveWithAStarSearch();
+		final File file = File.createTempFile("solutions", ".bin");
+		try
+		{
+			final BinarySolutionWriter writer = new BinarySolutionWriter(file);
+			try
+			{
+				writer.write(first);
+				//Unsolved puzzles are skipped
+				writer.accept(new SolveResult(new Puzzle("aaaaaaaaaaa_2bbbbbbbbbbb_"),
+				                              new UnsolvablePuzzleException(first)));
+				writer.accept(new SolveResult(second, null));
+			}
+			finally
+			{
+				writer.close();
+			}
+
+			final BinarySolutionReader reader = new BinarySolutionReader(file);
+			try
+			{
+				Assert.assertTrue(reader.next());
+				//noinspection UnnecessaryExplicitNumericCast
+				Assert.assertEquals(14L, (long) reader.getMoveCount());
+				Assert.assertEquals(first.getFilename(), reader.getFilename());
+				Assert.assertEquals(first.getDestinationConfig().getState(), reader.getDestination());
+				Assert.assertArrayEquals(BinarySolutionWriterTest.perFileRows(first), reader.getRows());
+				Assert.assertTrue(reader.next());
+				Assert.assertEquals(second.getFilename(), reader.getFilename());
+				Assert.assertArrayEquals(BinarySolutionWriterTest.perFileRows(second), reader.getRows());
+				Assert.assertFalse(reader.next());
+			}
+			finally
+			{
+				reader.close();
+			}
+
+			long textBytes = 0L;
+			for (final Puzzle puzzle : new Puzzle[]{first, second})
+			{
+				for (final String row : BinarySolutionWriterTest.perFileRows(puzzle))
+				{
+					textBytes += row.length() + 1;
+				}
+			}
+			Assert.assertTrue(file.length() * 10L < textBytes);
+		}
+		finally
+		{
+			//noinspection ResultOfMethodCallIgnored
+			file.delete();
+		}
+	}
+
+	/**
+	 * Tests that a file without the binary solution header is rejected
+	 * @throws Exception
+	 */
+	@Test(expected = IOException.class)
+	public void testRejectsOtherFiles() throws Exception
+	{
+		final File file = File.createTempFile("solutions", ".txt");
+		try
+		{
+			final FileOutputStream out = new FileOutputStream(file);
+			try
+			{
+				out.write("abcd_".getBytes("UTF-8"));
+			}
+			finally
+			{
+				out.close();
+			}
+			new BinarySolutionReader(file).close();
+		}
+		finally
+		{
+			//noinspection ResultOfMethodCallIgnored
+			file.delete();
+		}
+	}
+}
@@ -0,0 +1,83 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Tests BucketOpenList
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "FeatureEnvy"})
+public class BucketOpenListTest
+{
+	/**
+	 * Tests that nodes leave in the same rank and cost order as from the heap, including ranks beyond the first growth
+	 * @throws Exception
+	 */
+	@Test
+	public void testOrderMatchesHeap() throws Exception
+	{
+		final OpenList buckets = OpenListType.BUCKET.create();
+		final OpenList heap = OpenListType.HEAP.create();
+		Assert.assertNull(buckets.poll());
+		Assert.assertNull(buckets.peek());
+		final Random random = new Random(2014L);
+		for (int round = 0;round < 50;round++)
+		{
+			for (int i = 0;i < 40;i++)
+			{
+				final int cost = random.nextInt(60);
+				final SearchNode node = new SearchNode(0L, cost, random.nextInt(40), null);
+				buckets.add(node);
+				heap.add(node);
+			}
+			for (int i = 0;i < 30;i++)
+			{
+				final SearchNode expected = heap.poll();
+				Assert.assertEquals(expected.getRank(), buckets.peek().getRank());
+				final SearchNode node = buckets.poll();
+				Assert.assertEquals(expected.getRank(), node.getRank());
+				Assert.assertEquals(expected.getCost(), node.getCost());
+			}
+			//noinspection UnnecessaryExplicitNumericCast
+			Assert.assertEquals((long) heap.size(), (long) buckets.size());
+		}
+		while (!heap.isEmpty())
+		{
+			Assert.assertEquals(0, heap.poll().compareTo(buckets.poll()));
+		}
+		Assert.assertTrue(buckets.isEmpty());
+	}
+
+	/**
+	 * Tests that a cleared list is empty and can be filled again
+	 * @throws Exception
+	 */
+	@Test
+	public void testClear() throws Exception
+	{
+		for (final OpenListType type : OpenListType.values())
+		{
+			final OpenList list = type.create();
+			for (int cost = 0;cost < 100;cost++)
+			{
+				list.add(new SearchNode(0L, cost, 1, null));
+			}
+			list.clear();
+			Assert.assertTrue(list.isEmpty());
+			Assert.assertNull(list.peek());
+			list.add(new SearchNode(0L, 3, 2, null));
+			//noinspection UnnecessaryExplicitNumericCast
+			Assert.assertEquals(5L, (long) list.poll().getRank());
+		}
+	}
+
+	/**
+	 * Tests that a node whose cost exceeds its rank, which a negative estimate would give, is refused
+	 * @throws Exception
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeEstimate() throws Exception
+	{
+		new BucketOpenList().add(new SearchNode(0L, 5, -1, null));
+	}
+}
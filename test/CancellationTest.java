@@ -0,0 +1,108 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests Cancellation of searches through SearchStats
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection", "FeatureEnvy"})
+public class CancellationTest
+{
+	/**
+	 * A puzzle whose shortest route is 14 jumps
+	 */
+	private static final String PUZZLE = "dbaabdc_bddd2adbdb_abdcdd";
+	/**
+	 * A puzzle whose shortest route is 28 jumps, far beyond an uninformed search
+	 */
+	private static final String FAR     = "dbaabdc_bddd2dddabdc_abdb";
+
+	/**
+	 * Tests that a puzzle whose searches are already cancelled is not searched
+	 * @throws Exception
+	 */
+	@Test
+	public void testCancelledBeforeSearch() throws Exception
+	{
+		final Cancellation cancellation = new Cancellation();
+		cancellation.cancel();
+		final Puzzle puzzle = new Puzzle(PUZZLE);
+		puzzle.setCancellation(cancellation);
+		try
+		{
+			puzzle.solveWithAStarSearch();
+			Assert.fail("Cancelled search finished");
+		}
+		catch (final SearchCancelledException ignored)
+		{
+			//Expected
+		}
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(0L, (long) puzzle.getStats().getExpandedNodes());
+		//The flag is carried to the canonical form searched in its place
+		final Puzzle mirrored = new Puzzle(PUZZLE);
+		mirrored.setCancellation(cancellation);
+		try
+		{
+			mirrored.solveCanonical(SearchMethod.A_STAR);
+			Assert.fail("Cancelled search finished");
+		}
+		catch (final SearchCancelledException ignored)
+		{
+			//Expected
+		}
+	}
+
+	/**
+	 * Tests that a search gives up soon after it is cancelled from another thread
+	 * @throws Exception
+	 */
+	@Test(timeout = 10000L)
+	public void testCancelDuringSearch() throws Exception
+	{
+		final Cancellation cancellation = new Cancellation();
+		final Thread canceller = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				try
+				{
+					Thread.sleep(100L);
+				}
+				catch (final InterruptedException ignored)
+				{
+					//Cancel early
+				}
+				cancellation.cancel();
+			}
+		});
+		final Puzzle puzzle = new Puzzle(FAR);
+		puzzle.setCancellation(cancellation);
+		canceller.start();
+		try
+		{
+			puzzle.solveWithIterativeDeepening(HeuristicType.NONE);
+			Assert.fail("Cancelled search finished");
+		}
+		catch (final SearchCancelledException exception)
+		{
+			Assert.assertTrue(exception.getMessage().startsWith("ITERATIVE_DEEPENING/NONE cancelled after "));
+		}
+		Assert.assertTrue(puzzle.getStats().getExpandedNodes() > 0L);
+		canceller.join();
+	}
+
+	/**
+	 * Tests that a search which is never cancelled is not disturbed by its flag
+	 * @throws Exception
+	 */
+	@Test
+	public void testNotCancelled() throws Exception
+	{
+		final Puzzle puzzle = new Puzzle(PUZZLE);
+		puzzle.setCancellation(new Cancellation());
+		puzzle.solveWithIterativeDeepening(HeuristicType.NONE);
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(15L, (long) puzzle.getRoute().size());
+	}
+}
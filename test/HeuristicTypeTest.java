@@ -0,0 +1,60 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the heuristics built by HeuristicType
+ * Checks that they are zero at the destination and never overestimate a known distance
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection", "FeatureEnvy"})
+public class HeuristicTypeTest
+{
+	/**
+	 * Known number of jumps between the start and destination of a puzzle
+	 */
+	private static final int    KNOWN_DISTANCE = 14;
+	/**
+	 * Start of the puzzle with the known distance
+	 */
+	private static final String START          = "dbaabdc_bddd";
+	/**
+	 * Destination of the puzzle with the known distance
+	 */
+	private static final String DESTINATION    = "adbdb_abdcdd";
+
+	/**
+	 * Tests that every heuristic is admissible on the known puzzle and 0 at the destination
+	 * @throws Exception
+	 */
+	@Test
+	public void testAdmissible() throws Exception
+	{
+		final long start = PackedState.pack(START);
+		final long destination = PackedState.pack(DESTINATION);
+		for (final HeuristicType type : HeuristicType.values())
+		{
+			final Heuristic heuristic = type.create(destination);
+			//noinspection UnnecessaryExplicitNumericCast
+			Assert.assertEquals(type.name(), 0L, (long) heuristic.estimate(destination));
+			Assert.assertTrue(type.name(), heuristic.estimate(start) <= KNOWN_DISTANCE);
+		}
+	}
+
+	/**
+	 * Tests the Manhattan distances with hand calculated values
+	 * @throws Exception
+	 */
+	@Test
+	public void testManhattan() throws Exception
+	{
+		final long destination = PackedState.pack("aacbbdddddd_");
+		final long start = PackedState.pack("caabbddddd_d");
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(1L, (long) HeuristicType.BLANK_MANHATTAN.create(destination).estimate(start));
+		//c moves 2 and the a's move 1 each, the d's are already in place
+		//noinspection UnnecessaryExplicitNumericCast,MagicNumber
+		Assert.assertEquals(5L, (long) HeuristicType.TILE_MANHATTAN.create(destination).estimate(start));
+		//c has to leave the top row to get past both a's
+		//noinspection UnnecessaryExplicitNumericCast,MagicNumber
+		Assert.assertEquals(7L, (long) HeuristicType.LINEAR_CONFLICT.create(destination).estimate(start));
+	}
+}
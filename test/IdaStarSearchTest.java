@@ -0,0 +1,49 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests IdaStarSearch
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection", "FeatureEnvy"})
+public class IdaStarSearchTest
+{
+	/**
+	 * Tests that every state of the route is one move from the last and the route has the known length
+	 * @throws Exception
+	 */
+	@Test
+	public void testSearch() throws Exception
+	{
+		final long start = PackedState.pack("dbaabdc_bddd");
+		final long destination = PackedState.pack("adbdb_abdcdd");
+		final IdaStarSearch search = new IdaStarSearch(HeuristicType.TILE_MANHATTAN.create(destination));
+		final long[] states = search.search(start, destination);
+		//noinspection UnnecessaryExplicitNumericCast,MagicNumber
+		Assert.assertEquals(15L, (long) states.length);
+		Assert.assertEquals(start, states[0]);
+		Assert.assertEquals(destination, states[states.length - 1]);
+		for (int i = 1;i < states.length;i++)
+		{
+			boolean adjacent = false;
+			for (int move = 0;move < PackedState.MOVES;move++)
+			{
+				adjacent |= PackedState.move(states[i - 1], move) == states[i];
+			}
+			Assert.assertTrue(adjacent);
+		}
+		Assert.assertTrue(search.getExpandedNodes() > 0L);
+	}
+
+	/**
+	 * Tests that searching from the destination gives a route of 1 state
+	 * @throws Exception
+	 */
+	@Test
+	public void testSearchFromDestination() throws Exception
+	{
+		final long destination = PackedState.pack("adbdb_abdcdd");
+		final long[] states = new IdaStarSearch(HeuristicType.NONE.create(destination)).search(destination,
+		                                                                                         destination);
+		Assert.assertArrayEquals(new long[]{destination}, states);
+	}
+}
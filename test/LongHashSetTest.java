@@ -0,0 +1,35 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests LongHashSet
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection"})
+public class LongHashSetTest
+{
+	/**
+	 * Tests that states are only added once and survive the table growing
+	 * @throws Exception
+	 */
+	@Test
+	public void testAddAndContains() throws Exception
+	{
+		final LongHashSet set = new LongHashSet(4);
+		final long state = PackedState.pack("_dbadcbbddda");
+		Assert.assertTrue(set.add(state));
+		Assert.assertFalse(set.add(state));
+		Assert.assertTrue(set.contains(state));
+		//noinspection MagicNumber
+		for (long i = 0L;i < 1000L;i++)
+		{
+			set.add(i * 7919L);
+		}
+		Assert.assertTrue(set.contains(state));
+		Assert.assertTrue(set.contains(999L * 7919L));
+		Assert.assertFalse(set.contains(PackedState.move(state, PackedState.DOWN)));
+		//noinspection UnnecessaryExplicitNumericCast,MagicNumber
+		Assert.assertEquals(1001L, (long) set.size());
+		set.clear();
+		Assert.assertFalse(set.contains(state));
+	}
+}
@@ -0,0 +1,37 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests LongLongHashMap
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection"})
+public class LongLongHashMapTest
+{
+	/**
+	 * Tests that values are replaced and survive the table growing
+	 * @throws Exception
+	 */
+	@Test
+	public void testPutAndGet() throws Exception
+	{
+		final LongLongHashMap map = new LongLongHashMap(4);
+		final long state = PackedState.pack("_dbadcbbddda");
+		Assert.assertEquals(LongLongHashMap.NO_VALUE, map.put(state, 1L));
+		Assert.assertEquals(1L, map.put(state, 2L));
+		Assert.assertEquals(2L, map.get(state));
+		//noinspection MagicNumber
+		for (long i = 0L;i < 1000L;i++)
+		{
+			map.put(i * 7919L, i);
+		}
+		Assert.assertEquals(2L, map.get(state));
+		//noinspection MagicNumber
+		Assert.assertEquals(999L, map.get(999L * 7919L));
+		Assert.assertFalse(map.containsKey(PackedState.move(state, PackedState.DOWN)));
+		Assert.assertEquals(LongLongHashMap.NO_VALUE, map.get(PackedState.move(state, PackedState.DOWN)));
+		//noinspection UnnecessaryExplicitNumericCast,MagicNumber
+		Assert.assertEquals(1001L, (long) map.size());
+		map.clear();
+		Assert.assertFalse(map.containsKey(state));
+	}
+}
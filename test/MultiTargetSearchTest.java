@@ -0,0 +1,139 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests MultiTargetSearch and PuzzleSolver.solveAllMultiTarget
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection", "FeatureEnvy"})
+public class MultiTargetSearchTest
+{
+	/**
+	 * The start of a puzzle whose shortest route is 14 jumps
+	 */
+	private static final String START = "dbaabdc_bddd";
+
+	/**
+	 * Builds configurations a random number of jumps from a state
+	 *
+	 * @param state  The packed state
+	 * @param count  The number of configurations
+	 * @param random Chooses the jumps
+	 *
+	 * @return The configurations
+	 */
+	private static List<String> walks(final long state, final int count, final Random random)
+	{
+		final List<String> configurations = new ArrayList<String>(count);
+		final long[] neighbours = new long[PackedState.MOVES];
+		for (int i = 0;i < count;i++)
+		{
+			long walk = state;
+			for (int j = random.nextInt(30);j >= 0;j--)
+			{
+				walk = neighbours[random.nextInt(PackedState.successors(walk, neighbours, 0))];
+			}
+			configurations.add(PackedState.toString(walk));
+		}
+		return configurations;
+	}
+
+	/**
+	 * Asserts that a puzzle has a valid route as short as the one A* Search finds
+	 *
+	 * @param puzzle The solved puzzle
+	 */
+	private static void assertShortest(final Puzzle puzzle)
+	{
+		final Puzzle expected = new Puzzle(puzzle.toString());
+		expected.solveWithAStarSearch();
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals((long) expected.getRoute().size(), (long) puzzle.getRoute().size());
+		Assert.assertEquals(puzzle.getStartConfig(), puzzle.getRoute().get(0));
+		Assert.assertEquals(puzzle.getDestinationConfig(), puzzle.getRoute().get(puzzle.getRoute().size() - 1));
+		for (int i = 1;i < puzzle.getRoute().size();i++)
+		{
+			final long from = puzzle.getRoute().get(i - 1).getState();
+			final long to = puzzle.getRoute().get(i).getState();
+			Assert.assertEquals(to, PackedState.move(from, PackedState.moveBetween(from, to)));
+		}
+	}
+
+	/**
+	 * Tests that one sweep finds a shortest route to every target and never sweeps twice
+	 * @throws Exception
+	 */
+	@Test
+	public void testRouteTo() throws Exception
+	{
+		final long start = PackedState.pack(START);
+		final MultiTargetSearch search = new MultiTargetSearch(start);
+		final SearchStats stats = new SearchStats("test");
+		final long[] far = search.routeTo(PackedState.pack("adbdb_abdcdd"), stats);
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(15L, (long) far.length);
+		Assert.assertEquals(start, far[0]);
+		//A state nearer than the last target has already been reached
+		final SearchStats again = new SearchStats("test");
+		Assert.assertArrayEquals(new long[]{far[0], far[1], far[2]}, search.routeTo(far[2], again));
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(0L, (long) again.getExpandedNodes());
+		Assert.assertArrayEquals(new long[]{start}, search.routeTo(start, again));
+		Assert.assertNull(search.routeTo(PackedState.pack("aaaaaaaaaaa_"), again));
+	}
+
+	/**
+	 * Tests that puzzles sharing a start or a destination are solved with shortest routes
+	 * @throws Exception
+	 */
+	@Test
+	public void testSolveAllMultiTarget() throws Exception
+	{
+		final Random random = new Random(23L);
+		final long start = PackedState.pack(START);
+		final List<Puzzle> puzzles = new ArrayList<Puzzle>();
+		for (final String destination : MultiTargetSearchTest.walks(start, 6, random))
+		{
+			puzzles.add(new Puzzle(START + '2' + destination));
+		}
+		//Sharing a destination, so the sweep runs backwards from it
+		final String destination = "adbdb_abdcdd";
+		for (final String other : MultiTargetSearchTest.walks(PackedState.pack(destination), 6, random))
+		{
+			puzzles.add(new Puzzle(other + '2' + destination));
+		}
+		puzzles.add(new Puzzle("dbbdad_bacdd2bbdddacb_dda"));
+		final PuzzleSolver solver = new PuzzleSolver(puzzles);
+		solver.solveAllMultiTarget();
+		long expanded = 0L;
+		for (final Puzzle puzzle : puzzles)
+		{
+			MultiTargetSearchTest.assertShortest(puzzle);
+			Assert.assertEquals("MULTI_TARGET", puzzle.getStats().getMethod());
+			expanded += puzzle.getExpandedNodes();
+		}
+		//Each group's puzzles share the nodes of a single sweep
+		long separate = 0L;
+		for (final Puzzle puzzle : puzzles)
+		{
+			final Puzzle alone = new Puzzle(puzzle.toString());
+			alone.solveWithMultiTargetSearch();
+			separate += alone.getExpandedNodes();
+		}
+		Assert.assertTrue(expanded < separate);
+	}
+
+	/**
+	 * Tests that a sweep from an unrelated configuration is refused
+	 * @throws Exception
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnrelatedSweep() throws Exception
+	{
+		new Puzzle("dbaabdc_bddd2adbdb_abdcdd").solveWithMultiTargetSearch(
+				new MultiTargetSearch(PackedState.pack("dbbdad_bacdd")));
+	}
+}
@@ -0,0 +1,34 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests MultisetRanker
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection"})
+public class MultisetRankerTest
+{
+	/**
+	 * Tests that ranks are a bijection onto 0 to size - 1
+	 * @throws Exception
+	 */
+	@Test
+	public void testRankAndUnrank() throws Exception
+	{
+		final long state = PackedState.pack("adbdb_abdcdd");
+		final MultisetRanker ranker = new MultisetRanker(state);
+		//12! / (1! 2! 3! 1! 5!)
+		//noinspection UnnecessaryExplicitNumericCast,MagicNumber
+		Assert.assertEquals(332640L, (long) ranker.size());
+		final LongHashSet seen = new LongHashSet(ranker.size());
+		for (int rank = 0;rank < ranker.size();rank++)
+		{
+			final long unranked = ranker.unrank(rank);
+			//noinspection UnnecessaryExplicitNumericCast
+			Assert.assertEquals((long) rank, (long) ranker.rank(unranked));
+			Assert.assertTrue(seen.add(unranked));
+		}
+		Assert.assertEquals(state, ranker.unrank(ranker.rank(state)));
+		Assert.assertTrue(ranker.accepts(PackedState.move(state, PackedState.UP)));
+		Assert.assertFalse(ranker.accepts(PackedState.pack("adbdb_abdcda")));
+	}
+}
@@ -0,0 +1,83 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests PackedState
+ * Checks that packing is lossless and that moves behave like the char[][] moves did
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection"})
+public class PackedStateTest
+{
+	/**
+	 * Tests that pack and toString are inverses and that the '_' is found
+	 * @throws Exception
+	 */
+	@Test
+	public void testPack() throws Exception
+	{
+		final long state = PackedState.pack("bbdddacb_dda");
+		Assert.assertEquals("bbdddacb_dda", PackedState.toString(state));
+		//noinspection UnnecessaryExplicitNumericCast,MagicNumber
+		Assert.assertEquals(8L, (long) PackedState.blankOf(state));
+		Assert.assertArrayEquals(new char[]{'c', 'b', '_'}, PackedState.row(state, 2));
+	}
+
+	/**
+	 * Tests that illegal configurations are refused
+	 * @throws Exception
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testPackWithoutBlank() throws Exception
+	{
+		PackedState.pack("bbdddacbadda");
+	}
+
+	/**
+	 * Tests that moves swap the '_' and refuse to leave the board
+	 * @throws Exception
+	 */
+	@Test
+	public void testMove() throws Exception
+	{
+		final long state = PackedState.pack("_dbadcbbddda");
+		Assert.assertEquals(PackedState.NO_STATE, PackedState.move(state, PackedState.UP));
+		Assert.assertEquals(PackedState.NO_STATE, PackedState.move(state, PackedState.LEFT));
+		Assert.assertEquals("d_badcbbddda", PackedState.toString(PackedState.move(state, PackedState.RIGHT)));
+		Assert.assertEquals("adb_dcbbddda", PackedState.toString(PackedState.move(state, PackedState.DOWN)));
+		Assert.assertEquals(state, PackedState.move(PackedState.move(state, PackedState.DOWN), PackedState.UP));
+	}
+
+	/**
+	 * Tests that successors matches every legal move and writes nothing else
+	 * @throws Exception
+	 */
+	@Test
+	public void testSuccessors() throws Exception
+	{
+		final long[] buffer = new long[PackedState.MOVES + 1];
+		final int[] moves = new int[PackedState.MOVES];
+		for (final String configuration : new String[]{"_dbadcbbddda", "adbd_cbbddda", "adbdcbbddda_"})
+		{
+			final long state = PackedState.pack(configuration);
+			buffer[0] = PackedState.NO_STATE;
+			final int count = PackedState.successors(state, buffer, 1);
+			Assert.assertEquals(PackedState.NO_STATE, buffer[0]);
+			//noinspection UnnecessaryExplicitNumericCast
+			Assert.assertEquals((long) count, (long) PackedState.legalMoves(PackedState.blankOf(state), moves, 0));
+			int legal = 0;
+			for (int move = 0;move < PackedState.MOVES;move++)
+			{
+				final long next = PackedState.move(state, move);
+				if (next != PackedState.NO_STATE)
+				{
+					//noinspection UnnecessaryExplicitNumericCast
+					Assert.assertEquals((long) move, (long) moves[legal]);
+					Assert.assertEquals(next, buffer[1 + legal]);
+					legal++;
+				}
+			}
+			//noinspection UnnecessaryExplicitNumericCast
+			Assert.assertEquals((long) legal, (long) count);
+		}
+	}
+}
@@ -0,0 +1,114 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests ParallelBreadthFirstSearch
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection", "FeatureEnvy"})
+public class ParallelBreadthFirstSearchTest
+{
+	/**
+	 * Tests that the route found is a shortest route whatever the number of workers
+	 * @throws Exception
+	 */
+	@Test
+	public void testShortestRoute() throws Exception
+	{
+		for (final String configuration : new String[]{"dbaabdc_bddd2adbdb_abdcdd", "dbbdad_bacdd2bbdddacb_dda"})
+		{
+			final Puzzle expected = new Puzzle(configuration);
+			expected.solveWithAStarSearch();
+			SearchStats single = null;
+			for (int workers = 1;workers <= 4;workers++)
+			{
+				final Puzzle puzzle = new Puzzle(configuration);
+				puzzle.solveWithParallelBreadthFirstSearch(workers);
+				//noinspection UnnecessaryExplicitNumericCast
+				Assert.assertEquals((long) expected.getRoute().size(), (long) puzzle.getRoute().size());
+				Assert.assertEquals(expected.getRoute().get(0), puzzle.getRoute().get(0));
+				Assert.assertEquals(puzzle.getDestinationConfig(), puzzle.getRoute().get(puzzle.getRoute().size() - 1));
+				for (int i = 1;i < puzzle.getRoute().size();i++)
+				{
+					final long from = puzzle.getRoute().get(i - 1).getState();
+					final long to = puzzle.getRoute().get(i).getState();
+					Assert.assertEquals(to, PackedState.move(from, PackedState.moveBetween(from, to)));
+				}
+				//Every level is expanded whole, so the counts of the workers add up to those of a single thread
+				if (single == null)
+				{
+					single = puzzle.getStats();
+				}
+				Assert.assertEquals(single.getExpandedNodes(), puzzle.getStats().getExpandedNodes());
+				Assert.assertEquals(single.getGeneratedNodes(), puzzle.getStats().getGeneratedNodes());
+				Assert.assertEquals(single.getDuplicates(), puzzle.getStats().getDuplicates());
+			}
+		}
+	}
+
+	/**
+	 * Tests that a puzzle already at its destination needs no jumps
+	 * @throws Exception
+	 */
+	@Test
+	public void testAlreadySolved() throws Exception
+	{
+		final long state = PackedState.pack("dbaabdc_bddd");
+		final ParallelBreadthFirstSearch search = new ParallelBreadthFirstSearch(2);
+		try
+		{
+			Assert.assertArrayEquals(new long[]{state}, search.search(state, state, new SearchStats("test")));
+		}
+		finally
+		{
+			search.close();
+		}
+	}
+
+	/**
+	 * Tests that configurations with different tiles have no route
+	 * @throws Exception
+	 */
+	@Test
+	public void testNoRoute() throws Exception
+	{
+		final ParallelBreadthFirstSearch search = new ParallelBreadthFirstSearch(2);
+		try
+		{
+			Assert.assertNull(search.search(PackedState.pack("aaaaaaaaaaa_"), PackedState.pack("bbbbbbbbbbb_"),
+			                                new SearchStats("test")));
+		}
+		finally
+		{
+			search.close();
+		}
+	}
+
+	/**
+	 * Tests that one instance keeps its workers between searches and finds the same routes each time
+	 * @throws Exception
+	 */
+	@Test
+	public void testReuse() throws Exception
+	{
+		final ParallelBreadthFirstSearch search = new ParallelBreadthFirstSearch(3);
+		try
+		{
+			for (int round = 0;round < 2;round++)
+			{
+				for (final Puzzle expected : Application.initialisePuzzles())
+				{
+					expected.solveWithAStarSearch();
+					final Puzzle puzzle = new Puzzle(expected.toString());
+					puzzle.solveWithParallelBreadthFirstSearch(search);
+					//noinspection UnnecessaryExplicitNumericCast
+					Assert.assertEquals((long) expected.getRoute().size(), (long) puzzle.getRoute().size());
+				}
+			}
+		}
+		finally
+		{
+			search.close();
+		}
+		Assert.assertSame(ParallelBreadthFirstSearch.getShared(), ParallelBreadthFirstSearch.getShared());
+	}
+}
@@ -0,0 +1,69 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+
+/**
+ * Tests PatternDatabase
+ * Checks the distances of a small database and that persisting it loses nothing
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection", "FeatureEnvy"})
+public class PatternDatabaseTest
+{
+	/**
+	 * Known number of jumps between the start and destination of a puzzle
+	 */
+	private static final int KNOWN_DISTANCE = 14;
+
+	/**
+	 * Tests that the database is 0 at the destination, never overestimates and is exact for the '_' alone
+	 * @throws Exception
+	 */
+	@Test
+	public void testDistance() throws Exception
+	{
+		final long destination = PackedState.pack("adbdb_abdcdd");
+		final long start = PackedState.pack("dbaabdc_bddd");
+		final PatternDatabase database = PatternDatabase.build(destination, "ac");
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(0L, (long) database.distance(destination));
+		Assert.assertTrue(database.distance(start) <= KNOWN_DISTANCE);
+		Assert.assertTrue(database.distance(start) > 0);
+		final PatternDatabase blankOnly = PatternDatabase.build(destination, "");
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals((long) HeuristicType.BLANK_MANHATTAN.create(destination).estimate(start),
+		                    (long) blankOnly.distance(start));
+	}
+
+	/**
+	 * Tests that a saved and memory-mapped database matches the one that was built
+	 * @throws Exception
+	 */
+	@Test
+	public void testSaveAndLoad() throws Exception
+	{
+		final long destination = PackedState.pack("adbdb_abdcdd");
+		final PatternDatabase built = PatternDatabase.build(destination, "bc");
+		final File file = File.createTempFile("pattern", ".pdb");
+		try
+		{
+			built.save(file);
+			final PatternDatabase loaded = PatternDatabase.load(file, destination, "bc");
+			//noinspection UnnecessaryExplicitNumericCast
+			Assert.assertEquals((long) built.size(), (long) loaded.size());
+			final MultisetRanker ranker = new MultisetRanker(destination);
+			//noinspection MagicNumber
+			for (int rank = 0;rank < ranker.size();rank += 97)
+			{
+				final long state = ranker.unrank(rank);
+				//noinspection UnnecessaryExplicitNumericCast
+				Assert.assertEquals((long) built.distance(state), (long) loaded.distance(state));
+			}
+		}
+		finally
+		{
+			//noinspection ResultOfMethodCallIgnored
+			file.delete();
+		}
+	}
+}
@@ -160,6 +160,21 @@ public class PuzzleConfigurationTest
 		assert(correctPuzzle4Configs.equals(puzzle4Configs));
 	}
 
+	/**
+	 * Tests that equal configurations have equal hash codes so that they can be used in hashed collections
+	 * @throws Exception
+	 */
+	@Test
+	public void testHashCode() throws Exception
+	{
+		final PuzzleConfiguration copy = new PuzzleConfiguration(this.sequence1);
+		Assert.assertEquals(this.puzzleConfiguration1, copy);
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals((long) this.puzzleConfiguration1.hashCode(), (long) copy.hashCode());
+		Assert.assertFalse(this.puzzleConfiguration1.equals(this.puzzleConfiguration2));
+		Assert.assertFalse(this.puzzleConfiguration1.equals(this.sequence1));
+	}
+
 	/**
 	 * Tests that PuzzleConfiguration.getMinDistanceTo calculates the distance between the 2 points accurately
 	 * @throws Exception
@@ -0,0 +1,47 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringReader;
+
+/**
+ * Tests PuzzleReader
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection"})
+public class PuzzleReaderTest
+{
+	/**
+	 * Tests that puzzles are read in order, with or without ".txt", skipping blank lines
+	 * @throws Exception
+	 */
+	@Test
+	public void testNext() throws Exception
+	{
+		final PuzzleReader reader = new PuzzleReader(new StringReader(
+				"dbbdad_bacdd2bbdddacb_dda.txt\n\n  \nbadadbcb_ddd2bbadddca_ddb\n"));
+		try
+		{
+			Assert.assertEquals("dbbdad_bacdd2bbdddacb_dda", reader.next().toString());
+			Assert.assertEquals("badadbcb_ddd2bbadddca_ddb", reader.next().toString());
+			Assert.assertNull(reader.next());
+			Assert.assertNull(reader.next());
+		}
+		finally
+		{
+			reader.close();
+		}
+	}
+
+	/**
+	 * Tests that lines which Puzzle could not parse are recognised without parsing them
+	 * @throws Exception
+	 */
+	@Test
+	public void testIsValid() throws Exception
+	{
+		Assert.assertTrue(PuzzleReader.isValid("dbbdad_bacdd2bbdddacb_dda"));
+		Assert.assertFalse(PuzzleReader.isValid("dbbdad_bacdd2bbdddacb_dd"));
+		Assert.assertFalse(PuzzleReader.isValid("dbbdad_bacdd3bbdddacb_dda"));
+		Assert.assertFalse(PuzzleReader.isValid("dbbdadxbacdd2bbdddacb_dda"));
+		Assert.assertFalse(PuzzleReader.isValid("dbbdad_bac_d2bbdddacb_dda"));
+	}
+}
@@ -0,0 +1,51 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests PuzzleSolver
+ * Checks that parallel batches keep their order and report failures without stopping
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection", "FeatureEnvy"})
+public class PuzzleSolverTest
+{
+	/**
+	 * Tests that solveAllParallel solves every puzzle and returns the results in input order
+	 * @throws Exception
+	 */
+	@Test
+	public void testSolveAllParallel() throws Exception
+	{
+		final List<Puzzle> puzzles = new ArrayList<Puzzle>(Application.initialisePuzzles());
+		//A puzzle whose start and destination do not hold the same letters
+		puzzles.add(2, new Puzzle("aaaaaaaaaaa_2bbbbbbbbbbb_"));
+		final PuzzleSolver solver = new PuzzleSolver(puzzles);
+		final List<SolveResult> results = solver.solveAllParallel(SearchMethod.A_STAR, 3);
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals((long) puzzles.size(), (long) results.size());
+		for (int i = 0;i < puzzles.size();i++)
+		{
+			final SolveResult result = results.get(i);
+			Assert.assertSame(puzzles.get(i), result.getPuzzle());
+			if (i == 2)
+			{
+				Assert.assertFalse(result.isSolved());
+				Assert.assertTrue(result.getFailure() instanceof UnsolvablePuzzleException);
+			}
+			else
+			{
+				Assert.assertTrue(result.isSolved());
+				final List<PuzzleConfiguration> route = result.getPuzzle().getRoute();
+				Assert.assertEquals(result.getPuzzle().getDestinationConfig(), route.get(route.size() - 1));
+			}
+		}
+		//Every puzzle is recorded, including the one which failed, which is rejected without being searched
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals((long) puzzles.size(), (long) solver.getStatsRegistry().size());
+		Assert.assertSame(puzzles.get(2).getStats(), solver.getStatsRegistry().get(2));
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(0L, (long) solver.getStatsRegistry().get(2).getExpandedNodes());
+	}
+}
@@ -146,6 +146,69 @@ public class PuzzleTest
 		Assert.assertEquals((long) puzzle.getRoute().size(), TEST_ROUTE_LENGTH);
 	}
 
+	/**
+	 * Tests that A* Search finds the shortest solution whichever heuristic it is given
+	 * @throws Exception
+	 */
+	@Test
+	public void testSolveWithEachHeuristic() throws Exception
+	{
+		@SuppressWarnings("MagicNumber")
+		final long TEST_ROUTE_LENGTH = 15L;
+		for (final HeuristicType heuristicType : HeuristicType.values())
+		{
+			final Puzzle puzzle = new Puzzle("dbaabdc_bddd2adbdb_abdcdd");
+			puzzle.solveWithAStarSearch(heuristicType);
+			final PuzzleConfiguration finalConfig = puzzle.getRoute().get(puzzle.getRoute().size() - 1);
+			Assert.assertEquals(finalConfig, puzzle.getDestinationConfig());
+			//noinspection UnnecessaryExplicitNumericCast
+			Assert.assertEquals((long) puzzle.getRoute().size(), TEST_ROUTE_LENGTH);
+			Assert.assertTrue(puzzle.getExpandedNodes() > 0);
+		}
+	}
+
+	/**
+	 * Tests that Iterative Deepening finds the shortest solution with and without a heuristic
+	 * @throws Exception
+	 */
+	@Test
+	public void testSolveWithIterativeDeepeningHeuristics() throws Exception
+	{
+		@SuppressWarnings("MagicNumber")
+		final long TEST_ROUTE_LENGTH = 15L;
+		for (final HeuristicType heuristicType : new HeuristicType[]{HeuristicType.NONE, HeuristicType.TILE_MANHATTAN})
+		{
+			final Puzzle puzzle = new Puzzle("dbaabdc_bddd2adbdb_abdcdd");
+			puzzle.solveWithIterativeDeepening(heuristicType);
+			final PuzzleConfiguration finalConfig = puzzle.getRoute().get(puzzle.getRoute().size() - 1);
+			Assert.assertEquals(finalConfig, puzzle.getDestinationConfig());
+			//noinspection UnnecessaryExplicitNumericCast
+			Assert.assertEquals((long) puzzle.getRoute().size(), TEST_ROUTE_LENGTH);
+		}
+	}
+
+	/**
+	 * Tests that descending a distance table does get from start state to finish state by the shortest route
+	 * @throws Exception
+	 */
+	@Test
+	public void testSolveWithDistanceTable() throws Exception
+	{
+		@SuppressWarnings("MagicNumber")
+		final long TEST_ROUTE_LENGTH = 15L;
+		final Puzzle puzzle = new Puzzle("dbaabdc_bddd2adbdb_abdcdd");
+		puzzle.solveWithDistanceTable(PatternDatabase.build(puzzle.getDestinationConfig().getState(),
+		                                                    PatternDatabase.ALL_LETTERS));
+		final PuzzleConfiguration finalConfig = puzzle.getRoute().get(puzzle.getRoute().size() - 1);
+		Assert.assertEquals(finalConfig, puzzle.getDestinationConfig());
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals((long) puzzle.getRoute().size(), TEST_ROUTE_LENGTH);
+		for (int i = 1;i < puzzle.getRoute().size();i++)
+		{
+			Assert.assertTrue(puzzle.getRoute().get(i - 1).generateNextConfigs().contains(puzzle.getRoute().get(i)));
+		}
+	}
+
 	/**
 	 * Tests that getFilename produces the expected result
 	 * @throws Exception
@@ -0,0 +1,72 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+
+/**
+ * Tests RouteIndex
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection"})
+public class RouteIndexTest
+{
+	/**
+	 * Tests that positions survive the index growing, that a route is indexed once and that closing deletes the file
+	 * @throws Exception
+	 */
+	@Test
+	public void testPutAndGet() throws Exception
+	{
+		final File directory = File.createTempFile("routes", "");
+		//noinspection ResultOfMethodCallIgnored
+		directory.delete();
+		//noinspection ResultOfMethodCallIgnored
+		directory.mkdir();
+		final RouteIndex index = new RouteIndex(directory);
+		try
+		{
+			final long start = PackedState.pack("dbaabdc_bddd");
+			final long destination = PackedState.pack("adbdb_abdcdd");
+			Assert.assertEquals(RouteIndex.NO_POSITION, index.get(start, destination));
+			Assert.assertTrue(index.put(start, destination, 8L));
+			Assert.assertFalse(index.put(start, destination, 9L));
+			//noinspection MagicNumber
+			for (long i = 1L;i <= 10000L;i++)
+			{
+				Assert.assertTrue(index.put(i * 7919L, destination, i * 100L));
+			}
+			Assert.assertEquals(8L, index.get(start, destination));
+			//noinspection MagicNumber
+			Assert.assertEquals(999900L, index.get(9999L * 7919L, destination));
+			//Routes to another destination are kept apart
+			Assert.assertEquals(RouteIndex.NO_POSITION, index.get(start, start));
+			//noinspection UnnecessaryExplicitNumericCast,MagicNumber
+			Assert.assertEquals(10001L, (long) index.size());
+		}
+		finally
+		{
+			index.close();
+		}
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(0L, (long) directory.list().length);
+		//noinspection ResultOfMethodCallIgnored
+		directory.delete();
+	}
+
+	/**
+	 * Tests that a position of 0, which marks an empty slot, is refused
+	 * @throws Exception
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testZeroPosition() throws Exception
+	{
+		final RouteIndex index = new RouteIndex(new File(System.getProperty("java.io.tmpdir")));
+		try
+		{
+			index.put(1L, 2L, 0L);
+		}
+		finally
+		{
+			index.close();
+		}
+	}
+}
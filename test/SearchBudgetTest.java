@@ -0,0 +1,86 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests SearchBudget and A* Search falling back to Iterative Deepening A*
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection", "FeatureEnvy"})
+public class SearchBudgetTest
+{
+	/**
+	 * A puzzle whose shortest route is 14 jumps
+	 */
+	private static final String CONFIGURATION = "dbaabdc_bddd2adbdb_abdcdd";
+
+	/**
+	 * Tests the conversion of bytes to nodes
+	 * @throws Exception
+	 */
+	@Test
+	public void testBytes() throws Exception
+	{
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(10L, (long) SearchBudget.bytes(10L * SearchBudget.BYTES_PER_NODE).getMaxNodes());
+		Assert.assertFalse(SearchBudget.nodes(3L).isExceeded(3L));
+		Assert.assertTrue(SearchBudget.nodes(3L).isExceeded(4L));
+		Assert.assertFalse(SearchBudget.UNLIMITED.isExceeded(Long.MAX_VALUE));
+	}
+
+	/**
+	 * Tests that a budget smaller than a node is rejected
+	 * @throws Exception
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooSmall() throws Exception
+	{
+		SearchBudget.bytes(SearchBudget.BYTES_PER_NODE - 1L);
+	}
+
+	/**
+	 * Tests that a search which runs out of budget still finds a shortest route while holding few nodes
+	 * @throws Exception
+	 */
+	@Test
+	public void testFallBack() throws Exception
+	{
+		final Puzzle unbounded = new Puzzle(CONFIGURATION);
+		unbounded.solveWithAStarSearch(HeuristicType.TILE_MANHATTAN, OpenListType.DEFAULT, SearchBudget.UNLIMITED);
+		final Puzzle bounded = new Puzzle(CONFIGURATION);
+		bounded.solveWithAStarSearch(HeuristicType.TILE_MANHATTAN, OpenListType.DEFAULT, SearchBudget.nodes(16L));
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(15L, (long) bounded.getRoute().size());
+		Assert.assertEquals(bounded.getDestinationConfig(), bounded.getRoute().get(bounded.getRoute().size() - 1));
+		Assert.assertEquals("BOUNDED_A_STAR/TILE_MANHATTAN", bounded.getStats().getMethod());
+		Assert.assertTrue(bounded.getStats().getPeakOpen() <= 16L);
+		Assert.assertTrue(unbounded.getStats().getPeakOpen() > 16L);
+	}
+
+	/**
+	 * Tests that Uniform Cost Search also falls back once it runs out of budget
+	 * @throws Exception
+	 */
+	@Test
+	public void testUniformCostFallBack() throws Exception
+	{
+		final Puzzle bounded = new Puzzle(CONFIGURATION);
+		bounded.solveWithUniformCostSearch(OpenListType.DEFAULT, SearchBudget.nodes(64L));
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(15L, (long) bounded.getRoute().size());
+		Assert.assertTrue(bounded.getStats().getPeakOpen() <= 64L);
+	}
+
+	/**
+	 * Tests that a budget large enough for the whole search changes nothing
+	 * @throws Exception
+	 */
+	@Test
+	public void testWithinBudget() throws Exception
+	{
+		final Puzzle unbounded = new Puzzle(CONFIGURATION);
+		unbounded.solveWithAStarSearch(HeuristicType.TILE_MANHATTAN, OpenListType.DEFAULT, SearchBudget.UNLIMITED);
+		final Puzzle bounded = new Puzzle(CONFIGURATION);
+		bounded.solveWithAStarSearch(HeuristicType.TILE_MANHATTAN, OpenListType.DEFAULT, SearchBudget.DEFAULT);
+		Assert.assertEquals(unbounded.getRoute(), bounded.getRoute());
+		Assert.assertEquals(unbounded.getStats().getExpandedNodes(), bounded.getStats().getExpandedNodes());
+	}
+}
@@ -0,0 +1,48 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Tests SearchNode
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection"})
+public class SearchNodeTest
+{
+	/**
+	 * Tests that the route is rebuilt from start to the node
+	 * @throws Exception
+	 */
+	@Test
+	public void testToRoute() throws Exception
+	{
+		final long start = PackedState.pack("_dbadcbbddda");
+		final long middle = PackedState.move(start, PackedState.RIGHT);
+		final long end = PackedState.move(middle, PackedState.DOWN);
+		final SearchNode first = new SearchNode(start, 0, 2, null);
+		final SearchNode last = new SearchNode(end, 2, 0, new SearchNode(middle, 1, 1, first));
+		final List<PuzzleConfiguration> route = last.toRoute();
+		//noinspection UnnecessaryExplicitNumericCast,MagicNumber
+		Assert.assertEquals(3L, (long) route.size());
+		Assert.assertEquals(new PuzzleConfiguration("_dbadcbbddda"), route.get(0));
+		Assert.assertEquals(new PuzzleConfiguration(end), route.get(2));
+	}
+
+	/**
+	 * Tests that nodes are ordered by rank and then by the highest cost
+	 * @throws Exception
+	 */
+	@Test
+	public void testCompareTo() throws Exception
+	{
+		final SearchNode shallow = new SearchNode(0L, 1, 4, null);
+		final SearchNode deep = new SearchNode(0L, 4, 1, null);
+		final SearchNode worse = new SearchNode(0L, 1, 5, null);
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(-1L, (long) shallow.compareTo(worse));
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(-1L, (long) deep.compareTo(shallow));
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(0L, (long) deep.compareTo(deep));
+	}
+}
@@ -0,0 +1,96 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests SearchStatsRegistry
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection", "FeatureEnvy"})
+public class SearchStatsRegistryTest
+{
+	/**
+	 * Reads every line of a file
+	 *
+	 * @param file The file
+	 *
+	 * @return The lines
+	 *
+	 * @throws Exception if the file cannot be read
+	 */
+	private static List<String> readLines(final File file) throws Exception
+	{
+		final List<String> lines = new ArrayList<String>();
+		final BufferedReader reader = new BufferedReader(new FileReader(file));
+		try
+		{
+			String line = reader.readLine();
+			while (line != null)
+			{
+				lines.add(line);
+				line = reader.readLine();
+			}
+		}
+		finally
+		{
+			reader.close();
+		}
+		return lines;
+	}
+
+	/**
+	 * Tests that solved and unsearched puzzles are recorded and exported as CSV and JSON
+	 * @throws Exception
+	 */
+	@Test
+	public void testRecordAndExport() throws Exception
+	{
+		final SearchStatsRegistry registry = new SearchStatsRegistry();
+		final Puzzle puzzle = new Puzzle("dbaabdc_bddd2adbdb_abdcdd");
+		registry.record(puzzle);
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(0L, (long) registry.size());
+		puzzle.solveWithAStarSearch();
+		registry.record(puzzle);
+		registry.record(puzzle);
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(2L, (long) registry.size());
+		Assert.assertEquals(2L * puzzle.getExpandedNodes(), registry.getTotal().getExpandedNodes());
+
+		final File csv = File.createTempFile("stats", ".csv");
+		final File json = File.createTempFile("stats", ".json");
+		try
+		{
+			registry.writeCsv(csv);
+			final List<String> lines = SearchStatsRegistryTest.readLines(csv);
+			//noinspection UnnecessaryExplicitNumericCast,MagicNumber
+			Assert.assertEquals(4L, (long) lines.size());
+			Assert.assertTrue(lines.get(0).startsWith("puzzle,method,solved,moves,"));
+			Assert.assertTrue(lines.get(1).startsWith("dbaabdc_bddd2adbdb_abdcdd.txt,A_STAR/LINEAR_CONFLICT,true,14,"));
+			Assert.assertTrue(lines.get(3).startsWith("total,total,true,28,"));
+
+			registry.writeJson(json);
+			final StringBuilder document = new StringBuilder();
+			for (final String line : SearchStatsRegistryTest.readLines(json))
+			{
+				document.append(line);
+			}
+			Assert.assertTrue(document.toString().contains("\"moves\": 14"));
+			Assert.assertTrue(document.toString().contains("\"total\": {\"puzzle\": \"total\""));
+		}
+		finally
+		{
+			//noinspection ResultOfMethodCallIgnored
+			csv.delete();
+			//noinspection ResultOfMethodCallIgnored
+			json.delete();
+		}
+		registry.clear();
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(0L, (long) registry.size());
+	}
+}
@@ -0,0 +1,73 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests SearchStats
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection", "FeatureEnvy"})
+public class SearchStatsTest
+{
+	/**
+	 * Tests that counts are kept and peak open only grows
+	 * @throws Exception
+	 */
+	@Test
+	public void testCounts() throws Exception
+	{
+		final SearchStats stats = new SearchStats("test");
+		stats.start();
+		stats.expanded();
+		stats.generated();
+		stats.generated();
+		stats.duplicate();
+		//noinspection MagicNumber
+		stats.open(5L);
+		stats.open(2L);
+		stats.stop();
+		Assert.assertEquals("test", stats.getMethod());
+		Assert.assertEquals(1L, stats.getExpandedNodes());
+		Assert.assertEquals(2L, stats.getGeneratedNodes());
+		Assert.assertEquals(1L, stats.getDuplicates());
+		//noinspection MagicNumber
+		Assert.assertEquals(5L, stats.getPeakOpen());
+		Assert.assertTrue(stats.getWallNanos() >= 0L);
+		Assert.assertTrue(stats.getAllocatedBytes() >= SearchStats.UNKNOWN);
+	}
+
+	/**
+	 * Tests that add sums the counts and keeps the larger peak
+	 * @throws Exception
+	 */
+	@Test
+	public void testAdd() throws Exception
+	{
+		final SearchStats total = new SearchStats("total");
+		final SearchStats stats = new SearchStats("test");
+		stats.expanded();
+		stats.open(3L);
+		total.add(stats);
+		total.add(stats);
+		Assert.assertEquals(2L, total.getExpandedNodes());
+		Assert.assertEquals(3L, total.getPeakOpen());
+	}
+
+	/**
+	 * Tests that every engine reports its work through Puzzle.getStats
+	 * @throws Exception
+	 */
+	@Test
+	public void testPuzzleStats() throws Exception
+	{
+		final String configuration = "dbaabdc_bddd2adbdb_abdcdd";
+		for (final SearchMethod method : SearchMethod.values())
+		{
+			final Puzzle puzzle = new Puzzle(configuration);
+			Assert.assertNull(puzzle.getStats());
+			method.solve(puzzle);
+			final SearchStats stats = puzzle.getStats();
+			Assert.assertTrue(stats.getExpandedNodes() > 0L);
+			Assert.assertTrue(stats.getGeneratedNodes() >= stats.getExpandedNodes());
+			Assert.assertEquals(stats.getExpandedNodes(), puzzle.getExpandedNodes());
+		}
+	}
+}
@@ -0,0 +1,169 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests SharedDistanceTable and A* Search shortened by it
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection", "FeatureEnvy"})
+public class SharedDistanceTableTest
+{
+	/**
+	 * A puzzle whose shortest route is 14 jumps
+	 */
+	private static final String CONFIGURATION = "dbaabdc_bddd2adbdb_abdcdd";
+
+	/**
+	 * Gets the packed states of the route of a solved puzzle
+	 *
+	 * @param puzzle The puzzle
+	 *
+	 * @return Packed states from start to destination
+	 */
+	private static long[] statesOf(final Puzzle puzzle)
+	{
+		final long[] states = new long[puzzle.getRoute().size()];
+		for (int i = 0;i < states.length;i++)
+		{
+			states[i] = puzzle.getRoute().get(i).getState();
+		}
+		return states;
+	}
+
+	/**
+	 * Tests that every state of a recorded route knows its distance and the rest of the route
+	 * @throws Exception
+	 */
+	@Test
+	public void testRecord() throws Exception
+	{
+		final Puzzle puzzle = new Puzzle(CONFIGURATION);
+		puzzle.solveWithAStarSearch();
+		final long[] states = SharedDistanceTableTest.statesOf(puzzle);
+		final long destination = states[states.length - 1];
+		final SharedDistanceTable table = new SharedDistanceTable(1 << 10);
+		Assert.assertEquals(SharedDistanceTable.UNKNOWN, table.distance(states[0], destination));
+		Assert.assertNull(table.route(states[0], destination));
+		table.record(states);
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals((long) (states.length - 1), (long) table.size());
+		for (int i = 0;i < states.length;i++)
+		{
+			//noinspection UnnecessaryExplicitNumericCast
+			Assert.assertEquals((long) (states.length - 1 - i), (long) table.distance(states[i], destination));
+			final long[] rest = table.route(states[i], destination);
+			for (int j = 0;j < rest.length;j++)
+			{
+				Assert.assertEquals(states[i + j], rest[j]);
+			}
+		}
+		//Distances are kept for each destination
+		Assert.assertEquals(SharedDistanceTable.UNKNOWN, table.distance(states[0], states[1]));
+	}
+
+	/**
+	 * Tests that the table never holds more than its capacity
+	 * @throws Exception
+	 */
+	@Test
+	public void testEviction() throws Exception
+	{
+		final SharedDistanceTable table = new SharedDistanceTable(16);
+		for (final Puzzle puzzle : Application.initialisePuzzles())
+		{
+			puzzle.solveWithAStarSearch();
+			table.record(SharedDistanceTableTest.statesOf(puzzle));
+			Assert.assertTrue(table.size() <= 16);
+		}
+	}
+
+	/**
+	 * Tests that the states left after many evictions still give shortest routes to their destinations
+	 * @throws Exception
+	 */
+	@Test
+	public void testEvictedRoutes() throws Exception
+	{
+		final SharedDistanceTable table = new SharedDistanceTable(64);
+		final List<long[]> routes = new ArrayList<long[]>();
+		for (final Puzzle puzzle : Application.initialisePuzzles())
+		{
+			puzzle.solveWithAStarSearch();
+			routes.add(SharedDistanceTableTest.statesOf(puzzle));
+			table.record(routes.get(routes.size() - 1));
+		}
+		int found = 0;
+		for (final long[] states : routes)
+		{
+			final long destination = states[states.length - 1];
+			for (int i = 0;i < states.length;i++)
+			{
+				final long[] rest = table.route(states[i], destination);
+				if (rest != null)
+				{
+					found++;
+					//noinspection UnnecessaryExplicitNumericCast
+					Assert.assertEquals((long) (states.length - i), (long) rest.length);
+					Assert.assertEquals(destination, rest[rest.length - 1]);
+				}
+			}
+		}
+		Assert.assertTrue(found > 0);
+	}
+
+	/**
+	 * Tests that a puzzle whose route passes through recorded states still finds a shortest route, expanding fewer nodes
+	 * @throws Exception
+	 */
+	@Test
+	public void testShortcut() throws Exception
+	{
+		final Puzzle first = new Puzzle(CONFIGURATION);
+		final SharedDistanceTable table = new SharedDistanceTable(1 << 10);
+		first.solveWithAStarSearch(HeuristicType.LINEAR_CONFLICT, table);
+		Assert.assertEquals("SHARED_A_STAR/LINEAR_CONFLICT", first.getStats().getMethod());
+		//A puzzle with the same destination starting one jump away
+		final long[] neighbours = new long[PackedState.MOVES];
+		final int count = PackedState.successors(first.getRoute().get(0).getState(), neighbours, 0);
+		for (int i = 0;i < count;i++)
+		{
+			final String configuration = PackedState.toString(neighbours[i]) + '2' + first.getDestinationConfig();
+			final Puzzle alone = new Puzzle(configuration);
+			alone.solveWithAStarSearch(HeuristicType.LINEAR_CONFLICT);
+			final Puzzle shared = new Puzzle(configuration);
+			shared.solveWithAStarSearch(HeuristicType.LINEAR_CONFLICT, table);
+			//noinspection UnnecessaryExplicitNumericCast
+			Assert.assertEquals((long) alone.getRoute().size(), (long) shared.getRoute().size());
+			Assert.assertTrue(shared.getStats().getExpandedNodes() <= alone.getStats().getExpandedNodes());
+			final long[] states = SharedDistanceTableTest.statesOf(shared);
+			for (int j = 1;j < states.length;j++)
+			{
+				Assert.assertEquals(states[j], PackedState.move(states[j - 1],
+				                                                PackedState.moveBetween(states[j - 1], states[j])));
+			}
+		}
+	}
+
+	/**
+	 * Tests that workers sharing a table find shortest routes for every puzzle
+	 * @throws Exception
+	 */
+	@Test
+	public void testSolveAllParallel() throws Exception
+	{
+		final List<Puzzle> puzzles = new ArrayList<Puzzle>(Application.initialisePuzzles());
+		final PuzzleSolver solver = new PuzzleSolver(puzzles);
+		final List<SolveResult> results = solver.solveAllParallel(HeuristicType.LINEAR_CONFLICT,
+		                                                          new SharedDistanceTable(1 << 16), 3);
+		for (final SolveResult result : results)
+		{
+			Assert.assertTrue(result.isSolved());
+			final Puzzle alone = new Puzzle(result.getPuzzle().toString());
+			alone.solveWithAStarSearch();
+			//noinspection UnnecessaryExplicitNumericCast
+			Assert.assertEquals((long) alone.getRoute().size(), (long) result.getPuzzle().getRoute().size());
+		}
+	}
+}
@@ -0,0 +1,94 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+
+/**
+ * Tests SolutionBatchWriter and SolutionBatchReader
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection", "FeatureEnvy"})
+public class SolutionBatchWriterTest
+{
+	/**
+	 * Builds the text of a solution in the per-puzzle file layout
+	 *
+	 * @param puzzle A solved puzzle
+	 *
+	 * @return The 4 lines of the solution
+	 */
+	private static String perFileText(final Puzzle puzzle)
+	{
+		final StringBuilder text = new StringBuilder();
+		for (int row = 0;row < PackedState.ROWS;row++)
+		{
+			for (final PuzzleConfiguration configuration : puzzle.getRoute())
+			{
+				text.append(configuration.getRow(row)).append(' ');
+			}
+			text.append('\n');
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Tests that solutions read back from the batch match the per-puzzle layout, across 2 writers appending
+	 * @throws Exception
+	 */
+	@Test
+	public void testWriteAndRead() throws Exception
+	{
+		final Puzzle first = new Puzzle("dbaabdc_bddd2adbdb_abdcdd");
+		final Puzzle second = new Puzzle("dbbdad_bacdd2bbdddacb_dda");
+		first.solveWithAStarSearch();
+		second.solveWithAStarSearch();
+		final File dataFile = File.createTempFile("solutions", ".txt");
+		final File indexFile = File.createTempFile("solutions", ".idx");
+		try
+		{
+			SolutionBatchWriter writer = new SolutionBatchWriter(dataFile, indexFile);
+			try
+			{
+				writer.write(first);
+				//Unsolved puzzles are skipped
+				writer.accept(new SolveResult(new Puzzle("aaaaaaaaaaa_2bbbbbbbbbbb_"),
+				                              new UnsolvablePuzzleException(first)));
+			}
+			finally
+			{
+				writer.close();
+			}
+			writer = new SolutionBatchWriter(dataFile, indexFile);
+			try
+			{
+				writer.accept(new SolveResult(second, null));
+			}
+			finally
+			{
+				writer.close();
+			}
+
+			final SolutionBatchReader reader = new SolutionBatchReader(dataFile, indexFile);
+			try
+			{
+				//noinspection UnnecessaryExplicitNumericCast
+				Assert.assertEquals(2L, (long) reader.size());
+				Assert.assertEquals(first.getFilename(), reader.getFilename(0));
+				Assert.assertEquals(second.getFilename(), reader.getFilename(1));
+				Assert.assertEquals(first.getDestinationConfig().getState(), reader.getDestination(0));
+				Assert.assertEquals(SolutionBatchWriterTest.perFileText(second), reader.getText(1));
+				Assert.assertEquals(SolutionBatchWriterTest.perFileText(first), reader.getText(0));
+			}
+			finally
+			{
+				reader.close();
+			}
+		}
+		finally
+		{
+			//noinspection ResultOfMethodCallIgnored
+			dataFile.delete();
+			//noinspection ResultOfMethodCallIgnored
+			indexFile.delete();
+		}
+	}
+}
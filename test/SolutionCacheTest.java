@@ -0,0 +1,97 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+/**
+ * Tests SolutionCache
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection", "FeatureEnvy"})
+public class SolutionCacheTest
+{
+	/**
+	 * Tests that a route searched once is served from memory, then from the log once evicted or reopened
+	 * @throws Exception
+	 */
+	@Test
+	public void testHitsAndPersistence() throws Exception
+	{
+		final File file = File.createTempFile("solutions", ".log");
+		//noinspection ResultOfMethodCallIgnored
+		file.delete();
+		try
+		{
+			final Puzzle first = new Puzzle("dbaabdc_bddd2adbdb_abdcdd");
+			final Puzzle second = new Puzzle("dbbdad_bacdd2bbdddacb_dda");
+			SolutionCache cache = new SolutionCache(file, 1);
+			try
+			{
+				cache.solve(first, SearchMethod.A_STAR);
+				Assert.assertEquals("A_STAR/LINEAR_CONFLICT", first.getStats().getMethod());
+				cache.solve(second, SearchMethod.A_STAR);
+				//second is now the only route in memory
+				final Puzzle again = new Puzzle("dbbdad_bacdd2bbdddacb_dda");
+				Assert.assertTrue(again.solveFromCache(cache));
+				Assert.assertEquals(SolutionCache.METHOD, again.getStats().getMethod());
+				//noinspection UnnecessaryExplicitNumericCast
+				Assert.assertEquals(0L, (long) again.getExpandedNodes());
+				Assert.assertEquals(second.getRoute(), again.getRoute());
+				//noinspection UnnecessaryExplicitNumericCast
+				Assert.assertEquals(1L, (long) cache.getMemoryHits());
+				//noinspection UnnecessaryExplicitNumericCast
+				Assert.assertEquals(2L, (long) cache.getMisses());
+				//A mirror image of a cached puzzle is a hit
+				final Puzzle mirrored = new Puzzle("abddbab_cddd2bda_bddbaddc");
+				Assert.assertTrue(mirrored.solveFromCache(cache));
+				//noinspection UnnecessaryExplicitNumericCast
+				Assert.assertEquals((long) first.getRoute().size(), (long) mirrored.getRoute().size());
+				//noinspection UnnecessaryExplicitNumericCast
+				Assert.assertEquals(1L, (long) cache.getDiskHits());
+			}
+			finally
+			{
+				cache.close();
+			}
+
+			//A record cut short by a crash is dropped
+			final RandomAccessFile log = new RandomAccessFile(file, "rw");
+			try
+			{
+				log.seek(log.length());
+				log.write(new byte[]{1, 2, 3});
+			}
+			finally
+			{
+				log.close();
+			}
+
+			cache = new SolutionCache(file, 1);
+			try
+			{
+				//noinspection UnnecessaryExplicitNumericCast
+				Assert.assertEquals(2L, (long) cache.size());
+				final Puzzle again = new Puzzle("dbaabdc_bddd2adbdb_abdcdd");
+				cache.solve(again, SearchMethod.A_STAR);
+				Assert.assertEquals(first.getRoute(), again.getRoute());
+				//noinspection UnnecessaryExplicitNumericCast
+				Assert.assertEquals(1L, (long) cache.getDiskHits());
+				Assert.assertNull(cache.get(second.getDestinationConfig().getState(),
+				                            first.getDestinationConfig().getState()));
+				Assert.assertEquals(0.5, cache.getHitRate(), 0.0);
+				cache.put(again);
+				//noinspection UnnecessaryExplicitNumericCast
+				Assert.assertEquals(2L, (long) cache.size());
+			}
+			finally
+			{
+				cache.close();
+			}
+		}
+		finally
+		{
+			//noinspection ResultOfMethodCallIgnored
+			file.delete();
+		}
+	}
+}
@@ -0,0 +1,109 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+
+/**
+ * Tests SolutionExporter
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection", "FeatureEnvy"})
+public class SolutionExporterTest
+{
+	/**
+	 * Reads a file into a single string, without its line breaks
+	 *
+	 * @param file The file
+	 *
+	 * @return The contents
+	 *
+	 * @throws Exception if the file cannot be read
+	 */
+	private static String read(final File file) throws Exception
+	{
+		final StringBuilder contents = new StringBuilder();
+		final BufferedReader reader = new BufferedReader(new FileReader(file));
+		try
+		{
+			String line = reader.readLine();
+			while (line != null)
+			{
+				contents.append(line);
+				line = reader.readLine();
+			}
+		}
+		finally
+		{
+			reader.close();
+		}
+		return contents.toString();
+	}
+
+	/**
+	 * Tests that the statistics of every searched puzzle and the total are written as both CSV and JSON
+	 * @throws Exception
+	 */
+	@Test
+	public void testExportStats() throws Exception
+	{
+		final File directory = File.createTempFile("stats", "");
+		//noinspection ResultOfMethodCallIgnored
+		directory.delete();
+		//noinspection ResultOfMethodCallIgnored
+		directory.mkdir();
+		final File csv = new File(directory, "stats.csv");
+		final File json = new File(directory, "stats.json");
+		try
+		{
+			final int[] exported = new int[1];
+			final SolutionExporter exporter = new SolutionExporter(directory, new SolutionSink()
+			{
+				@Override
+				public void accept(final SolveResult result)
+				{
+					exported[0]++;
+				}
+			});
+			final Puzzle puzzle = new Puzzle("dbaabdc_bddd2adbdb_abdcdd");
+			puzzle.solveWithAStarSearch();
+			try
+			{
+				exporter.accept(new SolveResult(puzzle, null));
+				exporter.accept(SolveResult.unreadable("dbbdad_bacdd2bbd"));
+			}
+			finally
+			{
+				exporter.close();
+			}
+			//noinspection UnnecessaryExplicitNumericCast
+			Assert.assertEquals(1L, (long) exported[0]);
+			Assert.assertEquals(1L, exporter.getFailures());
+
+			final String rows = SolutionExporterTest.read(csv);
+			Assert.assertTrue(rows.contains("dbaabdc_bddd2adbdb_abdcdd.txt,A_STAR/LINEAR_CONFLICT,true,14,"));
+			Assert.assertTrue(rows.contains("total,total,false,14,"));
+
+			final String document = SolutionExporterTest.read(json);
+			Assert.assertTrue(document.startsWith("{  \"puzzles\": [    {\"puzzle\": \"dbaabdc_bddd2adbdb_abdcdd.txt\""));
+			Assert.assertTrue(document.contains("\"moves\": 14"));
+			Assert.assertTrue(document.endsWith("\"total\": {\"puzzle\": \"total\", \"method\": \"total\", " +
+			                                    "\"solved\": false, \"moves\": 14, \"expandedNodes\": " +
+			                                    puzzle.getExpandedNodes() + ", \"generatedNodes\": " +
+			                                    puzzle.getStats().getGeneratedNodes() + ", \"duplicates\": " +
+			                                    puzzle.getStats().getDuplicates() + ", \"peakOpen\": " +
+			                                    puzzle.getStats().getPeakOpen() + ", \"wallNanos\": " +
+			                                    puzzle.getStats().getWallNanos() + ", \"allocatedBytes\": " +
+			                                    puzzle.getStats().getAllocatedBytes() + "}}"));
+		}
+		finally
+		{
+			//noinspection ResultOfMethodCallIgnored
+			csv.delete();
+			//noinspection ResultOfMethodCallIgnored
+			json.delete();
+			//noinspection ResultOfMethodCallIgnored
+			directory.delete();
+		}
+	}
+}
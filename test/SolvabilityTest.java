@@ -0,0 +1,70 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.FileReader;
+
+/**
+ * Tests Solvability
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection", "FeatureEnvy"})
+public class SolvabilityTest
+{
+	/**
+	 * Tests that every puzzle in the resources is solvable
+	 * @throws Exception
+	 */
+	@Test
+	public void testSolvable() throws Exception
+	{
+		final PuzzleReader reader = new PuzzleReader(new FileReader("./res/my_tiles"));
+		try
+		{
+			for (Puzzle puzzle = reader.next();puzzle != null;puzzle = reader.next())
+			{
+				Assert.assertTrue(puzzle.toString(), puzzle.isSolvable());
+			}
+		}
+		finally
+		{
+			reader.close();
+		}
+		//Swapping 2 different tiles is an odd permutation, which repeated letters make up for
+		Assert.assertTrue(new Puzzle("dbaabdc_bddd2bdaabdc_bddd").isSolvable());
+	}
+
+	/**
+	 * Tests that puzzles whose start and destination have different tiles are not solvable
+	 * @throws Exception
+	 */
+	@Test
+	public void testDifferentTiles() throws Exception
+	{
+		Assert.assertFalse(new Puzzle("aaaaaaaaaaa_2bbbbbbbbbbb_").isSolvable());
+		Assert.assertFalse(new Puzzle("dbaabdc_bddd2adbdb_abdcda").isSolvable());
+		Assert.assertFalse(Solvability.isSolvable(PackedState.pack("abcdabcdabc_"), PackedState.pack("abcdabcdabd_")));
+	}
+
+	/**
+	 * Tests that an unsolvable puzzle is rejected by every method before it is searched
+	 * @throws Exception
+	 */
+	@Test
+	public void testRejectedBeforeSearch() throws Exception
+	{
+		for (final SearchMethod method : SearchMethod.values())
+		{
+			final Puzzle puzzle = new Puzzle("aaaaaaaaaaa_2bbbbbbbbbbb_");
+			try
+			{
+				method.solve(puzzle);
+				Assert.fail(method.name());
+			}
+			catch (final UnsolvablePuzzleException ignored)
+			{
+				//noinspection UnnecessaryExplicitNumericCast
+				Assert.assertEquals(0L, (long) puzzle.getStats().getExpandedNodes());
+				Assert.assertNull(puzzle.getRoute());
+			}
+		}
+	}
+}
@@ -0,0 +1,234 @@
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Tests SolveServer
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection", "FeatureEnvy"})
+public class SolveServerTest
+{
+	/**
+	 * A puzzle whose shortest route is 14 jumps
+	 */
+	private static final String PUZZLE = "dbaabdc_bddd2adbdb_abdcdd";
+
+	/**
+	 * The server under test
+	 */
+	private SolveServer server;
+
+	/**
+	 * Starts a server on any free port
+	 * @throws Exception
+	 */
+	@Before
+	public void setUp() throws Exception
+	{
+		this.server = new SolveServer(0, SearchMethod.A_STAR, 2, null);
+		this.server.start();
+	}
+
+	/**
+	 * Stops the server
+	 * @throws Exception
+	 */
+	@After
+	public void tearDown() throws Exception
+	{
+		this.server.close();
+	}
+
+	/**
+	 * Sends a request to the server
+	 *
+	 * @param query The query string
+	 * @param body  The body to POST, or null to GET
+	 *
+	 * @return The status followed by a newline and the body of the response
+	 *
+	 * @throws Exception
+	 */
+	private String request(final String query, final String body) throws Exception
+	{
+		final URL url = new URL("http://localhost:" + this.server.getPort() + SolveServer.PATH + '?' + query);
+		final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		try
+		{
+			if (body != null)
+			{
+				connection.setRequestMethod("POST");
+				connection.setDoOutput(true);
+				final OutputStream output = connection.getOutputStream();
+				output.write(body.getBytes("UTF-8"));
+				output.close();
+			}
+			final int status = connection.getResponseCode();
+			final InputStream input = (status < 400) ? connection.getInputStream() : connection.getErrorStream();
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			final byte[] buffer = new byte[1024];
+			for (int read = input.read(buffer);read >= 0;read = input.read(buffer))
+			{
+				bytes.write(buffer, 0, read);
+			}
+			input.close();
+			return status + "\n" + bytes.toString("UTF-8");
+		}
+		finally
+		{
+			connection.disconnect();
+		}
+	}
+
+	/**
+	 * Tests that the moves returned take the start to the destination in the fewest jumps
+	 * @throws Exception
+	 */
+	@Test
+	public void testMoves() throws Exception
+	{
+		final String[] response = this.request("puzzle=" + PUZZLE, null).split("\n");
+		Assert.assertEquals("200", response[0]);
+		final String[] line = response[1].split(" ");
+		Assert.assertEquals("14", line[0]);
+		long state = PackedState.pack(PUZZLE.substring(0, PackedState.CELLS));
+		for (int i = 0;i < line[1].length();i++)
+		{
+			state = PackedState.move(state, "URDL".indexOf(line[1].charAt(i)));
+		}
+		Assert.assertEquals(PackedState.pack(PUZZLE.substring(PackedState.CELLS + 1)), state);
+	}
+
+	/**
+	 * Tests that the rows returned match the layout of the exported solution files
+	 * @throws Exception
+	 */
+	@Test
+	public void testRows() throws Exception
+	{
+		final Puzzle puzzle = new Puzzle(PUZZLE);
+		puzzle.solveWithAStarSearch();
+		Assert.assertEquals("200\n" + SolveServer.rowsOf(puzzle),
+		                    this.request("puzzle=" + PUZZLE + "&format=" + SolveServer.ROWS, null));
+	}
+
+	/**
+	 * Tests that the puzzles of a POST are answered in order, with repeated puzzles solved once
+	 * @throws Exception
+	 */
+	@Test
+	public void testBatch() throws Exception
+	{
+		final String other = "dbbdad_bacdd2bbdddacb_dda";
+		final String[] response = this.request("format=moves", PUZZLE + '\n' + other + "\n\n" + PUZZLE + '\n')
+		                              .split("\n");
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(4L, (long) response.length);
+		Assert.assertEquals("200", response[0]);
+		Assert.assertEquals(response[1], response[3]);
+		Assert.assertTrue(response[1].startsWith("14 "));
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(1L, (long) this.server.getBatches());
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(2L, (long) this.server.getSolves());
+	}
+
+	/**
+	 * Tests that unreadable requests and unsolvable puzzles are reported
+	 * @throws Exception
+	 */
+	@Test
+	public void testErrors() throws Exception
+	{
+		Assert.assertTrue(this.request("puzzle=dbaabdc_bddd", null).startsWith("400\n"));
+		Assert.assertTrue(this.request("puzzle=dbaabdc_bddd2adbdb_abdcde", null).startsWith("400\n"));
+		Assert.assertTrue(this.request("puzzle=" + PUZZLE + "&format=json", null).startsWith("400\n"));
+		Assert.assertTrue(this.request("puzzle=" + PUZZLE + "&timeout=soon", null).startsWith("400\n"));
+		Assert.assertTrue(this.request("", null).startsWith("405\n"));
+		Assert.assertTrue(this.request("puzzle=aaaaaaaaaaa_2bbbbbbbbbbb_", null).startsWith("422\nUNSOLVED "));
+	}
+
+	/**
+	 * Tests that a request which gives up is answered as timed out and leaves the server answering others
+	 * @throws Exception
+	 */
+	@Test
+	public void testTimeout() throws Exception
+	{
+		Assert.assertTrue(this.request("puzzle=" + PUZZLE + "&timeout=0", null).startsWith("504\n"));
+		Assert.assertTrue(this.request("puzzle=" + PUZZLE + "&timeout=60000", null).startsWith("200\n14 "));
+		//A timeout too large to add to System.nanoTime waits as long as needed rather than giving up at once
+		Assert.assertTrue(this.request("puzzle=" + PUZZLE + "&timeout=" + Long.MAX_VALUE, null)
+		                      .startsWith("200\n14 "));
+	}
+
+	/**
+	 * Tests that a request with too many puzzles is refused and that a large one is split into full batches
+	 * @throws Exception
+	 */
+	@Test
+	public void testLimits() throws Exception
+	{
+		final StringBuilder body = new StringBuilder();
+		for (int i = 0;i <= SolveServer.MAX_PUZZLES;i++)
+		{
+			body.append(PUZZLE).append('\n');
+		}
+		Assert.assertTrue(this.request("format=moves", body.toString()).startsWith("413\n"));
+		final StringBuilder padded = new StringBuilder(body);
+		for (int i = 0;i < 200;i++)
+		{
+			padded.append("                              \n");
+		}
+		Assert.assertTrue(this.request("format=moves", padded.toString()).startsWith("413\n"));
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(0L, (long) this.server.getBatches());
+		body.setLength(0);
+		for (int i = 0;i < 100;i++)
+		{
+			body.append(PUZZLE).append('\n');
+		}
+		final String[] response = this.request("format=moves", body.toString()).split("\n");
+		Assert.assertEquals("200", response[0]);
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(101L, (long) response.length);
+		//100 puzzles are at least 2 batches of at most 64
+		Assert.assertTrue(this.server.getBatches() >= 2L);
+	}
+
+	/**
+	 * Tests that a request for more puzzles than are free is refused until the admitted puzzles are solved
+	 * @throws Exception
+	 */
+	@Test
+	public void testOverload() throws Exception
+	{
+		this.server.close();
+		this.server = new SolveServer(0, SearchMethod.A_STAR, 1, null, 2);
+		this.server.start();
+		Assert.assertTrue(this.request("format=moves", PUZZLE + '\n' + PUZZLE + '\n' + PUZZLE + '\n')
+		                      .startsWith("503\n"));
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(0L, (long) this.server.getBatches());
+		Assert.assertTrue(this.request("format=moves", PUZZLE + '\n' + PUZZLE + '\n').startsWith("200\n14 "));
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(0L, (long) this.server.getQueued());
+		Assert.assertTrue(this.request("puzzle=" + PUZZLE + "&timeout=0", null).startsWith("504\n"));
+		final long deadline = System.currentTimeMillis() + 10000L;
+		while ((this.server.getQueued() > 0) && (System.currentTimeMillis() < deadline))
+		{
+			Thread.sleep(10L);
+		}
+		//The puzzles of a request which gave up are released once they are dropped
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(0L, (long) this.server.getQueued());
+		Assert.assertTrue(this.request("format=moves", PUZZLE + '\n' + PUZZLE + '\n').startsWith("200\n14 "));
+	}
+}
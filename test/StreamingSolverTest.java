@@ -0,0 +1,125 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tests StreamingSolver
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection", "FeatureEnvy"})
+public class StreamingSolverTest
+{
+	/**
+	 * A list of puzzles, the third of which has different letters in its start and destination
+	 */
+	private static final String LIST = "dbbdad_bacdd2bbdddacb_dda\n" +
+	                                   "badadbcb_ddd2bbadddca_ddb\n" +
+	                                   "aaaaaaaaaaa_2bbbbbbbbbbb_\n" +
+	                                   "db_dbaddadcb2bbdddadcad_b\n";
+
+	/**
+	 * Tests that every puzzle reaches the sink once, from a single thread, including the one which fails
+	 * @throws Exception
+	 */
+	@Test
+	public void testSolve() throws Exception
+	{
+		final Set<String> solved = new HashSet<String>();
+		final Set<String> failed = new HashSet<String>();
+		final Set<Thread> threads = new HashSet<Thread>();
+		final long count = new StreamingSolver(SearchMethod.A_STAR, 2).solve(
+				new PuzzleReader(new StringReader(LIST)), new SolutionSink()
+		{
+			@Override
+			public void accept(final SolveResult result)
+			{
+				threads.add(Thread.currentThread());
+				if (result.isSolved())
+				{
+					final Puzzle puzzle = result.getPuzzle();
+					Assert.assertEquals(puzzle.getDestinationConfig(),
+					                    puzzle.getRoute().get(puzzle.getRoute().size() - 1));
+					solved.add(puzzle.toString());
+				}
+				else
+				{
+					Assert.assertTrue(result.getFailure() instanceof UnsolvablePuzzleException);
+					failed.add(result.getPuzzle().toString());
+				}
+			}
+		});
+		//noinspection UnnecessaryExplicitNumericCast,MagicNumber
+		Assert.assertEquals(4L, count);
+		//noinspection UnnecessaryExplicitNumericCast,MagicNumber
+		Assert.assertEquals(3L, (long) solved.size());
+		Assert.assertTrue(failed.contains("aaaaaaaaaaa_2bbbbbbbbbbb_"));
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(1L, (long) threads.size());
+	}
+
+	/**
+	 * Tests that a malformed line is reported as a failed result and the puzzles after it are still solved
+	 * @throws Exception
+	 */
+	@Test
+	public void testMalformedLine() throws Exception
+	{
+		final Set<String> solved = new HashSet<String>();
+		final Set<String> unreadable = new HashSet<String>();
+		final long count = new StreamingSolver(SearchMethod.A_STAR, 2).solve(
+				new PuzzleReader(new StringReader("dbbdad_bacdd2bbd\n" + LIST)), new SolutionSink()
+		{
+			@Override
+			public void accept(final SolveResult result)
+			{
+				if (result.isSolved())
+				{
+					solved.add(result.getPuzzle().toString());
+				}
+				else if (result.getPuzzle() == null)
+				{
+					Assert.assertTrue(result.getFailure() instanceof IllegalArgumentException);
+					unreadable.add(result.getLine());
+				}
+			}
+		});
+		//noinspection UnnecessaryExplicitNumericCast,MagicNumber
+		Assert.assertEquals(5L, count);
+		//noinspection UnnecessaryExplicitNumericCast,MagicNumber
+		Assert.assertEquals(3L, (long) solved.size());
+		Assert.assertTrue(unreadable.contains("dbbdad_bacdd2bbd"));
+	}
+
+	/**
+	 * Tests that a failing sink stops receiving results and its failure is thrown once the list is finished
+	 * @throws Exception
+	 */
+	@Test
+	public void testSinkFailure() throws Exception
+	{
+		final int[] calls = new int[1];
+		try
+		{
+			new StreamingSolver(SearchMethod.A_STAR, 2).solve(new PuzzleReader(new StringReader(LIST)),
+			                                                  new SolutionSink()
+			{
+				@Override
+				public void accept(final SolveResult result) throws IOException
+				{
+					calls[0]++;
+					throw new IOException("Disk full");
+				}
+			});
+			Assert.fail("The failure of the sink should be thrown");
+		}
+		catch (final IOException exception)
+		{
+			Assert.assertEquals("Disk full", exception.getMessage());
+		}
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals(1L, (long) calls[0]);
+	}
+}
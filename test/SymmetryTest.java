@@ -0,0 +1,105 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests Symmetry
+ */
+@SuppressWarnings({"PublicMethodNotExposedInInterface", "SpellCheckingInspection", "FeatureEnvy"})
+public class SymmetryTest
+{
+	/**
+	 * Mirrors a configuration left to right
+	 *
+	 * @param configuration The configuration in row-major order
+	 *
+	 * @return The mirrored configuration
+	 */
+	private static String mirror(final String configuration)
+	{
+		final StringBuilder mirrored = new StringBuilder(configuration.length());
+		for (int row = 0;row < PackedState.ROWS;row++)
+		{
+			final int first = row * PackedState.COLUMNS;
+			mirrored.append(new StringBuilder(configuration.substring(first, first + PackedState.COLUMNS)).reverse());
+		}
+		return mirrored.toString();
+	}
+
+	/**
+	 * Rotates a configuration by 180 degrees
+	 *
+	 * @param configuration The configuration in row-major order
+	 *
+	 * @return The rotated configuration
+	 */
+	private static String rotate(final String configuration)
+	{
+		return new StringBuilder(configuration).reverse().toString();
+	}
+
+	/**
+	 * Swaps two letters of a configuration
+	 *
+	 * @param configuration The configuration
+	 * @param first         A letter
+	 * @param second        Another letter
+	 *
+	 * @return The relabelled configuration
+	 */
+	private static String swap(final String configuration, final char first, final char second)
+	{
+		return configuration.replace(first, '#').replace(second, first).replace('#', second);
+	}
+
+	/**
+	 * Tests that mirror images, rotations and relabellings of a puzzle share its canonical form
+	 */
+	@Test
+	public void testCanonicalForm()
+	{
+		final String start = "dbaabdc_bddd";
+		final String destination = "adbdb_abdcdd";
+		final Symmetry symmetry = Symmetry.canonical(PackedState.pack(start), PackedState.pack(destination));
+		final long canonicalStart = symmetry.apply(PackedState.pack(start));
+		final long canonicalDestination = symmetry.apply(PackedState.pack(destination));
+		final String[][] others = {
+				{SymmetryTest.swap(SymmetryTest.mirror(start), 'a', 'd'),
+				 SymmetryTest.swap(SymmetryTest.mirror(destination), 'a', 'd')},
+				{SymmetryTest.swap(SymmetryTest.rotate(start), 'b', 'c'),
+				 SymmetryTest.swap(SymmetryTest.rotate(destination), 'b', 'c')},
+				{SymmetryTest.mirror(SymmetryTest.rotate(start)), SymmetryTest.mirror(SymmetryTest.rotate(destination))}};
+		for (final String[] pair : others)
+		{
+			final long otherStart = PackedState.pack(pair[0]);
+			final long otherDestination = PackedState.pack(pair[1]);
+			final Symmetry other = Symmetry.canonical(otherStart, otherDestination);
+			Assert.assertEquals(canonicalStart, other.apply(otherStart));
+			Assert.assertEquals(canonicalDestination, other.apply(otherDestination));
+			Assert.assertEquals(otherStart, other.inverse().apply(canonicalStart));
+			Assert.assertEquals(canonicalDestination,
+			                    Symmetry.canonical(otherDestination).apply(otherDestination));
+		}
+		Assert.assertTrue(Symmetry.IDENTITY.isIdentity());
+		Assert.assertEquals(PackedState.pack(start), Symmetry.IDENTITY.apply(PackedState.pack(start)));
+	}
+
+	/**
+	 * Tests that a route solved in canonical form is mapped back onto the puzzle with the same length
+	 */
+	@Test
+	public void testSolveCanonical()
+	{
+		final Puzzle puzzle = new Puzzle("abddbab_cddd2bda_bddbaddc");
+		puzzle.solveCanonical(SearchMethod.A_STAR);
+		final Puzzle direct = new Puzzle("abddbab_cddd2bda_bddbaddc");
+		direct.solveWithAStarSearch();
+		//noinspection UnnecessaryExplicitNumericCast
+		Assert.assertEquals((long) direct.getRoute().size(), (long) puzzle.getRoute().size());
+		Assert.assertEquals(PackedState.pack("abddbab_cddd"), puzzle.getRoute().get(0).getState());
+		Assert.assertEquals(direct.getDestinationConfig(), puzzle.getRoute().get(puzzle.getRoute().size() - 1));
+		for (int i = 1;i < puzzle.getRoute().size();i++)
+		{
+			PackedState.moveBetween(puzzle.getRoute().get(i - 1).getState(), puzzle.getRoute().get(i).getState());
+		}
+	}
+}